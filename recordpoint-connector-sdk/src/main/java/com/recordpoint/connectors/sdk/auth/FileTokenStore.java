@@ -0,0 +1,220 @@
+package com.recordpoint.connectors.sdk.auth;
+
+import com.google.common.base.Preconditions;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Set;
+
+/**
+ * Persists the access token of a {@link MsalTokenManager} in a file, encrypted with a user-supplied AES key.
+ * <p>
+ * A token manager configured with a store reads the token from the file when it is constructed and writes it back
+ * when it is closed, so a short-lived process that runs again while the token is still valid, such as a batch job
+ * scheduled every minute, skips the round trip to Entra ID. The file is encrypted with AES-GCM and bound to the
+ * tenant, client and scope of the token manager: a file that was written for another tenant, encrypted with another
+ * key or tampered with is ignored and a new token is acquired.
+ * </p>
+ * <p>
+ * On file systems that support POSIX permissions, the file and the directories created for it are only accessible by
+ * their owner.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * FileTokenStore tokenStore = FileTokenStore.Builder()
+ *     .setPath(Paths.get(System.getProperty("user.home"), ".recordpoint", "token.bin"))
+ *     .setKey(Base64.getDecoder().decode(System.getenv("TOKEN_CACHE_KEY")))
+ *     .build();
+ * try (TokenManager tokenManager = MsalTokenManager.Builder()
+ *         .setServiceSettings(settings)
+ *         .setTokenStore(tokenStore)
+ *         .build()) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class FileTokenStore {
+    private static final byte FORMAT_VERSION = 1;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private final Path path;
+    private final SecretKeySpec key;
+
+    /**
+     * Constructs a {@link FileTokenStore} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public FileTokenStore(Builder builder) {
+        Preconditions.checkNotNull(builder.path, "Path cannot be null");
+        Preconditions.checkNotNull(builder.key, "Key cannot be null");
+        Preconditions.checkArgument(builder.key.length == 16 || builder.key.length == 24 || builder.key.length == 32,
+                "Key must be 16, 24 or 32 bytes long");
+        this.path = builder.path;
+        this.key = new SecretKeySpec(builder.key, "AES");
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the file where the token is stored.
+     *
+     * @return the path of the file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads the token stored for the given identity.
+     *
+     * @param identity the tenant, client and scope the token was acquired for.
+     * @return the stored token, or {@code null} if there is no file or it cannot be decrypted for this identity.
+     * @throws IOException if the file cannot be read.
+     */
+    Token load(String identity) throws IOException {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (data.length <= IV_LENGTH + 1 || data[0] != FORMAT_VERSION) {
+            return null;
+        }
+        String[] fields;
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, data, 1, IV_LENGTH));
+            cipher.updateAAD(identity.getBytes(StandardCharsets.UTF_8));
+            byte[] plain = cipher.doFinal(data, 1 + IV_LENGTH, data.length - 1 - IV_LENGTH);
+            fields = new String(plain, StandardCharsets.UTF_8).split("\n", -1);
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+        if (fields.length != 3) {
+            return null;
+        }
+        Token token = new Token();
+        token.setAccessToken(fields[0]);
+        token.setTokenType(fields[1].isEmpty() ? null : fields[1]);
+        try {
+            token.setExpiresInSeconds(Long.parseLong(fields[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return token;
+    }
+
+    /**
+     * Encrypts the token for the given identity and replaces the content of the file with it.
+     *
+     * @param identity the tenant, client and scope the token was acquired for.
+     * @param token    the token to store.
+     * @throws IOException if the file cannot be written.
+     */
+    void save(String identity, Token token) throws IOException {
+        String plain = token.getAccessToken() + "\n"
+                + (token.getTokenType() == null ? "" : token.getTokenType()) + "\n"
+                + token.getExpiresInSeconds();
+        byte[] iv = new byte[IV_LENGTH];
+        RANDOM.nextBytes(iv);
+        byte[] encrypted;
+        try {
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(identity.getBytes(StandardCharsets.UTF_8));
+            encrypted = cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Unable to encrypt the token", e);
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        Path temp;
+        if (posix) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+            temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp",
+                    PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE));
+        } else {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        }
+        try {
+            Files.write(temp, ByteBuffer.allocate(1 + iv.length + encrypted.length)
+                    .put(FORMAT_VERSION).put(iv).put(encrypted).array());
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link FileTokenStore} instances.
+     */
+    public static class Builder {
+        private Path path;
+        private byte[] key;
+
+        /**
+         * Sets the file where the token is stored. Each token manager should use its own file.
+         *
+         * @param path the path of the file.
+         * @return the builder instance.
+         */
+        public Builder setPath(Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the AES key used to encrypt the file, which must be 16, 24 or 32 bytes long.
+         *
+         * @param key the encryption key.
+         * @return the builder instance.
+         */
+        public Builder setKey(byte[] key) {
+            this.key = key == null ? null : key.clone();
+            return this;
+        }
+
+        /**
+         * Builds a new {@link FileTokenStore} instance.
+         *
+         * @return a new {@link FileTokenStore}.
+         */
+        public FileTokenStore build() {
+            return new FileTokenStore(this);
+        }
+    }
+}
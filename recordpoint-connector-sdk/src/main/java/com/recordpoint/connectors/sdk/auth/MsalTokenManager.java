@@ -1,33 +1,175 @@
 package com.recordpoint.connectors.sdk.auth;
 
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.recordpoint.connectors.sdk.service.ServiceSettings;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * A thread-safe {@link TokenManager} for Microsoft Entra ID.
+ * <p>
+ * The current token is read without locking; only a caller that finds the token missing or expired acquires a new
+ * one, while concurrent callers wait for that single acquisition. In refresh-ahead mode a background thread also
+ * replaces the token once {@link Builder#setRefreshRatio(double) a fraction of its lifetime} has elapsed, so requests
+ * normally never wait for Entra ID at all. If a background refresh fails it is retried, and the current token keeps
+ * being used until it expires.
+ * </p>
+ * <p>
+ * When a burst of requests is rejected with the same token, {@link #resetToken(String)} only acquires a new token
+ * for the first of them; the others find that the rejected token has already been replaced and reuse the new one.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (TokenManager tokenManager = MsalTokenManager.Builder()
+ *         .setServiceSettings(settings)
+ *         .setRefreshAhead(true)
+ *         .build()) {
+ *     // ...
+ * }
+ * }</pre>
+ */
 public class MsalTokenManager implements TokenManager {
-    private final AtomicReference<Token> currentToken = new AtomicReference<>();
+    private static final double DEFAULT_REFRESH_RATIO = 0.75;
+    private static final Duration DEFAULT_REFRESH_JITTER = Duration.ofMinutes(2);
+    private static final Duration DEFAULT_CLOCK_SKEW = Duration.ofSeconds(30);
+    private static final long MIN_REFRESH_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30000;
 
+    private volatile Token currentToken;
+    private volatile boolean closed;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    private final Object lock = new Object();
     private final TokenRequest tokenRequest;
+    private final double refreshRatio;
+    private final long refreshJitterMillis;
+    private final long clockSkewMillis;
+    private final ScheduledExecutorService scheduler;
+    private final boolean ownsScheduler;
+    private final FileTokenStore tokenStore;
 
     public MsalTokenManager(ServiceSettings serviceSettings) {
-        this.tokenRequest = new TokenRequest(serviceSettings.getTenantId(),
-                serviceSettings.getClientId(), serviceSettings.getSecret(), serviceSettings.getScope());
+        this(Builder().setServiceSettings(serviceSettings));
+    }
+
+    public MsalTokenManager(Builder builder) {
+        Preconditions.checkArgument(builder.tokenRequest != null || builder.serviceSettings != null,
+                "Either the service settings or a token request must be provided");
+        Preconditions.checkArgument(builder.refreshRatio > 0 && builder.refreshRatio < 1,
+                "Refresh ratio must be between 0 and 1");
+        Preconditions.checkArgument(!builder.refreshJitter.isNegative(), "Refresh jitter cannot be negative");
+        Preconditions.checkArgument(!builder.clockSkew.isNegative(), "Clock skew cannot be negative");
+        this.tokenRequest = builder.tokenRequest != null ? builder.tokenRequest
+                : new TokenRequest(builder.serviceSettings.getTenantId(), builder.serviceSettings.getClientId(),
+                builder.serviceSettings.getSecret(), builder.serviceSettings.getScope());
+        this.refreshRatio = builder.refreshRatio;
+        this.refreshJitterMillis = builder.refreshJitter.toMillis();
+        this.clockSkewMillis = builder.clockSkew.toMillis();
+        // tokens of a credential of unknown tenant and client could be read back for another tenant
+        this.tokenStore = tokenRequest.getIdentity() != null ? builder.tokenStore : null;
+        if (tokenStore != null) {
+            try {
+                Token token = tokenStore.load(tokenRequest.getIdentity());
+                if (isValidToken(token)) {
+                    this.currentToken = token;
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        if (builder.refreshAhead) {
+            this.ownsScheduler = builder.scheduler == null;
+            this.scheduler = builder.scheduler != null ? builder.scheduler
+                    : Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("msal-token-refresh-%d")
+                    .setDaemon(true)
+                    .build());
+            long delay = currentToken == null ? 0 : getRefreshDelayMillis(currentToken);
+            synchronized (lock) {
+                this.scheduledRefresh = scheduler.schedule(this::refreshInBackground, delay, TimeUnit.MILLISECONDS);
+            }
+        } else {
+            this.scheduler = null;
+            this.ownsScheduler = false;
+        }
+    }
+
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    public Token getCurrentToken() throws TokenResponseException {
+        Token token = currentToken;
+        if (isValidToken(token)) {
+            return token;
+        }
+        synchronized (lock) {
+            token = currentToken;
+            if (isValidToken(token)) {
+                return token;
+            }
+            return fetchToken();
+        }
     }
 
-    public synchronized Token getCurrentToken() throws TokenResponseException {
-        if (Objects.isNull(currentToken.get())) {
-            currentToken.set(tokenRequest.getToken());
-        } else if (!isValidToken()) {
-            currentToken.set(tokenRequest.getToken());
+    private boolean isValidToken(Token token) {
+        return token != null && System.currentTimeMillis() + clockSkewMillis < getExpiresAtMillis(token);
+    }
+
+    private static long getExpiresAtMillis(Token token) {
+        return token.getExpiresInSeconds() == null ? 0 : TimeUnit.SECONDS.toMillis(token.getExpiresInSeconds());
+    }
+
+    private Token fetchToken() throws TokenResponseException {
+        Token token = tokenRequest.getToken();
+        currentToken = token;
+        scheduleRefresh(getRefreshDelayMillis(token));
+        return token;
+    }
+
+    private long getRefreshDelayMillis(Token token) {
+        long lifetime = Math.max(0, getExpiresAtMillis(token) - System.currentTimeMillis());
+        long delay = (long) (lifetime * refreshRatio);
+        if (refreshJitterMillis > 0) {
+            delay -= ThreadLocalRandom.current().nextLong(Math.min(refreshJitterMillis, delay / 2) + 1);
         }
-        return currentToken.get();
+        return Math.max(MIN_REFRESH_DELAY_MILLIS, Math.min(delay, lifetime - clockSkewMillis));
     }
 
-    private boolean isValidToken() {
-        return !Instant.now().isAfter(Instant.ofEpochSecond(currentToken.get().getExpiresInSeconds()));
+    private void scheduleRefresh(long delayMillis) {
+        if (scheduler == null || closed || scheduler.isShutdown()) {
+            return;
+        }
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = scheduler.schedule(this::refreshInBackground, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshInBackground() {
+        synchronized (lock) {
+            try {
+                if (currentToken != null) {
+                    tokenRequest.reset();
+                }
+                fetchToken();
+            } catch (TokenResponseException | RuntimeException e) {
+                Token token = currentToken;
+                long remaining = token == null ? 0 : getExpiresAtMillis(token) - System.currentTimeMillis();
+                scheduleRefresh(Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(MIN_REFRESH_DELAY_MILLIS, remaining / 2)));
+            }
+        }
     }
 
     @Override
@@ -37,14 +179,164 @@ public class MsalTokenManager implements TokenManager {
 
     @Override
     public void resetToken() throws TokenResponseException {
-        currentToken.set(tokenRequest.getToken());
+        synchronized (lock) {
+            tokenRequest.reset();
+            fetchToken();
+        }
+    }
+
+    @Override
+    public void resetToken(String rejectedToken) throws TokenResponseException {
+        synchronized (lock) {
+            Token token = currentToken;
+            if (token != null && !token.getAccessToken().equals(rejectedToken) && isValidToken(token)) {
+                return;
+            }
+            tokenRequest.reset();
+            fetchToken();
+        }
     }
 
     @Override
     public void close() {
+        closed = true;
+        synchronized (lock) {
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+            }
+        }
+        if (ownsScheduler) {
+            scheduler.shutdownNow();
+        }
+        Token token = currentToken;
+        if (tokenStore != null && isValidToken(token)) {
+            try {
+                tokenStore.save(tokenRequest.getIdentity(), token);
+            } catch (IOException ignored) {
+            }
+        }
         try {
             tokenRequest.close();
         } catch (IOException ignored) {
         }
     }
+
+    /**
+     * Builder class for constructing {@link MsalTokenManager} instances.
+     */
+    public static class Builder {
+        private ServiceSettings serviceSettings;
+        private TokenRequest tokenRequest;
+        private boolean refreshAhead;
+        private ScheduledExecutorService scheduler;
+        private FileTokenStore tokenStore;
+        private double refreshRatio = DEFAULT_REFRESH_RATIO;
+        private Duration refreshJitter = DEFAULT_REFRESH_JITTER;
+        private Duration clockSkew = DEFAULT_CLOCK_SKEW;
+
+        /**
+         * Sets the service settings that hold the tenant ID, client ID, secret and scope.
+         *
+         * @param serviceSettings the service settings.
+         * @return the builder instance.
+         */
+        public Builder setServiceSettings(ServiceSettings serviceSettings) {
+            this.serviceSettings = serviceSettings;
+            return this;
+        }
+
+        /**
+         * Sets the token request used to acquire tokens, instead of building one from the service settings.
+         *
+         * @param tokenRequest the token request.
+         * @return the builder instance.
+         */
+        public Builder setTokenRequest(TokenRequest tokenRequest) {
+            this.tokenRequest = tokenRequest;
+            return this;
+        }
+
+        /**
+         * Sets the store that the token is read from on construction and written to on {@link MsalTokenManager#close()}, so that a
+         * process that runs again while the token is still valid does not have to acquire a new one. The tokens of a
+         * {@link TokenRequest#TokenRequest(com.azure.core.credential.TokenCredential, String) credential request} that
+         * has no tenant and client are not stored.
+         *
+         * @param tokenStore the token store.
+         * @return the builder instance.
+         */
+        public Builder setTokenStore(FileTokenStore tokenStore) {
+            this.tokenStore = tokenStore;
+            return this;
+        }
+
+        /**
+         * Enables refreshing the token in the background before it expires. Disabled by default, in which case the
+         * token is only acquired when a caller finds it missing or expired.
+         *
+         * @param refreshAhead whether to refresh the token in the background.
+         * @return the builder instance.
+         */
+        public Builder setRefreshAhead(boolean refreshAhead) {
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        /**
+         * Sets the scheduler that runs background refreshes, so that many token managers can share one thread. A
+         * shared scheduler is not shut down when the token manager is closed. By default, each token manager in
+         * refresh-ahead mode creates its own scheduler.
+         *
+         * @param scheduler the scheduler for background refreshes.
+         * @return the builder instance.
+         */
+        public Builder setScheduler(ScheduledExecutorService scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of the token lifetime after which it is refreshed in the background. Defaults to 0.75.
+         *
+         * @param refreshRatio a value between 0 and 1, exclusive.
+         * @return the builder instance.
+         */
+        public Builder setRefreshRatio(double refreshRatio) {
+            this.refreshRatio = refreshRatio;
+            return this;
+        }
+
+        /**
+         * Sets the maximum random amount by which a background refresh is brought forward, so that many processes
+         * started together do not refresh at the same time. Defaults to 2 minutes.
+         *
+         * @param refreshJitter the maximum jitter.
+         * @return the builder instance.
+         */
+        public Builder setRefreshJitter(Duration refreshJitter) {
+            this.refreshJitter = Preconditions.checkNotNull(refreshJitter);
+            return this;
+        }
+
+        /**
+         * Sets the margin before the expiry time at which a token is already considered expired, to allow for clock
+         * differences with Entra ID and the time a request spends in flight. Defaults to 30 seconds.
+         *
+         * @param clockSkew the clock skew margin.
+         * @return the builder instance.
+         */
+        public Builder setClockSkew(Duration clockSkew) {
+            this.clockSkew = Preconditions.checkNotNull(clockSkew);
+            return this;
+        }
+
+        /**
+         * Builds a new {@link MsalTokenManager} instance.
+         *
+         * @return a new {@link MsalTokenManager}.
+         */
+        public MsalTokenManager build() {
+            return new MsalTokenManager(this);
+        }
+    }
 }
@@ -0,0 +1,291 @@
+package com.recordpoint.connectors.sdk.auth;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+/**
+ * A cache of Microsoft Entra ID tokens shared by the service clients of many tenants.
+ * <p>
+ * Tokens are keyed by tenant ID, client ID and scope, so every {@link TokenManager} returned by
+ * {@link #getTokenManager(ServiceSettings)} for the same key shares one token, however many service clients use it.
+ * All tokens are acquired on one shared executor and, in refresh-ahead mode, refreshed in the background on one
+ * shared scheduler, instead of each tenant owning its own threads. When more than {@link Builder#setMaximumSize(int)
+ * the maximum number of} keys are in use, the least recently used token is evicted; a token manager whose token was
+ * evicted transparently acquires a new one the next time it is used.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (TokenCache tokenCache = TokenCache.Builder().setMaximumSize(500).build()) {
+ *     ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *             .setServiceSettings(settings)
+ *             .setTokenManager(tokenCache.getTokenManager(settings))
+ *             .build();
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class TokenCache implements AutoCloseable {
+    private static final int DEFAULT_MAXIMUM_SIZE = 100;
+    private static final int DEFAULT_THREADS = 2;
+
+    private final int maximumSize;
+    private final boolean refreshAhead;
+    private final Function<ServiceSettings, TokenRequest> tokenRequestFactory;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Key, Entry> entries = new HashMap<>();
+
+    private boolean closed;
+
+    /**
+     * Constructs a {@link TokenCache} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public TokenCache(Builder builder) {
+        Preconditions.checkArgument(builder.maximumSize > 0, "Maximum size must be greater than zero");
+        this.maximumSize = builder.maximumSize;
+        this.refreshAhead = builder.refreshAhead;
+        this.tokenRequestFactory = builder.tokenRequestFactory;
+        this.executor = Executors.newFixedThreadPool(DEFAULT_THREADS, new ThreadFactoryBuilder()
+                .setNameFormat("token-cache-request-%d")
+                .setDaemon(true)
+                .build());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("token-cache-refresh-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a token manager for the tenant, client and scope of the given settings. The token manager can be handed
+     * to any number of service clients; closing it has no effect, as its token belongs to this cache.
+     *
+     * @param serviceSettings the service settings that hold the tenant ID, client ID, secret and scope.
+     * @return a {@link TokenManager} backed by this cache.
+     */
+    public TokenManager getTokenManager(ServiceSettings serviceSettings) {
+        Preconditions.checkNotNull(serviceSettings, "Service settings cannot be null");
+        CachedTokenManager tokenManager = new CachedTokenManager(serviceSettings);
+        tokenManager.entry = acquire(tokenManager.key, serviceSettings);
+        return tokenManager;
+    }
+
+    /**
+     * Gets the number of tokens currently held by the cache.
+     *
+     * @return the number of cached tokens.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Entry acquire(Key key, ServiceSettings serviceSettings) {
+        Preconditions.checkState(!closed, "The token cache has been closed");
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maximumSize) {
+                evictLeastRecentlyUsed();
+            }
+            TokenRequest tokenRequest = tokenRequestFactory != null ? tokenRequestFactory.apply(serviceSettings)
+                    : new TokenRequest(key.tenantId, key.clientId, serviceSettings.getSecret(), key.scope, executor,
+                    false);
+            entry = new Entry(MsalTokenManager.Builder()
+                    .setTokenRequest(tokenRequest)
+                    .setRefreshAhead(refreshAhead)
+                    .setScheduler(scheduler)
+                    .build());
+            entries.put(key, entry);
+        }
+        entry.touch();
+        return entry;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<Key, Entry> eldest = null;
+        for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+            if (eldest == null || candidate.getValue().lastAccessNanos - eldest.getValue().lastAccessNanos < 0) {
+                eldest = candidate;
+            }
+        }
+        if (eldest != null) {
+            entries.remove(eldest.getKey());
+            eldest.getValue().tokenManager.close();
+        }
+    }
+
+    /**
+     * Closes every cached token manager and shuts down the shared threads. Token managers returned by this cache can
+     * no longer be used afterwards.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+                iterator.next().tokenManager.close();
+                iterator.remove();
+            }
+        }
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+
+    private static final class Key {
+        private final String tenantId;
+        private final String clientId;
+        private final String scope;
+
+        private Key(ServiceSettings serviceSettings) {
+            this.tenantId = serviceSettings.getTenantId();
+            this.clientId = serviceSettings.getClientId();
+            this.scope = serviceSettings.getScope();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(tenantId, key.tenantId) && Objects.equals(clientId, key.clientId)
+                    && Objects.equals(scope, key.scope);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tenantId, clientId, scope);
+        }
+    }
+
+    private static final class Entry {
+        private final MsalTokenManager tokenManager;
+        private volatile long lastAccessNanos;
+
+        private Entry(MsalTokenManager tokenManager) {
+            this.tokenManager = tokenManager;
+        }
+
+        private void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    private final class CachedTokenManager implements TokenManager {
+        private final Key key;
+        private final ServiceSettings serviceSettings;
+        private volatile Entry entry;
+
+        private CachedTokenManager(ServiceSettings serviceSettings) {
+            this.key = new Key(serviceSettings);
+            this.serviceSettings = serviceSettings;
+        }
+
+        private MsalTokenManager getTokenManager() {
+            Entry current = entry;
+            if (current.tokenManager.isClosed()) {
+                current = acquire(key, serviceSettings);
+                entry = current;
+            } else {
+                current.touch();
+            }
+            return current.tokenManager;
+        }
+
+        @Override
+        public String getAccessToken() throws TokenResponseException {
+            return getTokenManager().getAccessToken();
+        }
+
+        @Override
+        public void resetToken() throws TokenResponseException {
+            getTokenManager().resetToken();
+        }
+
+        @Override
+        public void resetToken(String rejectedToken) throws TokenResponseException {
+            getTokenManager().resetToken(rejectedToken);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link TokenCache} instances.
+     */
+    public static class Builder {
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private boolean refreshAhead = true;
+        private Function<ServiceSettings, TokenRequest> tokenRequestFactory;
+
+        /**
+         * Sets the maximum number of tokens held by the cache. Defaults to 100.
+         *
+         * @param maximumSize the maximum number of tokens.
+         * @return the builder instance.
+         */
+        public Builder setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets whether cached tokens are refreshed in the background before they expire. Enabled by default.
+         *
+         * @param refreshAhead whether to refresh tokens in the background.
+         * @return the builder instance.
+         * @see MsalTokenManager.Builder#setRefreshAhead(boolean)
+         */
+        public Builder setRefreshAhead(boolean refreshAhead) {
+            this.refreshAhead = refreshAhead;
+            return this;
+        }
+
+        /**
+         * Sets how the token request of a tenant, client and scope is created, for example to acquire tokens with a
+         * {@link TokenRequest#TokenRequest(com.azure.core.credential.TokenCredential, String, String, String)
+         * credential} instead of the secret of the settings. The factory is called with the settings of the first
+         * token manager of each key. By default, tokens are acquired with the secret of the settings on the shared
+         * executor of the cache.
+         *
+         * @param tokenRequestFactory the factory of token requests.
+         * @return the builder instance.
+         */
+        public Builder setTokenRequestFactory(Function<ServiceSettings, TokenRequest> tokenRequestFactory) {
+            this.tokenRequestFactory = tokenRequestFactory;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link TokenCache} instance.
+         *
+         * @return a new {@link TokenCache}.
+         */
+        public TokenCache build() {
+            return new TokenCache(this);
+        }
+    }
+}
@@ -55,4 +55,19 @@ public interface TokenManager extends Closeable {
      * @throws TokenResponseException Thrown if any issue with resetting the token occurs
      */
     void resetToken() throws TokenResponseException;
+
+    /**
+     * Reset the token after it has been rejected
+     *
+     * This is called instead of {@link #resetToken()} when a request made with the given token fails with a 401/403
+     * error. When many requests are rejected at once, implementations should only reset the token if the rejected
+     * token is still the current one, so that concurrent calls collapse into a single new token that all callers then
+     * share. The default implementation calls {@link #resetToken()}.
+     *
+     * @param rejectedToken The access token that was rejected, as returned by {@link #getAccessToken()}
+     * @throws TokenResponseException Thrown if any issue with resetting the token occurs
+     */
+    default void resetToken(String rejectedToken) throws TokenResponseException {
+        resetToken();
+    }
 }
@@ -5,62 +5,192 @@ import com.azure.core.credential.TokenCredential;
 import com.azure.core.credential.TokenRequestContext;
 import com.azure.identity.ClientSecretCredentialBuilder;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.microsoft.aad.msal4j.MsalServiceException;
 import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+/**
+ * Acquires access tokens from Microsoft Entra ID with the client credentials flow.
+ * <p>
+ * The underlying {@link TokenCredential} is built once and reused, so MSAL's token cache and HTTP pipeline stay warm
+ * across calls: a token that is still valid is returned from the cache without a round trip to Entra ID. Each
+ * instance owns the executor used by MSAL, which is shut down by {@link #close()}, unless the request was created
+ * by a {@link TokenCache} that shares one executor between tenants.
+ * </p>
+ */
 public final class TokenRequest implements Closeable {
-    private static ExecutorService executor = Executors.newSingleThreadExecutor();
     private final String tenantId;
     private final String clientId;
     private final String secret;
     private final String scope;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private volatile TokenCredential credential;
 
     public TokenRequest(String tenantId, String clientId, String secret, String scope) {
+        this(tenantId, clientId, secret, scope, Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("msal-token-request-%d")
+                .setDaemon(true)
+                .build()), true);
+    }
+
+    TokenRequest(String tenantId, String clientId, String secret, String scope, ExecutorService executor,
+                 boolean ownsExecutor) {
         this.tenantId = tenantId;
         this.clientId = clientId;
         this.secret = secret;
         this.scope = scope;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Creates a token request that uses the given credential, e.g. a managed identity or a workload identity
+     * credential, instead of a client secret. {@link #reset()} has no effect on such a request.
+     * <p>
+     * The tenant and client the credential acquires tokens for are unknown, so the tokens of such a request are never
+     * written to a {@link FileTokenStore}. Use {@link #TokenRequest(TokenCredential, String, String, String)} to
+     * persist them.
+     * </p>
+     *
+     * @param credential the credential used to acquire tokens.
+     * @param scope      the scope of the requested tokens.
+     */
+    public TokenRequest(TokenCredential credential, String scope) {
+        this.tenantId = null;
+        this.clientId = null;
+        this.secret = null;
+        this.scope = scope;
+        this.executor = null;
+        this.ownsExecutor = false;
+        this.credential = Preconditions.checkNotNull(credential);
+    }
+
+    /**
+     * Creates a token request that uses the given credential instead of a client secret, identified by the tenant and
+     * client the credential acquires tokens for. The identity binds the tokens written to a {@link FileTokenStore} to
+     * that tenant and client, so it must match the credential. {@link #reset()} has no effect on such a request.
+     *
+     * @param credential the credential used to acquire tokens.
+     * @param tenantId   the tenant the credential acquires tokens for.
+     * @param clientId   the client the credential acquires tokens for.
+     * @param scope      the scope of the requested tokens.
+     */
+    public TokenRequest(TokenCredential credential, String tenantId, String clientId, String scope) {
+        this.tenantId = Preconditions.checkNotNull(tenantId, "Tenant ID cannot be null");
+        this.clientId = Preconditions.checkNotNull(clientId, "Client ID cannot be null");
+        this.secret = null;
+        this.scope = scope;
+        this.executor = null;
+        this.ownsExecutor = false;
+        this.credential = Preconditions.checkNotNull(credential);
     }
 
     public static Builder Builder() {
         return new Builder();
     }
 
-    public synchronized Token getToken() throws TokenResponseException {
-        try {
-            if (executor == null || executor.isShutdown()) {
-                executor = Executors.newSingleThreadExecutor();
+    private TokenCredential getCredential() {
+        TokenCredential current = credential;
+        if (current == null) {
+            synchronized (this) {
+                current = credential;
+                if (current == null) {
+                    current = new ClientSecretCredentialBuilder()
+                            .tenantId(this.tenantId)
+                            .clientId(this.clientId)
+                            .clientSecret(this.secret)
+                            .executorService(executor)
+                            .build();
+                    credential = current;
+                }
             }
-            TokenCredential clientSecretCredential = new ClientSecretCredentialBuilder()
-                    .tenantId(this.tenantId)
-                    .clientId(this.clientId)
-                    .clientSecret(this.secret)
-                    .executorService(executor)
-                    .build();
+        }
+        return current;
+    }
 
-            TokenRequestContext context = new TokenRequestContext();
-            context.addScopes(this.scope);
+    /**
+     * Gets the tenant, client and scope the tokens of this request are acquired for.
+     *
+     * @return the identity, or {@code null} if the request was created from a credential of unknown tenant and
+     * client.
+     */
+    String getIdentity() {
+        if (tenantId == null || clientId == null) {
+            return null;
+        }
+        return tenantId + "\n" + clientId + "\n" + scope;
+    }
+
+    private TokenRequestContext getContext() {
+        TokenRequestContext context = new TokenRequestContext();
+        context.addScopes(this.scope);
+        return context;
+    }
 
-            AccessToken jwt = clientSecretCredential.getTokenSync(context);
+    public Token getToken() throws TokenResponseException {
+        try {
+            AccessToken jwt = getCredential().getTokenSync(getContext());
             Preconditions.checkNotNull(Objects.requireNonNull(jwt).getToken());
             return Token.from(jwt);
         } catch (MsalServiceException ex) {
-            throw new TokenResponseException(
-                    HttpResponseException.Builder()
-                            .setStatusCode(ex.statusCode())
-                            .setDetail(ex.getMessage()));
+            throw toTokenResponseException(ex);
+        }
+    }
+
+    /**
+     * Acquires a token without blocking the calling thread. The returned future completes exceptionally with a
+     * {@link TokenResponseException} if Entra ID rejects the request.
+     *
+     * @return a {@link CompletableFuture} that completes with the token.
+     */
+    public CompletableFuture<Token> getTokenAsync() {
+        CompletableFuture<Token> result = new CompletableFuture<>();
+        getCredential().getToken(getContext()).toFuture().whenComplete((jwt, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause() : throwable;
+            if (cause instanceof MsalServiceException) {
+                result.completeExceptionally(toTokenResponseException((MsalServiceException) cause));
+            } else if (cause != null) {
+                result.completeExceptionally(cause);
+            } else if (jwt == null || jwt.getToken() == null) {
+                result.completeExceptionally(new TokenResponseException("No access token was returned"));
+            } else {
+                result.complete(Token.from(jwt));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Discards the cached credential, and with it MSAL's token cache, so that the next call acquires a new token from
+     * Entra ID. This should be called when a token is rejected before its expiry time.
+     */
+    public void reset() {
+        if (executor != null) {
+            credential = null;
         }
     }
 
+    private static TokenResponseException toTokenResponseException(MsalServiceException ex) {
+        return new TokenResponseException(
+                HttpResponseException.Builder()
+                        .setStatusCode(ex.statusCode())
+                        .setDetail(ex.getMessage()));
+    }
+
     @Override
     public void close() throws IOException {
-        if (executor != null && !executor.isShutdown()) {
+        if (ownsExecutor) {
             executor.shutdown();
         }
     }
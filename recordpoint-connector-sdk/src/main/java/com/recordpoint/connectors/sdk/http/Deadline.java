@@ -0,0 +1,72 @@
+package com.recordpoint.connectors.sdk.http;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a call must complete, shared by all the HTTP requests the call is made of.
+ *
+ * <p>A request with a deadline is not sent once the deadline has passed, and its connect, response and write
+ * timeouts are shortened to the time left, so a call made of several requests, each of them possibly retried,
+ * completes or fails within the deadline. The deadline is measured with {@link System#nanoTime()} and is not
+ * affected by changes to the system clock.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+public final class Deadline {
+
+    /**
+     * Time of the deadline, as returned by {@link System#nanoTime()}.
+     */
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline the given time from now.
+     *
+     * @param timeout the time allowed for the call.
+     * @return the deadline.
+     */
+    public static Deadline after(Duration timeout) {
+        Preconditions.checkNotNull(timeout, "Timeout cannot be null");
+        Preconditions.checkArgument(!timeout.isNegative(), "Timeout cannot be negative");
+        return new Deadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Returns whether the deadline has passed.
+     *
+     * @return {@code true} if the deadline has passed.
+     */
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Returns the time left before the deadline.
+     *
+     * @return the time left, or {@link Duration#ZERO} if the deadline has passed.
+     */
+    public Duration getRemaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Shortens a timeout to the time left before the deadline.
+     *
+     * @param timeoutMillis the timeout in milliseconds, or {@code 0} for an infinite timeout.
+     * @return the shorter of the timeout and the time left in milliseconds, and at least 1.
+     */
+    public int clampTimeout(int timeoutMillis) {
+        long remainingMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+        return (int) (timeoutMillis <= 0 ? Math.min(Integer.MAX_VALUE, remainingMillis)
+                : Math.min(timeoutMillis, remainingMillis));
+    }
+
+}
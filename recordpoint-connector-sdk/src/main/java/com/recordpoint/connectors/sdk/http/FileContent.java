@@ -1,29 +1,49 @@
 package com.recordpoint.connectors.sdk.http;
 
-import com.google.common.io.ByteStreams;
-
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 public class FileContent implements StreamingContent {
 
     private final InputStream file;
+    private final Path path;
+    private final long length;
 
     public FileContent(InputStream file) {
+        this(file, -1);
+    }
+
+    public FileContent(InputStream file, long length) {
         this.file = file;
+        this.path = null;
+        this.length = length;
+    }
+
+    public FileContent(Path path) {
+        this.file = null;
+        this.path = path;
+        this.length = -1;
     }
 
     @Override
     public InputStream getInputStream() throws IOException {
-        try (ByteArrayInputStream contentStream = new ByteArrayInputStream(ByteStreams.toByteArray(file))) {
-            return contentStream;
-        }
+        return path != null ? Files.newInputStream(path) : file;
     }
 
     @Override
     public Object getContent() {
-        return file;
+        return path != null ? path : file;
+    }
+
+    @Override
+    public long getLength() throws IOException {
+        return path != null ? Files.size(path) : length;
+    }
+
+    public Path getPath() {
+        return path;
     }
 
 }
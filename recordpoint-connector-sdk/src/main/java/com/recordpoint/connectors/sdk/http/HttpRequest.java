@@ -1,11 +1,14 @@
 package com.recordpoint.connectors.sdk.http;
 
+import com.recordpoint.connectors.sdk.http.exception.DeadlineExceededException;
 import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
 import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
 import com.recordpoint.connectors.sdk.json.JsonMapper;
 import com.recordpoint.connectors.sdk.json.JsonMapperException;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents an abstract HTTP request.
@@ -23,6 +26,10 @@ public abstract class HttpRequest {
      * HTTP request method (e.g., {@code "GET"}, {@code "POST"}).
      */
     private final String requestMethod;
+    /**
+     * URL of the request, or {@code null} if the request was not built by a {@link HttpRequestFactory}.
+     */
+    private String url;
     /**
      * Content length or less than zero if not known.
      */
@@ -43,6 +50,14 @@ public abstract class HttpRequest {
      * JSON mapper for serializing and deserializing JSON content.
      */
     private JsonMapper jsonMapper;
+    /**
+     * Deadline of the call the request belongs to, or {@code null} for none.
+     */
+    private Deadline deadline;
+    /**
+     * Whether the request has been cancelled.
+     */
+    private volatile boolean cancelled;
 
     /**
      * Constructs a new {@link HttpRequest}.
@@ -64,6 +79,19 @@ public abstract class HttpRequest {
      */
     public abstract void addHeader(String name, String value);
 
+    /**
+     * Sets a header on the HTTP request, replacing any existing values of the header.
+     *
+     * <p>This is used for headers such as {@code Authorization} that are set again when a request is retried. The
+     * default implementation calls {@link #addHeader}; implementations should override it to replace the header.
+     *
+     * @param name  header name
+     * @param value header value
+     */
+    public void setHeader(String name, String value) {
+        addHeader(name, value);
+    }
+
     /**
      * Returns the content length.
      *
@@ -114,6 +142,24 @@ public abstract class HttpRequest {
         return requestMethod;
     }
 
+    /**
+     * Returns the URL of the request.
+     *
+     * @return the URL, or {@code null} if the request was not built by a {@link HttpRequestFactory}.
+     */
+    public final String getUrl() {
+        return url;
+    }
+
+    /**
+     * Sets the URL of the request.
+     *
+     * @param url the URL the request is sent to.
+     */
+    final void setUrl(String url) {
+        this.url = url;
+    }
+
     /**
      * Returns the content type.
      *
@@ -161,6 +207,16 @@ public abstract class HttpRequest {
         return getStreamingContent().getJsonRepresentation(jsonMapper);
     }
 
+    /**
+     * Writes the JSON representation of the streaming content to the given output stream in UTF-8.
+     *
+     * @param outputStream the {@link OutputStream} to which the JSON will be written.
+     * @throws JsonMapperException if an error occurs while serializing the streaming content.
+     */
+    public final void writeJsonContent(OutputStream outputStream) throws JsonMapperException {
+        getStreamingContent().writeJsonRepresentation(jsonMapper, outputStream);
+    }
+
     /**
      * Returns the JSON mapper.
      *
@@ -179,6 +235,69 @@ public abstract class HttpRequest {
         this.jsonMapper = jsonMapper;
     }
 
+    /**
+     * Returns the deadline of the call the request belongs to.
+     *
+     * @return the deadline, or {@code null} if the request has none.
+     */
+    public final Deadline getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Sets the deadline of the call the request belongs to. The request is not sent once the deadline has passed,
+     * and its timeouts are shortened to the time left before the deadline.
+     *
+     * @param deadline the deadline, or {@code null} for none.
+     */
+    public final void setDeadline(Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Verifies that the deadline of the request, if any, has not passed. Subclasses should call this method before
+     * sending the request.
+     *
+     * @throws DeadlineExceededException if the deadline has passed.
+     */
+    protected final void checkDeadline() throws DeadlineExceededException {
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException();
+        }
+    }
+
+    /**
+     * Cancels the request. An execution in progress fails instead of completing, if the transport supports it, and
+     * the request is not sent again.
+     *
+     * <p>Subclasses that can abort an exchange in progress should override this method and call it. The default
+     * implementation only marks the request as cancelled.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns whether the request has been cancelled.
+     *
+     * @return {@code true} if {@link #cancel()} has been called.
+     */
+    public final boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Verifies that the request has not been cancelled. Subclasses should call this method before sending the
+     * request.
+     *
+     * @throws HttpExecutionException if the request has been cancelled.
+     */
+    protected final void checkCancelled() throws HttpExecutionException {
+        if (cancelled) {
+            throw new HttpExecutionException("The request was cancelled.", null);
+        }
+    }
+
     /**
      * Sets the connection and read timeouts for the request.
      *
@@ -215,4 +334,24 @@ public abstract class HttpRequest {
      */
     public abstract HttpResponse execute() throws HttpResponseException, HttpExecutionException;
 
+    /**
+     * Executes the HTTP request asynchronously.
+     *
+     * <p>The returned future completes with the {@link HttpResponse}, or exceptionally with the
+     * {@link HttpResponseException} or {@link HttpExecutionException} that {@link #execute()} would have
+     * thrown. Subclasses backed by a non-blocking client should override this method. The default
+     * implementation runs {@link #execute()} on the calling thread and returns an already completed future.
+     *
+     * @return a {@link CompletableFuture} that completes with the response to the request.
+     */
+    public CompletableFuture<HttpResponse> executeAsync() {
+        CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(execute());
+        } catch (HttpResponseException | HttpExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
 }
@@ -43,6 +43,7 @@ public final class HttpRequestFactory {
      */
     public HttpRequest buildRequest(String requestMethod, String url, StreamingContent content) {
         HttpRequest request = transport.buildRequest(requestMethod, url);
+        request.setUrl(url);
         if (initializer != null) {
             initializer.initialize(request);
         }
@@ -141,6 +141,22 @@ public abstract class HttpResponse {
      */
     public abstract String getHeaderValue(int index) throws IOException;
 
+    /**
+     * Returns the value of the first header with the given name, ignoring case, or {@code null} if there is none.
+     *
+     * @param name the header name
+     * @return the header value
+     * @throws IOException if an I/O error occurs
+     */
+    public String getFirstHeaderValue(String name) throws IOException {
+        for (int i = 0; i < getHeaderCount(); i++) {
+            if (name.equalsIgnoreCase(getHeaderName(i))) {
+                return getHeaderValue(i);
+            }
+        }
+        return null;
+    }
+
     /**
      * Returns the associated {@link HttpRequest}.
      *
@@ -0,0 +1,209 @@
+package com.recordpoint.connectors.sdk.http;
+
+import com.recordpoint.connectors.sdk.json.JsonMapper;
+import com.recordpoint.connectors.sdk.json.JsonMapperException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link StreamingContent} that represents an object as UTF-8 JSON.
+ *
+ * <p>The content is serialized by the configured {@link JsonMapper} the first time it is needed, directly into a
+ * single buffer that is then shared by {@link #getInputStream()}, {@link #writeTo(OutputStream)} and
+ * {@link #toByteBuffer()} without further copies. This gives requests a known content length and allows the same
+ * body to be sent again on retries without serializing the object again.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+public final class JsonStreamingContent implements StreamingContent {
+
+    /**
+     * Initial capacity of the buffer, large enough for most service payloads.
+     */
+    private static final int INITIAL_CAPACITY = 4096;
+
+    /**
+     * The object to be represented as JSON.
+     */
+    private final Object content;
+
+    /**
+     * The {@link JsonMapper} used to serialize the content.
+     */
+    private final JsonMapper mapper;
+
+    /**
+     * The serialized content or {@code null} if the content has not been serialized yet.
+     */
+    private volatile Buffer buffer;
+
+    /**
+     * Constructs a {@link JsonStreamingContent} for the given object and mapper.
+     *
+     * @param content the object to be represented as JSON.
+     * @param mapper  the {@link JsonMapper} used to serialize the object.
+     */
+    public JsonStreamingContent(Object content, JsonMapper mapper) {
+        this.content = content;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Returns the given content as a {@link JsonStreamingContent}, wrapping it with the given mapper if it is not
+     * one already.
+     *
+     * @param content the streaming content.
+     * @param mapper  the {@link JsonMapper} used to serialize the content if it needs to be wrapped.
+     * @return a {@link JsonStreamingContent} representing the content.
+     */
+    public static JsonStreamingContent of(StreamingContent content, JsonMapper mapper) {
+        if (content instanceof JsonStreamingContent) {
+            return (JsonStreamingContent) content;
+        }
+        return new JsonStreamingContent(content.getContent(), mapper);
+    }
+
+    /**
+     * Returns a {@link JsonStreamingContent} for JSON that has already been serialized, such as a request body read
+     * back from a journal. The content of the returned instance is the JSON text.
+     *
+     * @param json   the UTF-8 JSON representation.
+     * @param mapper the {@link JsonMapper} of the requests the content is sent with.
+     * @return a {@link JsonStreamingContent} holding the JSON representation.
+     */
+    public static JsonStreamingContent ofJson(byte[] json, JsonMapper mapper) {
+        JsonStreamingContent content = new JsonStreamingContent(new String(json, StandardCharsets.UTF_8), mapper);
+        Buffer result = new Buffer();
+        result.write(json, 0, json.length);
+        content.buffer = result;
+        return content;
+    }
+
+    /**
+     * Returns the buffered content, serializing it on the first call.
+     *
+     * @return the buffer holding the JSON representation of the content.
+     * @throws JsonMapperException if an error occurs while serializing the content.
+     */
+    private Buffer getBuffer() throws JsonMapperException {
+        Buffer result = buffer;
+        if (result == null) {
+            synchronized (this) {
+                result = buffer;
+                if (result == null) {
+                    result = new Buffer();
+                    mapper.writeTo(content, result);
+                    buffer = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length of the JSON representation in bytes, serializing the content if needed.
+     *
+     * @return the content length in bytes.
+     * @throws JsonMapperException if an error occurs while serializing the content.
+     */
+    public long getContentLength() throws JsonMapperException {
+        return getBuffer().size();
+    }
+
+    /**
+     * Returns a new read-only {@link ByteBuffer} view of the JSON representation.
+     *
+     * @return a {@link ByteBuffer} positioned at the start of the content.
+     * @throws JsonMapperException if an error occurs while serializing the content.
+     */
+    public ByteBuffer toByteBuffer() throws JsonMapperException {
+        Buffer result = getBuffer();
+        return ByteBuffer.wrap(result.array(), 0, result.size()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Retrieves the JSON representation as an {@link InputStream}.
+     *
+     * @return an {@link InputStream} reading the UTF-8 JSON representation.
+     * @throws IOException if an error occurs while serializing the content.
+     */
+    @Override
+    public InputStream getInputStream() throws IOException {
+        Buffer result = getBufferOrThrow();
+        return new ByteArrayInputStream(result.array(), 0, result.size());
+    }
+
+    @Override
+    public long getLength() throws IOException {
+        return getBufferOrThrow().size();
+    }
+
+    @Override
+    public Object getContent() {
+        return content;
+    }
+
+    @Override
+    public String getJsonRepresentation(JsonMapper mapper) throws JsonMapperException {
+        if (mapper != this.mapper) {
+            return StreamingContent.super.getJsonRepresentation(mapper);
+        }
+        Buffer result = getBuffer();
+        return new String(result.array(), 0, result.size(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void writeJsonRepresentation(JsonMapper mapper, OutputStream outputStream) throws JsonMapperException {
+        if (mapper != this.mapper) {
+            StreamingContent.super.writeJsonRepresentation(mapper, outputStream);
+            return;
+        }
+        try {
+            getBuffer().writeTo(outputStream);
+        } catch (IOException e) {
+            throw new JsonMapperException(e, content.getClass());
+        }
+    }
+
+    /**
+     * Writes the UTF-8 JSON representation to the specified {@link OutputStream}. The output stream is not
+     * closed.
+     *
+     * @param outputStream the {@link OutputStream} to which the content will be written.
+     * @throws IOException if an I/O error occurs or the content cannot be serialized.
+     */
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        getBufferOrThrow().writeTo(outputStream);
+        outputStream.flush();
+    }
+
+    private Buffer getBufferOrThrow() throws IOException {
+        try {
+            return getBuffer();
+        } catch (JsonMapperException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * A growable byte buffer that exposes its backing array so the content can be read without copying it.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(INITIAL_CAPACITY);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
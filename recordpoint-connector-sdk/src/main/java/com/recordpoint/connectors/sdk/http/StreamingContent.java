@@ -32,6 +32,19 @@ public interface StreamingContent {
      */
     Object getContent();
 
+    /**
+     * Returns the length of the content in bytes, if known.
+     *
+     * <p>Transports use a known length to send the content with a {@code Content-Length} header while streaming
+     * it, instead of buffering it first. The default implementation returns {@code -1}.</p>
+     *
+     * @return the content length in bytes, or less than zero if not known.
+     * @throws IOException if an I/O error occurs while determining the length.
+     */
+    default long getLength() throws IOException {
+        return -1;
+    }
+
     /**
      * Converts the content to its JSON string representation using the provided {@link JsonMapper}.
      *
@@ -43,6 +56,18 @@ public interface StreamingContent {
         return mapper.parseAsString(getContent());
     }
 
+    /**
+     * Writes the JSON representation of the content to the specified {@link OutputStream} in UTF-8 using the
+     * provided {@link JsonMapper}, without building an intermediate string. The output stream is not closed.
+     *
+     * @param mapper       the {@link JsonMapper} used to convert the content to JSON.
+     * @param outputStream the {@link OutputStream} to which the JSON will be written.
+     * @throws JsonMapperException if an error occurs during the conversion process.
+     */
+    default void writeJsonRepresentation(JsonMapper mapper, OutputStream outputStream) throws JsonMapperException {
+        mapper.writeTo(getContent(), outputStream);
+    }
+
     /**
      * Writes the content to the specified {@link OutputStream}.
      *
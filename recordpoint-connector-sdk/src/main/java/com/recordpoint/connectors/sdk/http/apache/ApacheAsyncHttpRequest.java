@@ -0,0 +1,266 @@
+package com.recordpoint.connectors.sdk.http.apache;
+
+import com.google.common.io.ByteStreams;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleResponseConsumer;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.entity.AsyncEntityProducers;
+import org.apache.hc.core5.http.nio.support.AsyncRequestBuilder;
+import com.recordpoint.connectors.sdk.http.FileContent;
+import com.recordpoint.connectors.sdk.http.HttpRequest;
+import com.recordpoint.connectors.sdk.http.HttpResponse;
+import com.recordpoint.connectors.sdk.http.JsonStreamingContent;
+import com.recordpoint.connectors.sdk.http.StreamingContent;
+import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.json.JsonMapperException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * A concrete implementation of {@link HttpRequest} that uses the non-blocking Apache HttpAsyncClient for making
+ * HTTP requests. {@link #executeAsync()} returns as soon as the exchange has been handed over to the I/O reactor;
+ * {@link #execute()} waits for the same exchange to complete.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+public final class ApacheAsyncHttpRequest extends HttpRequest {
+
+    /**
+     * The builder of the HTTP request to be executed.
+     */
+    private final AsyncRequestBuilder request;
+
+    /**
+     * The builder for configuring request timeouts and redirects.
+     */
+    private final RequestConfig.Builder requestConfig;
+
+    /**
+     * The Apache HttpAsyncClient instance used to execute the request.
+     */
+    private final CloseableHttpAsyncClient httpClient;
+
+    /**
+     * The connection timeout in milliseconds, or {@code -1} to use the default of the client.
+     */
+    private int connectTimeout = -1;
+
+    /**
+     * The read timeout in milliseconds, or {@code -1} to use the default of the client.
+     */
+    private int readTimeout = -1;
+
+    /**
+     * The producer of the request body, created on the first execution and reused afterwards.
+     */
+    private AsyncEntityProducer entityProducer;
+
+    /**
+     * The exchange in progress, cancelled when the request is cancelled.
+     */
+    private volatile Future<SimpleHttpResponse> exchange;
+
+    /**
+     * Constructs an {@link ApacheAsyncHttpRequest} with the specified {@link CloseableHttpAsyncClient}, method
+     * and URL.
+     *
+     * @param httpClient the Apache {@link CloseableHttpAsyncClient} instance to execute the request.
+     * @param method     the HTTP method (e.g., "GET", "POST").
+     * @param url        the URL for the request.
+     */
+    ApacheAsyncHttpRequest(CloseableHttpAsyncClient httpClient, String method, String url) {
+        super(method);
+        this.httpClient = httpClient;
+        this.request = AsyncRequestBuilder.create(method).setUri(URI.create(url));
+        this.requestConfig = RequestConfig.custom().setRedirectsEnabled(false);
+    }
+
+    /**
+     * Adds a header to the HTTP request.
+     *
+     * @param name  the name of the header.
+     * @param value the value of the header.
+     */
+    @Override
+    public void addHeader(String name, String value) {
+        request.addHeader(name, value);
+    }
+
+    /**
+     * Sets a header on the HTTP request, replacing any existing values of the header.
+     *
+     * @param name  the name of the header.
+     * @param value the value of the header.
+     */
+    @Override
+    public void setHeader(String name, String value) {
+        request.setHeader(name, value);
+    }
+
+    /**
+     * Sets the connection and read timeouts for the HTTP request.
+     *
+     * @param connectTimeout the connection timeout in milliseconds.
+     * @param readTimeout    the read timeout in milliseconds.
+     * @throws IOException if an error occurs while setting the timeouts.
+     */
+    @Override
+    public void setTimeout(int connectTimeout, int readTimeout) throws IOException {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Sets the write timeout for the HTTP request. The asynchronous client never blocks on writes and applies the
+     * read timeout to any inactivity of the connection while the request is exchanged, so writes are already bounded
+     * by the read timeout and this method does nothing.
+     *
+     * @param writeTimeout the write timeout in milliseconds, or {@code 0} for an infinite timeout.
+     * @throws IOException if an error occurs while setting the timeout.
+     */
+    @Override
+    public void setWriteTimeout(int writeTimeout) throws IOException {
+    }
+
+    /**
+     * Cancels the request, cancelling the exchange in progress, if any.
+     */
+    @Override
+    public void cancel() {
+        super.cancel();
+        Future<SimpleHttpResponse> current = exchange;
+        if (current != null) {
+            current.cancel(true);
+        }
+    }
+
+    /**
+     * Executes the HTTP request and waits for the asynchronous exchange to complete.
+     *
+     * @return an {@link HttpResponse} representing the response to the request.
+     * @throws HttpResponseException  if the response is not successful or the exchange fails.
+     * @throws HttpExecutionException if the request cannot be sent or the waiting thread is interrupted.
+     */
+    @Override
+    public HttpResponse execute() throws HttpResponseException, HttpExecutionException {
+        try {
+            return executeAsync().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpExecutionException(e);
+        } catch (CancellationException e) {
+            throw new HttpExecutionException("The request was cancelled.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpResponseException) {
+                throw (HttpResponseException) e.getCause();
+            }
+            if (e.getCause() instanceof HttpExecutionException) {
+                throw (HttpExecutionException) e.getCause();
+            }
+            throw new HttpExecutionException(e);
+        }
+    }
+
+    /**
+     * Executes the HTTP request using Apache HttpAsyncClient without blocking the calling thread.
+     * If the response is not successful, the returned future completes exceptionally with an
+     * {@link HttpResponseException}. Cancelling the returned future cancels the underlying exchange.
+     *
+     * @return a {@link CompletableFuture} that completes with the response to the request.
+     */
+    @Override
+    public CompletableFuture<HttpResponse> executeAsync() {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        try {
+            checkDeadline();
+            checkCancelled();
+            if (getStreamingContent() != null && entityProducer == null) {
+                entityProducer = createEntityProducer();
+                request.setEntity(entityProducer);
+            }
+        } catch (HttpExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        } catch (JsonMapperException e) {
+            result.completeExceptionally(HttpResponseException.Builder().fromException(e).build());
+            return result;
+        }
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(
+                ApacheHttpRequest.buildRequestConfig(requestConfig, connectTimeout, readTimeout, getDeadline()));
+        Future<SimpleHttpResponse> exchange = httpClient.execute(request.build(), SimpleResponseConsumer.create(),
+                context, new FutureCallback<SimpleHttpResponse>() {
+                    @Override
+                    public void completed(SimpleHttpResponse httpResponse) {
+                        ApacheAsyncHttpResponse response =
+                                new ApacheAsyncHttpResponse(ApacheAsyncHttpRequest.this, httpResponse);
+                        try {
+                            ApacheHttpRequest.checkResponse(response);
+                            result.complete(response);
+                        } catch (HttpResponseException e) {
+                            result.completeExceptionally(e);
+                        } catch (IOException e) {
+                            result.completeExceptionally(HttpResponseException.Builder().fromException(e).build());
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        result.completeExceptionally(HttpResponseException.Builder().fromException(e).build());
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+        this.exchange = exchange;
+        if (isCancelled()) {
+            exchange.cancel(true);
+        }
+        result.whenComplete((response, throwable) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private AsyncEntityProducer createEntityProducer() throws JsonMapperException, HttpExecutionException {
+        if (getContentType().equals("application/json")) {
+            return new ApacheContentEntityProducer(JsonStreamingContent.of(getStreamingContent(), getJsonMapper()),
+                    getContentType(), getContentEncoding());
+        }
+        StreamingContent content = getStreamingContent();
+        try {
+            if (content instanceof FileContent && ((FileContent) content).getPath() != null) {
+                return AsyncEntityProducers.create(((FileContent) content).getPath(),
+                        ContentType.APPLICATION_OCTET_STREAM, StandardOpenOption.READ);
+            }
+            long length = content.getLength();
+            if (length >= 0) {
+                return new ApacheInputStreamEntityProducer(content.getInputStream(), length,
+                        ContentType.APPLICATION_OCTET_STREAM);
+            }
+            return AsyncEntityProducers.create(ByteStreams.toByteArray(content.getInputStream()),
+                    ContentType.APPLICATION_OCTET_STREAM);
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+    }
+
+}
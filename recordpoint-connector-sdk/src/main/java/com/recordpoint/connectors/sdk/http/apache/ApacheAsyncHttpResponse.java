@@ -0,0 +1,158 @@
+package com.recordpoint.connectors.sdk.http.apache;
+
+import org.apache.hc.client5.http.async.methods.SimpleBody;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.StatusLine;
+import com.recordpoint.connectors.sdk.http.HttpRequest;
+import com.recordpoint.connectors.sdk.http.HttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * A concrete implementation of {@link HttpResponse} that wraps a {@link SimpleHttpResponse} received from the
+ * Apache HttpAsyncClient. The response body has already been fully received by the I/O reactor, so reading the
+ * content never blocks.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+final class ApacheAsyncHttpResponse extends HttpResponse {
+
+    /**
+     * The Apache HttpAsyncClient response.
+     */
+    private final SimpleHttpResponse response;
+
+    /**
+     * All headers present in the response.
+     */
+    private final Header[] allHeaders;
+
+    /**
+     * The buffered response body or {@code null} if the response has no body.
+     */
+    private final SimpleBody body;
+
+    /**
+     * Constructs an {@link ApacheAsyncHttpResponse} using the given request and response.
+     *
+     * @param request  the {@link HttpRequest} that initiated the request.
+     * @param response the {@link SimpleHttpResponse} received from Apache HttpAsyncClient.
+     */
+    ApacheAsyncHttpResponse(HttpRequest request, SimpleHttpResponse response) {
+        super(request, Optional.ofNullable(response.getContentType()).map(ContentType::toString).orElse("application/json"));
+        this.response = response;
+        this.allHeaders = response.getHeaders();
+        this.body = response.getBody();
+    }
+
+    /**
+     * Returns the HTTP status code from the response.
+     *
+     * @return the HTTP status code.
+     */
+    @Override
+    public int getStatusCode() {
+        return response.getCode();
+    }
+
+    /**
+     * Returns the buffered content of the HTTP response as an {@link InputStream}.
+     *
+     * @return an {@link InputStream} containing the response content.
+     */
+    @Override
+    public InputStream getContent() {
+        byte[] bytes = body == null ? null : body.getBodyBytes();
+        return new ByteArrayInputStream(bytes == null ? new byte[0] : bytes);
+    }
+
+    /**
+     * Returns the content encoding of the HTTP response.
+     *
+     * @return the content encoding, or {@code null} if not available.
+     */
+    @Override
+    public String getContentEncoding() {
+        Header header = response.getFirstHeader("Content-Encoding");
+        return header == null ? null : header.getValue();
+    }
+
+    /**
+     * Returns the content length of the HTTP response.
+     *
+     * @return the content length, or {@code 0} if the response has no body.
+     */
+    @Override
+    public long getContentLength() {
+        byte[] bytes = body == null ? null : body.getBodyBytes();
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    /**
+     * Returns the content type of the HTTP response.
+     *
+     * @return the content type, or {@code null} if not available.
+     */
+    @Override
+    public String getContentType() {
+        ContentType contentType = response.getContentType();
+        return contentType == null ? null : contentType.toString();
+    }
+
+    /**
+     * Returns the reason phrase associated with the HTTP response status code.
+     *
+     * @return the reason phrase.
+     */
+    @Override
+    public String getReasonPhrase() {
+        return response.getReasonPhrase();
+    }
+
+    /**
+     * Returns the status line of the HTTP response, including the status code and reason phrase.
+     *
+     * @return the status line as a string.
+     */
+    @Override
+    public String getStatusLine() {
+        return new StatusLine(response).toString();
+    }
+
+    /**
+     * Returns the number of headers in the HTTP response.
+     *
+     * @return the number of headers.
+     */
+    @Override
+    public int getHeaderCount() {
+        return allHeaders.length;
+    }
+
+    /**
+     * Returns the name of the header at the specified index.
+     *
+     * @param index the index of the header.
+     * @return the name of the header.
+     */
+    @Override
+    public String getHeaderName(int index) {
+        return allHeaders[index].getName();
+    }
+
+    /**
+     * Returns the value of the header at the specified index.
+     *
+     * @param index the index of the header.
+     * @return the value of the header.
+     */
+    @Override
+    public String getHeaderValue(int index) {
+        return allHeaders[index].getValue();
+    }
+}
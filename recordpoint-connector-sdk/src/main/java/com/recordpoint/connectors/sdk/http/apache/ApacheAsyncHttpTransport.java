@@ -0,0 +1,149 @@
+package com.recordpoint.connectors.sdk.http.apache;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.routing.SystemDefaultRoutePlanner;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorStatus;
+import com.recordpoint.connectors.sdk.http.HttpTransport;
+
+import java.io.IOException;
+import java.net.ProxySelector;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An implementation of {@link HttpTransport} using the non-blocking Apache HttpAsyncClient to send HTTP requests.
+ * Requests built by this transport support {@link com.recordpoint.connectors.sdk.http.HttpRequest#executeAsync()}
+ * without parking a thread per request: a small number of I/O reactor threads drive every in-flight exchange,
+ * which allows thousands of concurrent requests to be pipelined through the connection pool.
+ *
+ * <p>The synchronous {@link com.recordpoint.connectors.sdk.http.HttpRequest#execute()} remains available and
+ * simply waits for the asynchronous exchange to complete.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+public final class ApacheAsyncHttpTransport extends HttpTransport {
+
+    /**
+     * Apache HTTP async client.
+     */
+    private final CloseableHttpAsyncClient httpClient;
+
+    /**
+     * Constructor that uses {@link #newDefaultHttpAsyncClient()} for the Apache HTTP async client.
+     */
+    public ApacheAsyncHttpTransport() {
+        this(newDefaultHttpAsyncClient());
+    }
+
+    /**
+     * Constructor that allows an alternative Apache HTTP async client to be used. The client is started if it
+     * has not been started yet.
+     *
+     * <p>If you choose to provide your own Apache HttpAsyncClient implementation, be sure that
+     *
+     * <ul>
+     *   <li>HTTP version is set to 1.1.
+     *   <li>Retries are disabled.
+     * </ul>
+     *
+     * @param httpClient Apache HTTP async client to use
+     */
+    public ApacheAsyncHttpTransport(CloseableHttpAsyncClient httpClient) {
+        this.httpClient = httpClient;
+        if (httpClient.getStatus() == IOReactorStatus.INACTIVE) {
+            httpClient.start();
+        }
+    }
+
+    /**
+     * Creates a new instance of the Apache HTTP async client that is used by the {@link
+     * #ApacheAsyncHttpTransport()} constructor.
+     *
+     * @return new instance of the Apache HTTP async client
+     * @see #newDefaultHttpAsyncClientBuilder()
+     */
+    public static CloseableHttpAsyncClient newDefaultHttpAsyncClient() {
+        return newDefaultHttpAsyncClientBuilder().build();
+    }
+
+    /**
+     * Creates a new Apache HTTP async client builder that is used by the {@link #ApacheAsyncHttpTransport()}
+     * constructor.
+     *
+     * <p>Settings:
+     *
+     * <ul>
+     *   <li>The client connection manager is set to {@link PoolingAsyncClientConnectionManager}.
+     *   <li>HTTP version is forced to 1.1 using {@link HttpVersionPolicy#FORCE_HTTP_1} in the default
+     *       {@link TlsConfig} of the connection manager.
+     *   <li>The retry mechanism is turned off using {@link
+     *       HttpAsyncClientBuilder#disableAutomaticRetries()}.
+     *   <li>Redirects are turned off using {@link HttpAsyncClientBuilder#disableRedirectHandling}.
+     *   <li>The route planner uses {@link SystemDefaultRoutePlanner} with {@link
+     *       ProxySelector#getDefault()}, which uses the proxy settings from <a
+     *       href="https://docs.oracle.com/javase/8/docs/api/java/net/doc-files/net-properties.html">system
+     *       properties</a>.
+     * </ul>
+     *
+     * @return new instance of the Apache HTTP async client builder
+     */
+    public static HttpAsyncClientBuilder newDefaultHttpAsyncClientBuilder() {
+        PoolingAsyncClientConnectionManager connectionManager =
+                PoolingAsyncClientConnectionManagerBuilder.create()
+                        .useSystemProperties()
+                        .setMaxConnTotal(200)
+                        .setMaxConnPerRoute(20)
+                        .setDefaultConnectionConfig(
+                                ConnectionConfig.custom().setTimeToLive(-1, TimeUnit.MILLISECONDS).build())
+                        .setDefaultTlsConfig(
+                                TlsConfig.custom().setVersionPolicy(HttpVersionPolicy.FORCE_HTTP_1).build())
+                        .build();
+
+        return HttpAsyncClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setRoutePlanner(new SystemDefaultRoutePlanner(ProxySelector.getDefault()))
+                .disableRedirectHandling()
+                .disableAutomaticRetries();
+    }
+
+    @Override
+    public boolean supportsMethod(String method) {
+        return true;
+    }
+
+    @Override
+    protected ApacheAsyncHttpRequest buildRequest(String method, String url) {
+        return new ApacheAsyncHttpRequest(httpClient, method, url);
+    }
+
+    /**
+     * Gracefully shuts down the I/O reactor and the connection manager and releases allocated resources.
+     * This closes all connections, whether they are currently used or not.
+     */
+    @Override
+    public void shutdown() throws IOException {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return httpClient.getStatus() == IOReactorStatus.SHUT_DOWN;
+    }
+
+    /**
+     * Returns the Apache HTTP async client.
+     */
+    public CloseableHttpAsyncClient getHttpClient() {
+        return httpClient;
+    }
+
+}
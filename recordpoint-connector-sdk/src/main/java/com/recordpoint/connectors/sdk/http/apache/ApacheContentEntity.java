@@ -1,16 +1,18 @@
 package com.recordpoint.connectors.sdk.http.apache;
 
+import com.recordpoint.connectors.sdk.http.JsonStreamingContent;
+import com.recordpoint.connectors.sdk.json.JsonMapperException;
 import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 
 /**
- * A custom {@link AbstractHttpEntity} implementation that represents a streaming content entity.
- * This class is designed to work with Apache HttpClient v5, providing a JSON content entity.
+ * A custom {@link AbstractHttpEntity} implementation that represents a JSON content entity.
+ * This class is designed to work with Apache HttpClient v5. The content is serialized once by the
+ * {@link JsonStreamingContent}, so the content length is known up front and the entity can be written
+ * again on retries without serializing the payload again.
  *
  * @author Pedro Moran
  * @version 1.0.0
@@ -18,29 +20,30 @@ import java.nio.charset.StandardCharsets;
 final class ApacheContentEntity extends AbstractHttpEntity {
 
     /**
-     * Content length or less than zero if not known.
+     * Streaming content in JSON format.
      */
-    private final long contentLength;
+    private final JsonStreamingContent jsonContent;
 
     /**
-     * Streaming content in JSON format.
+     * Content length in bytes.
      */
-    private final String jsonContent;
+    private final long contentLength;
 
     /**
      * Constructs an {@link ApacheContentEntity} with the provided JSON content, content type, and encoding.
      *
-     * @param jsonContent     the JSON content to be streamed.
+     * @param jsonContent     the JSON content to be sent.
      * @param contentType     the content type of the entity (e.g., "application/json").
-     * @param contentEncoding the content encoding (e.g., "UTF-8").
+     * @param contentEncoding the content encoding (e.g., "gzip").
+     * @throws JsonMapperException if an error occurs while serializing the content.
      */
     ApacheContentEntity(
-            String jsonContent,
+            JsonStreamingContent jsonContent,
             String contentType,
-            String contentEncoding) {
+            String contentEncoding) throws JsonMapperException {
         super(contentType, contentEncoding, false);
-        this.contentLength = jsonContent.getBytes(StandardCharsets.UTF_8).length;
         this.jsonContent = jsonContent;
+        this.contentLength = jsonContent.getContentLength();
     }
 
     /**
@@ -51,7 +54,7 @@ final class ApacheContentEntity extends AbstractHttpEntity {
      */
     @Override
     public InputStream getContent() throws IOException {
-        return new ByteArrayInputStream(jsonContent.getBytes());
+        return jsonContent.getInputStream();
     }
 
     /**
@@ -67,21 +70,21 @@ final class ApacheContentEntity extends AbstractHttpEntity {
     /**
      * Indicates whether the content can be repeated.
      *
-     * @return {@code false}, as the content is not repeatable.
+     * @return {@code true}, as the content is buffered.
      */
     @Override
     public boolean isRepeatable() {
-        return false;
+        return true;
     }
 
     /**
      * Indicates whether the content is being streamed.
      *
-     * @return {@code true}, as this entity is designed for streaming content.
+     * @return {@code false}, as the content is held in memory.
      */
     @Override
     public boolean isStreaming() {
-        return true;
+        return false;
     }
 
     /**
@@ -92,9 +95,7 @@ final class ApacheContentEntity extends AbstractHttpEntity {
      */
     @Override
     public void writeTo(OutputStream out) throws IOException {
-        if (contentLength != 0) {
-            out.write(jsonContent.getBytes());
-        }
+        jsonContent.writeTo(out);
     }
 
     /**
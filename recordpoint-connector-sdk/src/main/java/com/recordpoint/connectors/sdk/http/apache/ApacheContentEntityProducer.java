@@ -0,0 +1,119 @@
+package com.recordpoint.connectors.sdk.http.apache;
+
+import com.recordpoint.connectors.sdk.http.JsonStreamingContent;
+import com.recordpoint.connectors.sdk.json.JsonMapperException;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * An {@link AsyncEntityProducer} that sends a {@link JsonStreamingContent} through the Apache HttpAsyncClient
+ * I/O reactor. The buffered content is written as-is, without copying it into an intermediate array, and the
+ * producer rewinds when released so the same body can be sent again on retries.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+final class ApacheContentEntityProducer implements AsyncEntityProducer {
+
+    /**
+     * View of the buffered JSON content that tracks how much has been written.
+     */
+    private final ByteBuffer content;
+
+    /**
+     * Content type of the entity.
+     */
+    private final String contentType;
+
+    /**
+     * Content encoding of the entity or {@code null} for none.
+     */
+    private final String contentEncoding;
+
+    /**
+     * Constructs an {@link ApacheContentEntityProducer} with the provided JSON content, content type, and encoding.
+     *
+     * @param jsonContent     the JSON content to be sent.
+     * @param contentType     the content type of the entity (e.g., "application/json").
+     * @param contentEncoding the content encoding (e.g., "gzip").
+     * @throws JsonMapperException if an error occurs while serializing the content.
+     */
+    ApacheContentEntityProducer(JsonStreamingContent jsonContent, String contentType, String contentEncoding)
+            throws JsonMapperException {
+        this.content = jsonContent.toByteBuffer();
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return content.limit();
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public synchronized int available() {
+        return content.remaining();
+    }
+
+    /**
+     * Writes as much of the remaining content as the channel accepts and ends the stream once all content has
+     * been written.
+     *
+     * @param channel the data channel of the exchange.
+     * @throws IOException if an I/O error occurs while writing the content.
+     */
+    @Override
+    public synchronized void produce(DataStreamChannel channel) throws IOException {
+        if (content.hasRemaining()) {
+            channel.write(content);
+        }
+        if (!content.hasRemaining()) {
+            channel.endStream();
+        }
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        releaseResources();
+    }
+
+    /**
+     * Rewinds the content so the entity can be produced again.
+     */
+    @Override
+    public synchronized void releaseResources() {
+        // through Buffer, so that classes compiled by newer JDKs still run on Java 8
+        ((Buffer) content).rewind();
+    }
+}
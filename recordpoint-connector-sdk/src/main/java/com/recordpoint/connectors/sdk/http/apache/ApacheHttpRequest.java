@@ -9,11 +9,18 @@ import org.apache.hc.client5.http.routing.RoutingSupport;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHost;
 import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.io.entity.PathEntity;
 import org.apache.hc.core5.util.Timeout;
+import com.recordpoint.connectors.sdk.http.Deadline;
+import com.recordpoint.connectors.sdk.http.FileContent;
 import com.recordpoint.connectors.sdk.http.HttpRequest;
 import com.recordpoint.connectors.sdk.http.HttpResponse;
+import com.recordpoint.connectors.sdk.http.JsonStreamingContent;
+import com.recordpoint.connectors.sdk.http.StreamingContent;
 import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
 import com.recordpoint.connectors.sdk.http.exception.HttpForbiddenException;
 import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
@@ -47,6 +54,26 @@ public final class ApacheHttpRequest extends HttpRequest {
      */
     private final HttpClient httpClient;
 
+    /**
+     * The connection timeout in milliseconds, or {@code -1} to use the default of the client.
+     */
+    private int connectTimeout = -1;
+
+    /**
+     * The read timeout in milliseconds, or {@code -1} to use the default of the client.
+     */
+    private int readTimeout = -1;
+
+    /**
+     * The write timeout in milliseconds, or {@code 0} for none.
+     */
+    private int writeTimeout;
+
+    /**
+     * The entity created from the streaming content, or {@code null} if it has not been created yet.
+     */
+    private HttpEntity entity;
+
     /**
      * Constructs an {@link ApacheHttpRequest} with the specified {@link HttpClient} and {@link HttpUriRequestBase}.
      * Redirects are disabled as Google HTTP Client handles redirects.
@@ -72,6 +99,17 @@ public final class ApacheHttpRequest extends HttpRequest {
         request.addHeader(name, value);
     }
 
+    /**
+     * Sets a header on the HTTP request, replacing any existing values of the header.
+     *
+     * @param name  the name of the header.
+     * @param value the value of the header.
+     */
+    @Override
+    public void setHeader(String name, String value) {
+        request.setHeader(name, value);
+    }
+
     /**
      * Sets the connection and read timeouts for the HTTP request.
      *
@@ -81,14 +119,35 @@ public final class ApacheHttpRequest extends HttpRequest {
      */
     @Override
     public void setTimeout(int connectTimeout, int readTimeout) throws IOException {
-        requestConfig
-                .setConnectTimeout(Timeout.of(connectTimeout, TimeUnit.MILLISECONDS))
-                .setResponseTimeout(Timeout.of(readTimeout, TimeUnit.MILLISECONDS));
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Sets the write timeout for the HTTP request. A write of the request content that blocks for longer than the
+     * timeout cancels the request.
+     *
+     * @param writeTimeout the write timeout in milliseconds, or {@code 0} for an infinite timeout.
+     * @throws IOException if an error occurs while setting the timeout.
+     */
+    @Override
+    public void setWriteTimeout(int writeTimeout) throws IOException {
+        this.writeTimeout = writeTimeout;
+    }
+
+    /**
+     * Cancels the request, aborting the exchange in progress, if any, which closes its connection.
+     */
+    @Override
+    public void cancel() {
+        super.cancel();
+        request.cancel();
     }
 
     /**
      * Executes the HTTP request using Apache HttpClient.
      * If the request contains streaming content, an {@link ApacheContentEntity} is created and added to the request.
+     * The entity is created once, so executing the request again reuses the already serialized content.
      * The request is executed and the response is returned. If the response is not successful, an exception is thrown.
      *
      * @return an {@link HttpResponse} representing the response to the request.
@@ -96,11 +155,22 @@ public final class ApacheHttpRequest extends HttpRequest {
      */
     @Override
     public HttpResponse execute() throws HttpResponseException, HttpExecutionException {
+        checkDeadline();
         try {
-            if (getStreamingContent() != null) {
+            if (getStreamingContent() != null && entity == null) {
                 setUpContent();
             }
-            request.setConfig(requestConfig.build());
+            if (request.isCancelled()) {
+                request.reset();
+            }
+            checkCancelled();
+            int writeTimeoutMillis = writeTimeout > 0 || getDeadline() != null
+                    ? applyDeadline(writeTimeout, getDeadline()) : 0;
+            if (entity != null) {
+                request.setEntity(writeTimeoutMillis > 0
+                        ? new WriteTimeoutEntity(entity, writeTimeoutMillis, request) : entity);
+            }
+            request.setConfig(buildRequestConfig(requestConfig, connectTimeout, readTimeout, getDeadline()));
             HttpHost target;
             try {
                 target = RoutingSupport.determineHost(request);
@@ -109,15 +179,7 @@ public final class ApacheHttpRequest extends HttpRequest {
             }
             ClassicHttpResponse httpResponse = httpClient.executeOpen(target, request, null);
             ApacheHttpResponse response = new ApacheHttpResponse(this, request, httpResponse);
-            if (!response.isSuccessful()) {
-                if (response.isForbiddenOrUnauthorized()) {
-                    throw new HttpForbiddenException(HttpResponseException.Builder()
-                            .setStatusCode(response.getStatusCode())
-                            .setDetail("Unauthorized Token"));
-                }
-                throw HttpResponseException.Builder()
-                        .fromHttpResponse(response).build();
-            }
+            checkResponse(response);
             return response;
         } catch (IOException | JsonMapperException e) {
             throw new HttpResponseException.Builder()
@@ -125,17 +187,86 @@ public final class ApacheHttpRequest extends HttpRequest {
         }
     }
 
+    /**
+     * Verifies that the given response is successful, translating 401/403 responses into an
+     * {@link HttpForbiddenException} and any other unsuccessful status into an {@link HttpResponseException}.
+     *
+     * @param response the response to verify.
+     * @throws HttpResponseException if the response status code is not 2xx.
+     * @throws IOException           if an I/O error occurs while reading the response.
+     */
+    static void checkResponse(HttpResponse response) throws HttpResponseException, IOException {
+        if (!response.isSuccessful()) {
+            if (response.isForbiddenOrUnauthorized()) {
+                throw new HttpForbiddenException(HttpResponseException.Builder()
+                        .setStatusCode(response.getStatusCode())
+                        .setDetail("Unauthorized Token"));
+            }
+            throw HttpResponseException.Builder()
+                    .fromHttpResponse(response).build();
+        }
+    }
+
+    /**
+     * Builds the configuration of an exchange from the timeouts of the request, shortened to the time left before
+     * its deadline. With a deadline, waiting for a pooled connection is also bounded by the time left.
+     *
+     * @param config         the configuration of the request.
+     * @param connectTimeout the connection timeout in milliseconds, or {@code -1} for the default of the client.
+     * @param readTimeout    the read timeout in milliseconds, or {@code -1} for the default of the client.
+     * @param deadline       the deadline of the request, or {@code null} for none.
+     * @return the configuration of the exchange.
+     */
+    static RequestConfig buildRequestConfig(RequestConfig.Builder config, int connectTimeout, int readTimeout,
+                                            Deadline deadline) {
+        if (deadline != null) {
+            config.setConnectionRequestTimeout(Timeout.of(deadline.clampTimeout(0), TimeUnit.MILLISECONDS));
+        }
+        if (connectTimeout >= 0 || deadline != null) {
+            config.setConnectTimeout(Timeout.of(applyDeadline(connectTimeout, deadline), TimeUnit.MILLISECONDS));
+        }
+        if (readTimeout >= 0 || deadline != null) {
+            config.setResponseTimeout(Timeout.of(applyDeadline(readTimeout, deadline), TimeUnit.MILLISECONDS));
+        }
+        return config.build();
+    }
+
+    private static int applyDeadline(int timeoutMillis, Deadline deadline) {
+        return deadline == null ? Math.max(0, timeoutMillis) : deadline.clampTimeout(Math.max(0, timeoutMillis));
+    }
+
     private void setUpContent() throws JsonMapperException, HttpExecutionException {
         if (getContentType().equals("application/json")) {
-            this.request.setEntity(new ApacheContentEntity(getJsonContent(), getContentType(), getContentEncoding()));
+            this.entity = new ApacheContentEntity(
+                    JsonStreamingContent.of(getStreamingContent(), getJsonMapper()), getContentType(),
+                    getContentEncoding());
         } else {
             try {
-                this.request.setEntity(new ByteArrayEntity(ByteStreams.toByteArray(getStreamingContent().getInputStream()),
-                        ContentType.APPLICATION_OCTET_STREAM));
+                this.entity = createBinaryEntity(getStreamingContent());
             } catch (IOException e) {
                 throw new HttpExecutionException(e);
             }
         }
     }
 
+    /**
+     * Creates the entity for binary content. Files and streams of known length are streamed to the connection
+     * with a {@code Content-Length} header; content of unknown length is buffered first so the length can be sent.
+     *
+     * @param content the binary content.
+     * @return the entity to send.
+     * @throws IOException if an I/O error occurs while opening or buffering the content.
+     */
+    private static HttpEntity createBinaryEntity(StreamingContent content) throws IOException {
+        if (content instanceof FileContent && ((FileContent) content).getPath() != null) {
+            return new PathEntity(((FileContent) content).getPath(), ContentType.APPLICATION_OCTET_STREAM);
+        }
+        long length = content.getLength();
+        if (length >= 0) {
+            return new InputStreamEntity(content.getInputStream(), length, ContentType.APPLICATION_OCTET_STREAM);
+        }
+        return new ByteArrayEntity(ByteStreams.toByteArray(content.getInputStream()),
+                ContentType.APPLICATION_OCTET_STREAM);
+    }
+
 }
@@ -0,0 +1,222 @@
+package com.recordpoint.connectors.sdk.http.apache;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.nio.AsyncEntityProducer;
+import org.apache.hc.core5.http.nio.DataStreamChannel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An {@link AsyncEntityProducer} that streams an {@link InputStream} of known length through the Apache
+ * HttpAsyncClient I/O reactor. The content is read in fixed-size chunks as the connection accepts more data, so
+ * memory usage does not depend on the size of the content.
+ * <p>
+ * Reading the stream may block, so chunks are read on a shared pool of reader threads rather than on the I/O
+ * reactor thread, which would otherwise stall every other exchange of the reactor. Each exchange has at most one
+ * read in progress, so the number of reader threads is bounded by the number of streams being sent. The stream
+ * belongs to the caller and is not closed by the producer.
+ * </p>
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+final class ApacheInputStreamEntityProducer implements AsyncEntityProducer {
+
+    /**
+     * Size of the chunks read from the stream.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Threads the streams are read on, created on demand and released after a minute of inactivity.
+     */
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("apache-async-content-%d")
+            .setDaemon(true)
+            .build());
+
+    /**
+     * The stream to be sent.
+     */
+    private final InputStream content;
+
+    /**
+     * The length of the content in bytes.
+     */
+    private final long contentLength;
+
+    /**
+     * The content type of the entity.
+     */
+    private final ContentType contentType;
+
+    /**
+     * The chunk read from the stream that has not been written to the channel yet.
+     */
+    private final ByteBuffer chunk;
+
+    /**
+     * The channel of the exchange, asked for more output once a chunk has been read.
+     */
+    private DataStreamChannel channel;
+
+    /**
+     * Whether a chunk is being read.
+     */
+    private boolean reading;
+
+    /**
+     * Whether the end of the stream has been reached.
+     */
+    private boolean endOfStream;
+
+    /**
+     * Whether the exchange has released the producer.
+     */
+    private boolean released;
+
+    /**
+     * The error the stream was read with, if any.
+     */
+    private IOException failure;
+
+    /**
+     * Constructs an {@link ApacheInputStreamEntityProducer} for the given stream.
+     *
+     * @param content       the stream to be sent.
+     * @param contentLength the length of the content in bytes.
+     * @param contentType   the content type of the entity.
+     */
+    ApacheInputStreamEntityProducer(InputStream content, long contentLength, ContentType contentType) {
+        this.content = content;
+        this.contentLength = contentLength;
+        this.contentType = contentType;
+        this.chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        // through Buffer, so that classes compiled by newer JDKs still run on Java 8
+        ((Buffer) chunk).limit(0);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType.toString();
+    }
+
+    @Override
+    public String getContentEncoding() {
+        return null;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return false;
+    }
+
+    @Override
+    public Set<String> getTrailerNames() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Returns the number of bytes ready to be written, or zero while the next chunk is being read.
+     */
+    @Override
+    public synchronized int available() {
+        if (chunk.hasRemaining()) {
+            return chunk.remaining();
+        }
+        return reading ? 0 : 1;
+    }
+
+    /**
+     * Writes the chunk read from the stream, starts reading the next one once it has been fully written, and ends
+     * the stream once all content has been written.
+     *
+     * @param channel the data channel of the exchange.
+     * @throws IOException if an I/O error occurs while reading or writing the content.
+     */
+    @Override
+    public synchronized void produce(DataStreamChannel channel) throws IOException {
+        this.channel = channel;
+        if (failure != null) {
+            throw failure;
+        }
+        if (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        if (chunk.hasRemaining() || reading) {
+            return;
+        }
+        if (endOfStream) {
+            channel.endStream();
+            return;
+        }
+        reading = true;
+        try {
+            READERS.execute(this::readChunk);
+        } catch (RejectedExecutionException e) {
+            reading = false;
+            throw new IOException("The content could not be read", e);
+        }
+    }
+
+    /**
+     * Reads the next chunk on a reader thread and asks the channel for more output.
+     */
+    private void readChunk() {
+        int read = 0;
+        IOException error = null;
+        try {
+            read = content.read(chunk.array(), 0, chunk.capacity());
+        } catch (IOException e) {
+            error = e;
+        }
+        DataStreamChannel output;
+        synchronized (this) {
+            reading = false;
+            if (released) {
+                return;
+            }
+            if (error != null) {
+                failure = error;
+            } else {
+                ((Buffer) chunk).position(0);
+                ((Buffer) chunk).limit(Math.max(read, 0));
+                endOfStream = read == -1;
+            }
+            output = channel;
+        }
+        output.requestOutput();
+    }
+
+    @Override
+    public void failed(Exception cause) {
+        releaseResources();
+    }
+
+    /**
+     * Stops reading the stream. The stream itself is left open for its owner to close.
+     */
+    @Override
+    public synchronized void releaseResources() {
+        released = true;
+    }
+}
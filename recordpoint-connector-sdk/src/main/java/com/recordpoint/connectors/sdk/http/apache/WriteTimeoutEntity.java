@@ -0,0 +1,169 @@
+package com.recordpoint.connectors.sdk.http.apache;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@link HttpEntityWrapper} that bounds how long a single write of the wrapped entity to the connection may block.
+ * The blocking client has no write timeout of its own, so a write that makes no progress for the given time, such as
+ * a write to a peer that stopped reading, cancels the request, which closes the connection and fails the write with a
+ * {@link SocketTimeoutException}.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+final class WriteTimeoutEntity extends HttpEntityWrapper {
+
+    /**
+     * Scheduler shared by all the requests to watch their writes.
+     */
+    private static volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Maximum time a write may block, in nanoseconds.
+     */
+    private final long writeTimeoutNanos;
+
+    /**
+     * Request cancelled when a write times out.
+     */
+    private final Cancellable request;
+
+    /**
+     * Constructs a {@link WriteTimeoutEntity} wrapping the given entity.
+     *
+     * @param entity             the entity to write.
+     * @param writeTimeoutMillis the maximum time a write may block, in milliseconds.
+     * @param request            the request cancelled when a write times out.
+     */
+    WriteTimeoutEntity(HttpEntity entity, int writeTimeoutMillis, Cancellable request) {
+        super(entity);
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.request = request;
+    }
+
+    /**
+     * Writes the wrapped entity, cancelling the request if a write blocks for longer than the write timeout.
+     *
+     * @param outputStream the output stream of the connection.
+     * @throws IOException if an I/O error occurs or a write times out.
+     */
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        WatchedOutputStream watched = new WatchedOutputStream(outputStream);
+        try {
+            super.writeTo(watched);
+        } catch (IOException e) {
+            if (watched.timedOut) {
+                SocketTimeoutException timeout = new SocketTimeoutException("Write timed out");
+                timeout.initCause(e);
+                throw timeout;
+            }
+            throw e;
+        } finally {
+            watched.stopWatching();
+        }
+    }
+
+    private static ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null) {
+            synchronized (WriteTimeoutEntity.class) {
+                current = scheduler;
+                if (current == null) {
+                    current = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                            .setNameFormat("recordpoint-write-timeout").setDaemon(true).build());
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Output stream that records when the current write started. A single check is scheduled for the whole entity
+     * and reschedules itself for the end of the write in progress, rather than scheduling a check for every write.
+     */
+    private final class WatchedOutputStream extends FilterOutputStream {
+        private volatile long writeStartNanos;
+        private volatile boolean writing;
+        private volatile boolean timedOut;
+        private boolean stopped;
+        private ScheduledFuture<?> check;
+
+        WatchedOutputStream(OutputStream out) {
+            super(out);
+            schedule(writeTimeoutNanos);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            begin();
+            try {
+                out.write(b);
+            } finally {
+                writing = false;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            begin();
+            try {
+                out.write(b, off, len);
+            } finally {
+                writing = false;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            begin();
+            try {
+                out.flush();
+            } finally {
+                writing = false;
+            }
+        }
+
+        private void begin() {
+            writeStartNanos = System.nanoTime();
+            writing = true;
+        }
+
+        private synchronized void schedule(long delayNanos) {
+            if (stopped) {
+                return;
+            }
+            check = getScheduler().schedule(this::check, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void check() {
+            // read the flag first: a start time read after it belongs to the same write or a later one
+            boolean blocking = writing;
+            long blocked = System.nanoTime() - writeStartNanos;
+            if (blocking && blocked >= writeTimeoutNanos) {
+                timedOut = true;
+                request.cancel();
+                return;
+            }
+            schedule(blocking ? writeTimeoutNanos - blocked : writeTimeoutNanos);
+        }
+
+        synchronized void stopWatching() {
+            stopped = true;
+            check.cancel(false);
+        }
+    }
+}
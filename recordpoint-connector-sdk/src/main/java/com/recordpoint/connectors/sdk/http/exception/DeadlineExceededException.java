@@ -0,0 +1,27 @@
+package com.recordpoint.connectors.sdk.http.exception;
+
+/**
+ * Exception to represent a request that could not complete before its {@link com.recordpoint.connectors.sdk.http.Deadline}.
+ *
+ * @author Pedro Moran
+ * @version 1.0.0
+ */
+public class DeadlineExceededException extends HttpExecutionException {
+
+    /**
+     * Constructor for a request whose deadline passed before it was sent.
+     */
+    public DeadlineExceededException() {
+        super("The deadline of the request has passed", null);
+    }
+
+    /**
+     * Constructor for a request that failed because its deadline passed while it was in flight.
+     *
+     * @param e the error of the request.
+     */
+    public DeadlineExceededException(Exception e) {
+        super("The deadline of the request has passed", e);
+    }
+
+}
@@ -5,6 +5,11 @@ import com.recordpoint.connectors.sdk.http.HttpResponse;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Exception to represent an HTTP response error.
@@ -24,6 +29,11 @@ public class HttpResponseException extends Exception {
      */
     private final String detail;
 
+    /**
+     * Delay requested by the server through the {@code Retry-After} header, or {@code null} if none.
+     */
+    private final Duration retryAfter;
+
     /**
      * Constructs an {@code HttpResponseException} using the provided builder.
      *
@@ -33,6 +43,7 @@ public class HttpResponseException extends Exception {
         super(builder.detail);
         this.statusCode = builder.statusCode;
         this.detail = builder.detail;
+        this.retryAfter = builder.retryAfter;
     }
 
     /**
@@ -62,6 +73,16 @@ public class HttpResponseException extends Exception {
         return detail;
     }
 
+    /**
+     * Returns the delay that the server asked the client to wait before retrying, taken from the
+     * {@code Retry-After} header of a 429 or 503 response.
+     *
+     * @return the requested delay, or {@code null} if the response did not include one.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
     /**
      * Builder for {@link HttpResponseException}.
      * Allows step-by-step construction of an exception instance.
@@ -78,6 +99,11 @@ public class HttpResponseException extends Exception {
          */
         String detail;
 
+        /**
+         * Delay requested by the server through the {@code Retry-After} header.
+         */
+        Duration retryAfter;
+
         /**
          * Populates the builder using the provided HTTP response.
          *
@@ -93,6 +119,7 @@ public class HttpResponseException extends Exception {
                 this.detail = "API request failed with status code " + response.getStatusCode() + (
                         body.isEmpty() ? "" : " and body: " + body
                 );
+                this.retryAfter = parseRetryAfter(response.getFirstHeaderValue("Retry-After"));
             } catch (IOException e) {
                 return setDefaultError(response.getStatusCode(), e.getMessage());
             }
@@ -125,6 +152,40 @@ public class HttpResponseException extends Exception {
             return this;
         }
 
+        /**
+         * Sets the delay requested by the server before retrying.
+         *
+         * @param retryAfter the requested delay.
+         * @return the builder instance.
+         */
+        public Builder setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+            return this;
+        }
+
+        /**
+         * Parses a {@code Retry-After} header, which holds either a number of seconds or an HTTP date.
+         *
+         * @param value the header value.
+         * @return the requested delay, or {@code null} if the value is missing or invalid.
+         */
+        private static Duration parseRetryAfter(String value) {
+            if (value == null || value.trim().isEmpty()) {
+                return null;
+            }
+            try {
+                return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                try {
+                    Instant date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                    Duration delay = Duration.between(Instant.now(), date);
+                    return delay.isNegative() ? Duration.ZERO : delay;
+                } catch (DateTimeParseException ignored) {
+                    return null;
+                }
+            }
+        }
+
         /**
          * Sets a default error message for unexpected errors.
          *
@@ -1,7 +1,10 @@
 package com.recordpoint.connectors.sdk.json;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -15,4 +18,12 @@ public interface JsonMapper {
 
     Map<String, String> parseAsMap(InputStream in) throws JsonMapperException;
 
+    default void writeTo(Object content, OutputStream out) throws JsonMapperException {
+        try {
+            out.write(parseAsString(content).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new JsonMapperException(e, content.getClass());
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.recordpoint.connectors.sdk.json.jackson;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,6 +11,7 @@ import com.recordpoint.connectors.sdk.json.JsonMapperException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.time.Instant;
 import java.util.List;
@@ -50,6 +52,15 @@ public final class JacksonMapper implements JsonMapper {
         }
     }
 
+    @Override
+    public void writeTo(Object content, OutputStream out) throws JsonMapperException {
+        try {
+            getDefaultInstance().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(out, content);
+        } catch (IOException e) {
+            throw new JsonMapperException(e, content.getClass());
+        }
+    }
+
     @Override
     public Map<String, String> parseAsMap(InputStream in) throws JsonMapperException {
         try {
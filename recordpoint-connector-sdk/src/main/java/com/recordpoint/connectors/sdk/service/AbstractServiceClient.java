@@ -6,6 +6,7 @@ import com.recordpoint.connectors.sdk.auth.TokenRequest;
 import com.recordpoint.connectors.sdk.auth.TokenResponseException;
 import com.recordpoint.connectors.sdk.http.*;
 import com.recordpoint.connectors.sdk.http.apache.ApacheHttpTransport;
+import com.recordpoint.connectors.sdk.http.exception.DeadlineExceededException;
 import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
 import com.recordpoint.connectors.sdk.http.exception.HttpForbiddenException;
 import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
@@ -14,8 +15,11 @@ import com.recordpoint.connectors.sdk.json.JsonMapperException;
 import com.recordpoint.connectors.sdk.json.jackson.JacksonMapper;
 
 import java.io.*;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Abstract base class for building service clients that communicate with RecordPoint REST APIs through {@link HttpRequest}.
@@ -40,6 +44,34 @@ public abstract class AbstractServiceClient {
      * {@link TokenRequest} instance for obtaining an access token.
      */
     private final TokenManager tokenManager;
+    /**
+     * {@link RetryPolicy} policy for retrying requests that fail with a transient error.
+     */
+    private final RetryPolicy retryPolicy;
+    /**
+     * {@link ConcurrencyLimiter} limiter for the requests in flight, or {@code null} if unlimited.
+     */
+    private final ConcurrencyLimiter concurrencyLimiter;
+    /**
+     * {@link RateLimiter} limiter for the rate of requests, or {@code null} if unlimited.
+     */
+    private final RateLimiter rateLimiter;
+    /**
+     * Tenant the requests are sent on behalf of, used to select the buckets of the {@link RateLimiter}.
+     */
+    private final String tenantId;
+    /**
+     * {@link CircuitBreaker} breaker that fails requests fast while their route is failing, or {@code null} if none.
+     */
+    private final CircuitBreaker circuitBreaker;
+    /**
+     * {@link HedgingPolicy} policy for hedging slow GET requests, or {@code null} if they are not hedged.
+     */
+    private final HedgingPolicy hedgingPolicy;
+    /**
+     * {@link SubmissionJournal} journal the submissions are recorded in before they are sent, or {@code null} if none.
+     */
+    private final SubmissionJournal submissionJournal;
 
     /**
      * Constructs an instance of {@code AbstractServiceClient} with the specified builder.
@@ -54,40 +86,42 @@ public abstract class AbstractServiceClient {
         this.requestFactory = builder.getTransport().createRequestFactory(getHttpRequestInitializer(builder));
         this.jsonMapper = builder.getJsonParser();
         this.tokenManager = builder.getTokenManager();
+        this.retryPolicy = builder.getRetryPolicy();
+        this.concurrencyLimiter = builder.concurrencyLimiter;
+        this.rateLimiter = builder.rateLimiter;
+        this.tenantId = builder.serviceSettings.getTenantId();
+        this.circuitBreaker = builder.circuitBreaker;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.submissionJournal = builder.submissionJournal;
     }
 
     private HttpRequestInitializer getHttpRequestInitializer(Builder builder) {
         HttpRequestInitializer initializer = builder.getRequestInitializer();
         final String applicationName = builder.serviceSettings.getApplicationName();
+        final int connectTimeout = toMillis(builder.connectTimeout);
+        final int responseTimeout = toMillis(builder.responseTimeout);
+        final int writeTimeout = toMillis(builder.writeTimeout);
 
         return request -> {
             request.addHeader("User-Agent", applicationName);
+            try {
+                request.setTimeout(connectTimeout, responseTimeout);
+                request.setWriteTimeout(writeTimeout);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
             if (initializer != null) {
                 initializer.initialize(request);
             }
         };
     }
 
-    private static <T extends ServicePayload> StreamingContent getStreamingContent(T payload) {
-        return new StreamingContent() {
-            @Override
-            public InputStream getInputStream() throws IOException {
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-
-                // Create an ObjectOutputStream to serialize the object
-                try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
-                    objectOutputStream.writeObject(payload); // Write the object to the stream
-                }
-
-                // Convert the byte array into an InputStream (ByteArrayInputStream)
-                return new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-            }
+    private static int toMillis(Duration timeout) {
+        return (int) Math.min(Integer.MAX_VALUE, timeout.toMillis());
+    }
 
-            @Override
-            public Object getContent() {
-                return payload;
-            }
-        };
+    private <T extends ServicePayload> JsonStreamingContent getStreamingContent(T payload) {
+        return new JsonStreamingContent(payload, jsonMapper);
     }
 
     /**
@@ -157,10 +191,23 @@ public abstract class AbstractServiceClient {
      * @throws HttpResponseException if an error occurs in the request.
      */
     protected final <T extends ServiceResponse, P extends ServicePayload> T postRequest(String resourceUrl, P payload, Class<T> responseType) throws HttpResponseException, JsonMapperException, HttpExecutionException {
-        HttpRequest httpRequest = this.getRequestFactory().buildPostRequest(resourceUrl, getStreamingContent(payload));
-        httpRequest.setContentType("application/json");
-        httpRequest.addHeader("Content-Type", "application/json");
-        return processRequest(httpRequest).parseAs(responseType);
+        return postRequest(resourceUrl, payload, responseType, null);
+    }
+
+    /**
+     * Sends a POST request with a payload and retrieves a {@link ServiceResponse} response, within a deadline.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param payload      the payload to send as a type of {@link ServicePayload}.
+     * @param responseType the type of the response.
+     * @param deadline     the {@link Deadline} of the call the request belongs to, or {@code null} for none.
+     * @param <T>          the type of service response.
+     * @param <P>          the type of service payload extended from {@link ServicePayload}.
+     * @return the response.
+     * @throws HttpResponseException if an error occurs in the request.
+     */
+    protected final <T extends ServiceResponse, P extends ServicePayload> T postRequest(String resourceUrl, P payload, Class<T> responseType, Deadline deadline) throws HttpResponseException, JsonMapperException, HttpExecutionException {
+        return processRequest(buildJsonRequest(HttpMethods.POST, resourceUrl, payload, deadline)).parseAs(responseType);
     }
 
     /**
@@ -172,10 +219,20 @@ public abstract class AbstractServiceClient {
      * @throws HttpResponseException if an error occurs in the request.
      */
     protected final <T extends ServicePayload> void postRequest(String resourceUrl, T payload) throws HttpResponseException, HttpExecutionException {
-        HttpRequest httpRequest = this.getRequestFactory().buildPostRequest(resourceUrl, getStreamingContent(payload));
-        httpRequest.setContentType("application/json");
-        httpRequest.addHeader("Content-Type", "application/json");
-        processRequest(httpRequest);
+        postRequest(resourceUrl, payload, (Deadline) null);
+    }
+
+    /**
+     * Sends a POST request with a payload, ignoring the response body, within a deadline.
+     *
+     * @param resourceUrl the URL of the resource.
+     * @param payload     the payload to send as a type of {@link ServicePayload}.
+     * @param deadline    the {@link Deadline} of the call the request belongs to, or {@code null} for none.
+     * @param <T>         the type of service payload extended from {@link ServicePayload}.
+     * @throws HttpResponseException if an error occurs in the request.
+     */
+    protected final <T extends ServicePayload> void postRequest(String resourceUrl, T payload, Deadline deadline) throws HttpResponseException, HttpExecutionException {
+        processRequest(buildJsonRequest(HttpMethods.POST, resourceUrl, payload, deadline));
     }
 
     /**
@@ -187,10 +244,7 @@ public abstract class AbstractServiceClient {
      * @throws HttpResponseException if an error occurs in the request.
      */
     protected final <T extends ServicePayload> void putRequest(String resourceUrl, T payload) throws HttpExecutionException, HttpResponseException {
-        HttpRequest httpRequest = this.getRequestFactory().buildPutRequest(resourceUrl, getStreamingContent(payload));
-        httpRequest.setContentType("application/json");
-        httpRequest.addHeader("Content-Type", "application/json");
-        processRequest(httpRequest);
+        processRequest(buildJsonRequest(HttpMethods.PUT, resourceUrl, payload));
     }
 
     /**
@@ -205,10 +259,7 @@ public abstract class AbstractServiceClient {
      * @throws HttpResponseException if an error occurs in the request.
      */
     protected final <T extends ServiceResponse, P extends ServicePayload> T putRequest(String resourceUrl, P payload, Class<T> responseType) throws HttpResponseException, JsonMapperException, HttpExecutionException {
-        HttpRequest httpRequest = this.getRequestFactory().buildPutRequest(resourceUrl, getStreamingContent(payload));
-        httpRequest.setContentType("application/json");
-        httpRequest.addHeader("Content-Type", "application/json");
-        return processRequest(httpRequest).parseAs(responseType);
+        return processRequest(buildJsonRequest(HttpMethods.PUT, resourceUrl, payload)).parseAs(responseType);
     }
 
     /**
@@ -219,34 +270,697 @@ public abstract class AbstractServiceClient {
      * @throws HttpResponseException if an error occurs in the request.
      */
     protected void putExternalRequest(String externalUrl, StreamingContent streamContent) throws HttpResponseException, HttpExecutionException {
+        putExternalRequest(externalUrl, streamContent, null);
+    }
+
+    /**
+     * Sends a PUT request to an external url resource, within a deadline.
+     *
+     * @param externalUrl   the external URL of the request.
+     * @param streamContent the stream content of the request.
+     * @param deadline      the {@link Deadline} of the call the request belongs to, or {@code null} for none.
+     * @throws HttpResponseException if an error occurs in the request.
+     */
+    protected void putExternalRequest(String externalUrl, StreamingContent streamContent, Deadline deadline) throws HttpResponseException, HttpExecutionException {
+        try {
+            buildExternalPutRequest(externalUrl, streamContent, deadline).execute();
+        } catch (HttpResponseException e) {
+            if (deadline != null && deadline.isExpired()) {
+                throw new DeadlineExceededException(e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a GET request asynchronously and retrieves a list of {@link ServiceResponse} responses.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param responseType the type of the response.
+     * @param <T>          the type of service response.
+     * @return a future that completes with the list of responses.
+     * @see #getRequestList(String, Class)
+     */
+    protected final <T extends ServiceResponse> CompletableFuture<List<T>> getRequestListAsync(String resourceUrl, Class<T> responseType) {
+        HttpRequest httpRequest = this.getRequestFactory().buildGetRequest(resourceUrl);
+        return processRequestAsync(httpRequest).thenApply(response -> {
+            try {
+                return response.parseListAs(responseType);
+            } catch (JsonMapperException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Sends a GET request asynchronously and retrieves a single {@link ServiceResponse} response.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param responseType the type of the response.
+     * @param <T>          the type of service response.
+     * @return a future that completes with the response.
+     * @see #getRequest(String, Class)
+     */
+    protected final <T extends ServiceResponse> CompletableFuture<T> getRequestAsync(String resourceUrl, Class<T> responseType) {
+        HttpRequest httpRequest = this.getRequestFactory().buildGetRequest(resourceUrl);
+        return processRequestAsync(httpRequest).thenApply(response -> parseResponse(response, responseType));
+    }
+
+    /**
+     * Sends a POST request asynchronously with a payload and retrieves a {@link ServiceResponse} response.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param payload      the payload to send as a type of {@link ServicePayload}.
+     * @param responseType the type of the response.
+     * @param <T>          the type of service response.
+     * @param <P>          the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes with the response.
+     * @see #postRequest(String, ServicePayload, Class)
+     */
+    protected final <T extends ServiceResponse, P extends ServicePayload> CompletableFuture<T> postRequestAsync(String resourceUrl, P payload, Class<T> responseType) {
+        return postRequestAsync(resourceUrl, payload, responseType, null);
+    }
+
+    /**
+     * Sends a POST request asynchronously with a payload and retrieves a {@link ServiceResponse} response, within a
+     * deadline.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param payload      the payload to send as a type of {@link ServicePayload}.
+     * @param responseType the type of the response.
+     * @param deadline     the {@link Deadline} of the call the request belongs to, or {@code null} for none.
+     * @param <T>          the type of service response.
+     * @param <P>          the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes with the response.
+     * @see #postRequest(String, ServicePayload, Class, Deadline)
+     */
+    protected final <T extends ServiceResponse, P extends ServicePayload> CompletableFuture<T> postRequestAsync(String resourceUrl, P payload, Class<T> responseType, Deadline deadline) {
+        return processRequestAsync(buildJsonRequest(HttpMethods.POST, resourceUrl, payload, deadline))
+                .thenApply(response -> parseResponse(response, responseType));
+    }
+
+    /**
+     * Sends a POST request asynchronously with a payload, ignoring the response body.
+     *
+     * @param resourceUrl the URL of the resource.
+     * @param payload     the payload to send as a type of {@link ServicePayload}.
+     * @param <T>         the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes once the request has been accepted.
+     * @see #postRequest(String, ServicePayload)
+     */
+    protected final <T extends ServicePayload> CompletableFuture<Void> postRequestAsync(String resourceUrl, T payload) {
+        return postRequestAsync(resourceUrl, payload, (Deadline) null);
+    }
+
+    /**
+     * Sends a POST request asynchronously with a payload, ignoring the response body, within a deadline.
+     *
+     * @param resourceUrl the URL of the resource.
+     * @param payload     the payload to send as a type of {@link ServicePayload}.
+     * @param deadline    the {@link Deadline} of the call the request belongs to, or {@code null} for none.
+     * @param <T>         the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes once the request has been accepted.
+     * @see #postRequest(String, ServicePayload, Deadline)
+     */
+    protected final <T extends ServicePayload> CompletableFuture<Void> postRequestAsync(String resourceUrl, T payload, Deadline deadline) {
+        return processRequestAsync(buildJsonRequest(HttpMethods.POST, resourceUrl, payload, deadline))
+                .thenApply(response -> null);
+    }
+
+    /**
+     * Sends a PUT request asynchronously with a payload, ignoring the response body.
+     *
+     * @param resourceUrl the URL of the resource.
+     * @param payload     the payload to send as a type of {@link ServicePayload}.
+     * @param <T>         the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes once the request has been accepted.
+     * @see #putRequest(String, ServicePayload)
+     */
+    protected final <T extends ServicePayload> CompletableFuture<Void> putRequestAsync(String resourceUrl, T payload) {
+        return processRequestAsync(buildJsonRequest(HttpMethods.PUT, resourceUrl, payload)).thenApply(response -> null);
+    }
+
+    /**
+     * Sends a PUT request asynchronously with a payload and retrieves a {@link ServiceResponse} response.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param payload      the payload to send as a type of {@link ServicePayload}.
+     * @param responseType the type of the response.
+     * @param <T>          the type of service response.
+     * @param <P>          the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes with the response.
+     * @see #putRequest(String, ServicePayload, Class)
+     */
+    protected final <T extends ServiceResponse, P extends ServicePayload> CompletableFuture<T> putRequestAsync(String resourceUrl, P payload, Class<T> responseType) {
+        return processRequestAsync(buildJsonRequest(HttpMethods.PUT, resourceUrl, payload))
+                .thenApply(response -> parseResponse(response, responseType));
+    }
+
+    /**
+     * Sends a PUT request asynchronously to an external url resource.
+     *
+     * @param externalUrl   the external URL of the request.
+     * @param streamContent the stream content of the request.
+     * @return a future that completes once the content has been uploaded.
+     * @see #putExternalRequest(String, StreamingContent)
+     */
+    protected CompletableFuture<Void> putExternalRequestAsync(String externalUrl, StreamingContent streamContent) {
+        return putExternalRequestAsync(externalUrl, streamContent, null);
+    }
+
+    /**
+     * Sends a PUT request asynchronously to an external url resource, within a deadline.
+     *
+     * @param externalUrl   the external URL of the request.
+     * @param streamContent the stream content of the request.
+     * @param deadline      the {@link Deadline} of the call the request belongs to, or {@code null} for none.
+     * @return a future that completes once the content has been uploaded.
+     * @see #putExternalRequest(String, StreamingContent, Deadline)
+     */
+    protected CompletableFuture<Void> putExternalRequestAsync(String externalUrl, StreamingContent streamContent, Deadline deadline) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        buildExternalPutRequest(externalUrl, streamContent, deadline).executeAsync().whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(null);
+                return;
+            }
+            Throwable cause = unwrap(throwable);
+            if (deadline != null && deadline.isExpired() && cause instanceof HttpResponseException) {
+                result.completeExceptionally(new DeadlineExceededException((HttpResponseException) cause));
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sends a POST request with a submission and retrieves a {@link ServiceResponse} response. If the client has a
+     * {@link SubmissionJournal}, the submission is recorded in it before it is sent and completed once the service
+     * has accepted or rejected it. A submission that fails for any other reason, such as a network error, a server
+     * error or throttling, stays in the journal and is sent again when the journal is replayed.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param payload      the submission to send as a type of {@link ServicePayload}.
+     * @param responseType the type of the response.
+     * @param <T>          the type of service response.
+     * @param <P>          the type of service payload extended from {@link ServicePayload}.
+     * @return the response.
+     * @throws HttpResponseException  if an error occurs in the request.
+     * @throws HttpExecutionException if the submission cannot be recorded in the journal or the request fails.
+     */
+    protected final <T extends ServiceResponse, P extends ServicePayload> T postSubmission(String resourceUrl, P payload, Class<T> responseType) throws HttpResponseException, JsonMapperException, HttpExecutionException {
+        JsonStreamingContent content = getStreamingContent(payload);
+        long entry = appendToJournal(resourceUrl, content);
+        HttpResponse response = processSubmission(buildJsonRequest(HttpMethods.POST, resourceUrl, content, null), entry);
+        return response.parseAs(responseType);
+    }
+
+    /**
+     * Sends a POST request with a submission, ignoring the response body, recording it in the
+     * {@link SubmissionJournal} of the client if it has one.
+     *
+     * @param resourceUrl the URL of the resource.
+     * @param payload     the submission to send as a type of {@link ServicePayload}.
+     * @param <P>         the type of service payload extended from {@link ServicePayload}.
+     * @throws HttpResponseException  if an error occurs in the request.
+     * @throws HttpExecutionException if the submission cannot be recorded in the journal or the request fails.
+     * @see #postSubmission(String, ServicePayload, Class)
+     */
+    protected final <P extends ServicePayload> void postSubmission(String resourceUrl, P payload) throws HttpResponseException, JsonMapperException, HttpExecutionException {
+        JsonStreamingContent content = getStreamingContent(payload);
+        long entry = appendToJournal(resourceUrl, content);
+        processSubmission(buildJsonRequest(HttpMethods.POST, resourceUrl, content, null), entry);
+    }
+
+    /**
+     * Sends a POST request asynchronously with a submission and retrieves a {@link ServiceResponse} response,
+     * recording it in the {@link SubmissionJournal} of the client if it has one. The submission is recorded on the
+     * calling thread.
+     *
+     * @param resourceUrl  the URL of the resource.
+     * @param payload      the submission to send as a type of {@link ServicePayload}.
+     * @param responseType the type of the response.
+     * @param <T>          the type of service response.
+     * @param <P>          the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes with the response.
+     * @see #postSubmission(String, ServicePayload, Class)
+     */
+    protected final <T extends ServiceResponse, P extends ServicePayload> CompletableFuture<T> postSubmissionAsync(String resourceUrl, P payload, Class<T> responseType) {
+        return postSubmissionAsync(resourceUrl, payload).thenApply(response -> parseResponse(response, responseType));
+    }
+
+    /**
+     * Sends a POST request asynchronously with a submission, recording it in the {@link SubmissionJournal} of the
+     * client if it has one. The submission is recorded on the calling thread.
+     *
+     * @param resourceUrl the URL of the resource.
+     * @param payload     the submission to send as a type of {@link ServicePayload}.
+     * @param <P>         the type of service payload extended from {@link ServicePayload}.
+     * @return a future that completes with the response once the request has been accepted.
+     * @see #postSubmission(String, ServicePayload)
+     */
+    protected final <P extends ServicePayload> CompletableFuture<HttpResponse> postSubmissionAsync(String resourceUrl, P payload) {
+        JsonStreamingContent content = getStreamingContent(payload);
+        long entry;
+        try {
+            entry = appendToJournal(resourceUrl, content);
+        } catch (JsonMapperException | HttpExecutionException e) {
+            CompletableFuture<HttpResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        return processRequestAsync(buildJsonRequest(HttpMethods.POST, resourceUrl, content, null))
+                .whenComplete((response, throwable) -> {
+                    if (throwable == null || isRejection(throwable)) {
+                        completeInJournal(entry);
+                    }
+                });
+    }
+
+    /**
+     * Sends again the submissions to a service that were recorded in the {@link SubmissionJournal} of this client
+     * but never completed, such as those in flight when the process ended or that failed, in the order they were
+     * recorded. A submission the service rejects is completed, since sending it again would not change the outcome,
+     * and replaying carries on with the next one. Replaying stops at the first submission that fails for any other
+     * reason; it stays in the journal with the submissions after it, to be replayed again the next time the journal
+     * is opened.
+     *
+     * @param servicePath the path of the service, relative to the root URL.
+     * @return the number of submissions sent again, including the rejected ones.
+     * @throws HttpResponseException  if a submission fails with a server error or is throttled.
+     * @throws HttpExecutionException if a submission cannot be sent.
+     */
+    protected final int replayJournal(String servicePath) throws HttpResponseException, HttpExecutionException {
+        if (submissionJournal == null) {
+            return 0;
+        }
+        int replayed = 0;
+        for (SubmissionJournal.Entry entry : submissionJournal.getRecovered(servicePath)) {
+            try {
+                processSubmission(buildJsonRequest(HttpMethods.POST, rootUrl + servicePath,
+                        JsonStreamingContent.ofJson(entry.getJson(), jsonMapper), null), entry.getId());
+            } catch (HttpResponseException e) {
+                if (!isRejection(e)) {
+                    throw e;
+                }
+            }
+            replayed++;
+        }
+        return replayed;
+    }
+
+    /**
+     * Sends a journaled submission and completes its entry once the service has accepted or rejected it.
+     */
+    private HttpResponse processSubmission(HttpRequest request, long entry) throws HttpResponseException, HttpExecutionException {
+        try {
+            HttpResponse response = processRequest(request);
+            completeInJournal(entry);
+            return response;
+        } catch (HttpResponseException e) {
+            if (isRejection(e)) {
+                completeInJournal(entry);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether an error is a definitive rejection of a submission by the service: a client error other than a
+     * timeout or throttling, which sending the same submission again would not change.
+     */
+    private static boolean isRejection(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof HttpResponseException)) {
+            return false;
+        }
+        int statusCode = ((HttpResponseException) cause).getStatusCode();
+        return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+    }
+
+    private long appendToJournal(String resourceUrl, JsonStreamingContent content) throws JsonMapperException, HttpExecutionException {
+        if (submissionJournal == null) {
+            return -1;
+        }
+        String servicePath = resourceUrl.startsWith(rootUrl) ? resourceUrl.substring(rootUrl.length()) : resourceUrl;
+        try {
+            return submissionJournal.append(servicePath, content.toByteBuffer());
+        } catch (IOException e) {
+            throw new HttpExecutionException("The submission could not be recorded in the journal.", e);
+        }
+    }
+
+    private void completeInJournal(long entry) {
+        if (entry < 0) {
+            return;
+        }
+        try {
+            submissionJournal.complete(entry);
+        } catch (IOException e) {
+            // the submission is sent again when the journal is replayed
+        }
+    }
+
+    private <T extends ServicePayload> HttpRequest buildJsonRequest(String method, String resourceUrl, T payload) {
+        return buildJsonRequest(method, resourceUrl, payload, null);
+    }
+
+    private <T extends ServicePayload> HttpRequest buildJsonRequest(String method, String resourceUrl, T payload, Deadline deadline) {
+        return buildJsonRequest(method, resourceUrl, getStreamingContent(payload), deadline);
+    }
+
+    private HttpRequest buildJsonRequest(String method, String resourceUrl, JsonStreamingContent content, Deadline deadline) {
+        HttpRequest httpRequest = this.getRequestFactory().buildRequest(method, resourceUrl, content);
+        httpRequest.setContentType("application/json");
+        httpRequest.addHeader("Content-Type", "application/json");
+        httpRequest.setDeadline(deadline);
+        return httpRequest;
+    }
+
+    private HttpRequest buildExternalPutRequest(String externalUrl, StreamingContent streamContent, Deadline deadline) {
         HttpRequest httpRequest = this.getRequestFactory().buildPutRequest(externalUrl, streamContent);
+        httpRequest.setDeadline(deadline);
         httpRequest.setContentType("multipart/form-data");
         httpRequest.setJsonMapper(getJsonMapper());
         httpRequest.addHeader("x-ms-blob-type", "BlockBlob");
-        httpRequest.execute();
+        return httpRequest;
+    }
+
+    private static <T> T parseResponse(HttpResponse response, Class<T> responseType) {
+        try {
+            return response.parseAs(responseType);
+        } catch (JsonMapperException e) {
+            throw new CompletionException(e);
+        }
     }
 
     /**
      * Sets the Bearer token in the HTTP request headers.
      *
      * @param request the {@link HttpRequest} request.
+     * @return the access token that was set.
      */
-    private void setBearerHeader(HttpRequest request) throws TokenResponseException {
-        request.addHeader("Authorization", "Bearer " + tokenManager.getAccessToken());
+    private String setBearerHeader(HttpRequest request) throws TokenResponseException {
+        String accessToken = tokenManager.getAccessToken();
+        request.setHeader("Authorization", "Bearer " + accessToken);
+        return accessToken;
     }
 
+    /**
+     * Sends the request, retrying it according to the {@link RetryPolicy} of this client.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return the response.
+     */
     private HttpResponse processRequest(HttpRequest request) throws HttpResponseException, HttpExecutionException {
+        request.setJsonMapper(getJsonMapper());
+        retryPolicy.onRequest();
+        long delay = 0;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return executeAttempt(request);
+            } catch (HttpResponseException e) {
+                Deadline deadline = request.getDeadline();
+                if (deadline != null && deadline.isExpired()) {
+                    throw new DeadlineExceededException(e);
+                }
+                delay = retryPolicy.getRetryDelayMillis(request.getRequestMethod(), e, attempt, delay);
+                if (delay < 0 || (deadline != null && delay >= deadline.getRemaining().toMillis())) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new HttpExecutionException(interrupted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the request once, hedging it if it is a GET request and this client has a {@link HedgingPolicy}.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return the response.
+     */
+    private HttpResponse executeAttempt(HttpRequest request) throws HttpResponseException, HttpExecutionException {
+        if (!isHedged(request)) {
+            return executeLimited(request);
+        }
+        try {
+            return hedgingPolicy.execute(request, () -> copyRequest(request), this::executeBlocking,
+                    this::executeBlocking).join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof HttpResponseException) {
+                throw (HttpResponseException) cause;
+            }
+            if (cause instanceof HttpExecutionException) {
+                throw (HttpExecutionException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new HttpExecutionException(e);
+        }
+    }
+
+    private CompletableFuture<HttpResponse> executeBlocking(HttpRequest request) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        try {
+            result.complete(executeLimited(request));
+        } catch (HttpResponseException | HttpExecutionException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private boolean isHedged(HttpRequest request) {
+        return hedgingPolicy != null && HttpMethods.GET.equals(request.getRequestMethod());
+    }
+
+    /**
+     * Creates a copy of a GET request to send as its hedged request.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return the copy.
+     */
+    private HttpRequest copyRequest(HttpRequest request) {
+        HttpRequest copy = this.getRequestFactory().buildGetRequest(request.getUrl());
+        copy.setJsonMapper(request.getJsonMapper());
+        copy.setDeadline(request.getDeadline());
+        return copy;
+    }
+
+    /**
+     * Sends the request once, after waiting for the {@link RateLimiter}, acquiring a permit from the
+     * {@link ConcurrencyLimiter} and checking the {@link CircuitBreaker} of this client if it has them. The circuit is
+     * checked last, so that a request interrupted while it waits never holds a trial of a half-open circuit.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return the response.
+     */
+    private HttpResponse executeLimited(HttpRequest request) throws HttpResponseException, HttpExecutionException {
+        if (circuitBreaker == null && rateLimiter == null && concurrencyLimiter == null) {
+            return executeRequest(request);
+        }
+        long start = 0;
+        try {
+            if (rateLimiter != null) {
+                rateLimiter.acquire(tenantId, request.getUrl());
+            }
+            if (concurrencyLimiter != null) {
+                start = concurrencyLimiter.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpExecutionException(e);
+        }
+        CircuitBreaker.Circuit circuit;
+        try {
+            circuit = circuitBreaker == null ? null : circuitBreaker.acquire(request.getUrl());
+        } catch (CircuitOpenException e) {
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.release(start, e);
+            }
+            throw e;
+        }
+        long sent = System.nanoTime();
+        Throwable error = null;
+        try {
+            return executeRequest(request);
+        } catch (HttpResponseException | HttpExecutionException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            if (concurrencyLimiter != null) {
+                concurrencyLimiter.release(start, error);
+            }
+            if (circuit != null) {
+                circuit.release(sent, error);
+            }
+        }
+    }
+
+    private HttpResponse executeRequest(HttpRequest request) throws HttpResponseException, HttpExecutionException {
+        String accessToken = setBearerHeader(request);
         try {
-            request.setJsonMapper(getJsonMapper());
-            setBearerHeader(request);
             return request.execute();
         } catch (HttpForbiddenException e) {
-            tokenManager.resetToken();
+            tokenManager.resetToken(accessToken);
             setBearerHeader(request);
             return request.execute();
         }
     }
 
+    /**
+     * Asynchronous counterpart of {@link #processRequest(HttpRequest)}. Retries wait on a scheduler instead of
+     * blocking a thread.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return a future that completes with the response.
+     */
+    private CompletableFuture<HttpResponse> processRequestAsync(HttpRequest request) {
+        request.setJsonMapper(getJsonMapper());
+        retryPolicy.onRequest();
+        return processAttemptAsync(request, 1, 0);
+    }
+
+    private CompletableFuture<HttpResponse> processAttemptAsync(HttpRequest request, int attempt, long previousDelay) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        executeAttemptAsync(request).whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = unwrap(throwable);
+            Deadline deadline = request.getDeadline();
+            if (deadline != null && deadline.isExpired() && cause instanceof HttpResponseException) {
+                result.completeExceptionally(new DeadlineExceededException((HttpResponseException) cause));
+                return;
+            }
+            long delay = retryPolicy.getRetryDelayMillis(request.getRequestMethod(), cause, attempt, previousDelay);
+            if (delay < 0 || (deadline != null && delay >= deadline.getRemaining().toMillis())) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            RetryPolicy.delay(delay)
+                    .thenCompose(ignored -> processAttemptAsync(request, attempt + 1, delay))
+                    .whenComplete((retried, error) -> {
+                        if (error == null) {
+                            result.complete(retried);
+                        } else {
+                            result.completeExceptionally(unwrap(error));
+                        }
+                    });
+        });
+        return result;
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #executeAttempt(HttpRequest)}.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return a future that completes with the response.
+     */
+    private CompletableFuture<HttpResponse> executeAttemptAsync(HttpRequest request) {
+        if (!isHedged(request)) {
+            return executeLimitedAsync(request);
+        }
+        return hedgingPolicy.execute(request, () -> copyRequest(request), this::executeLimitedAsync,
+                this::executeLimitedAsync);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #executeLimited(HttpRequest)}. The request is sent once the rate limit allows
+     * it, a permit is available and its circuit is not open, without blocking the calling thread while waiting.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return a future that completes with the response.
+     */
+    private CompletableFuture<HttpResponse> executeLimitedAsync(HttpRequest request) {
+        if (rateLimiter != null) {
+            return rateLimiter.acquireAsync(tenantId, request.getUrl())
+                    .thenCompose(ignored -> executeConcurrencyLimitedAsync(request));
+        }
+        return executeConcurrencyLimitedAsync(request);
+    }
+
+    private CompletableFuture<HttpResponse> executeConcurrencyLimitedAsync(HttpRequest request) {
+        if (concurrencyLimiter == null) {
+            return executeRecordedAsync(request);
+        }
+        return concurrencyLimiter.acquireAsync().thenCompose(start -> executeRecordedAsync(request)
+                .whenComplete((response, throwable) ->
+                        concurrencyLimiter.release(start, throwable == null ? null : unwrap(throwable))));
+    }
+
+    private CompletableFuture<HttpResponse> executeRecordedAsync(HttpRequest request) {
+        if (circuitBreaker == null) {
+            return executeRequestAsync(request);
+        }
+        CircuitBreaker.Circuit circuit;
+        try {
+            circuit = circuitBreaker.acquire(request.getUrl());
+        } catch (CircuitOpenException e) {
+            CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+        long sent = System.nanoTime();
+        return executeRequestAsync(request).whenComplete((response, throwable) ->
+                circuit.release(sent, throwable == null ? null : unwrap(throwable)));
+    }
+
+    /**
+     * Sends the request once without blocking. A 401/403 response resets the rejected token and retries the request
+     * once. The token reset may block, so it runs on the common pool rather than on the thread that completed the
+     * failed exchange.
+     *
+     * @param request the {@link HttpRequest} request.
+     * @return a future that completes with the response.
+     */
+    private CompletableFuture<HttpResponse> executeRequestAsync(HttpRequest request) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        String accessToken;
+        try {
+            accessToken = setBearerHeader(request);
+        } catch (TokenResponseException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        request.executeAsync().whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+            } else if (unwrap(throwable) instanceof HttpForbiddenException) {
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        tokenManager.resetToken(accessToken);
+                        setBearerHeader(request);
+                    } catch (TokenResponseException e) {
+                        throw new CompletionException(e);
+                    }
+                }).thenCompose(ignored -> request.executeAsync()).whenComplete((retried, error) -> {
+                    if (error == null) {
+                        result.complete(retried);
+                    } else {
+                        result.completeExceptionally(unwrap(error));
+                    }
+                });
+            } else {
+                result.completeExceptionally(unwrap(throwable));
+            }
+        });
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+    }
+
     /**
      * Builder class for constructing instances of {@link AbstractServiceClient}.
      */
@@ -277,6 +991,51 @@ public abstract class AbstractServiceClient {
          */
         TokenManager tokenManager;
 
+        /**
+         * {@link RetryPolicy} policy for retrying failed requests.
+         */
+        RetryPolicy retryPolicy;
+
+        /**
+         * {@link ConcurrencyLimiter} limiter for the requests in flight.
+         */
+        ConcurrencyLimiter concurrencyLimiter;
+
+        /**
+         * {@link RateLimiter} limiter for the rate of requests.
+         */
+        RateLimiter rateLimiter;
+
+        /**
+         * {@link CircuitBreaker} breaker for failing routes.
+         */
+        CircuitBreaker circuitBreaker;
+
+        /**
+         * {@link HedgingPolicy} policy for hedging slow GET requests.
+         */
+        HedgingPolicy hedgingPolicy;
+
+        /**
+         * {@link SubmissionJournal} journal of the submissions.
+         */
+        SubmissionJournal submissionJournal;
+
+        /**
+         * Timeout to establish a connection.
+         */
+        Duration connectTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Timeout to wait for data of the response.
+         */
+        Duration responseTimeout = Duration.ofSeconds(60);
+
+        /**
+         * Timeout for a write of the request content to make progress.
+         */
+        Duration writeTimeout = Duration.ofSeconds(60);
+
         /**
          * Builds an instance of {@link AbstractServiceClient}.
          *
@@ -361,6 +1120,131 @@ public abstract class AbstractServiceClient {
             return this;
         }
 
+        /**
+         * Gets the retry policy.
+         *
+         * @return the {@link RetryPolicy} policy, or {@link RetryPolicy#none()} if not set.
+         */
+        protected final RetryPolicy getRetryPolicy() {
+            return Objects.isNull(retryPolicy) ? RetryPolicy.none() : retryPolicy;
+        }
+
+        /**
+         * Sets the policy for retrying requests that fail with a transient error, such as a 429 or 503 response.
+         * By default, requests are not retried.
+         *
+         * @param retryPolicy the {@link RetryPolicy} policy.
+         * @return this builder.
+         */
+        public Builder setRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the limiter that adapts the number of requests in flight to the capacity of the service. The same
+         * limiter can be shared by several service clients. By default, the number of requests is not limited.
+         *
+         * @param concurrencyLimiter the {@link ConcurrencyLimiter} limiter.
+         * @return this builder.
+         */
+        public Builder setConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            this.concurrencyLimiter = concurrencyLimiter;
+            return this;
+        }
+
+        /**
+         * Sets the limiter that keeps the rate of requests under the quotas of the service, per service path and per
+         * tenant. The same limiter can be shared by several service clients. By default, the rate of requests is not
+         * limited.
+         *
+         * @param rateLimiter the {@link RateLimiter} limiter.
+         * @return this builder.
+         */
+        public Builder setRateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Sets the circuit breaker that fails requests immediately with a {@link CircuitOpenException} while their
+         * route of the service is failing or slow. The same breaker can be shared by several service clients. By
+         * default, requests are always sent.
+         *
+         * @param circuitBreaker the {@link CircuitBreaker} breaker.
+         * @return this builder.
+         */
+        public Builder setCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Sets the policy that sends a second copy of a GET request when it is slower than most, using whichever
+         * response arrives first. Each client should have its own policy, since its latencies decide when requests
+         * are hedged. By default, requests are not hedged.
+         *
+         * @param hedgingPolicy the {@link HedgingPolicy} policy.
+         * @return this builder.
+         */
+        public Builder setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the journal the submissions of the client are recorded in before they are sent, so that they can be
+         * replayed if the process ends before they complete. Only the clients that send submissions expose this
+         * setting. By default, submissions are not journaled.
+         *
+         * @param submissionJournal the {@link SubmissionJournal} journal.
+         * @return this builder.
+         */
+        protected Builder setSubmissionJournal(SubmissionJournal submissionJournal) {
+            this.submissionJournal = submissionJournal;
+            return this;
+        }
+
+        /**
+         * Sets the timeout to establish a connection to the service. Defaults to 30 seconds.
+         *
+         * @param connectTimeout the timeout, or {@link Duration#ZERO} for an infinite timeout.
+         * @return this builder.
+         */
+        public Builder setConnectTimeout(Duration connectTimeout) {
+            Preconditions.checkArgument(connectTimeout != null && !connectTimeout.isNegative(),
+                    "Connect timeout cannot be null or negative");
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long to wait for data of a response once the request has been sent. Defaults to 60 seconds.
+         *
+         * @param responseTimeout the timeout, or {@link Duration#ZERO} for an infinite timeout.
+         * @return this builder.
+         */
+        public Builder setResponseTimeout(Duration responseTimeout) {
+            Preconditions.checkArgument(responseTimeout != null && !responseTimeout.isNegative(),
+                    "Response timeout cannot be null or negative");
+            this.responseTimeout = responseTimeout;
+            return this;
+        }
+
+        /**
+         * Sets how long a write of the request content may block, such as when uploading a binary to a connection
+         * that stopped accepting data. Defaults to 60 seconds.
+         *
+         * @param writeTimeout the timeout, or {@link Duration#ZERO} for an infinite timeout.
+         * @return this builder.
+         */
+        public Builder setWriteTimeout(Duration writeTimeout) {
+            Preconditions.checkArgument(writeTimeout != null && !writeTimeout.isNegative(),
+                    "Write timeout cannot be null or negative");
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
         /**
          * Sets the JSON mapper.
          *
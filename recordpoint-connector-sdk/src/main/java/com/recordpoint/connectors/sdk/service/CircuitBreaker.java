@@ -0,0 +1,395 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.google.common.base.Preconditions;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit breaker that stops sending requests to a route of the service while it is failing.
+ * <p>
+ * Each circuit records the outcome of the last {@link Builder#setWindowSize(int) window} of requests to its route. A
+ * request fails when it cannot reach the service or is answered with a {@code 408} or {@code 5xx} status, and it is
+ * slow when it takes longer than {@link Builder#setSlowCallDuration(Duration) the slow call duration}. Once the window
+ * holds {@link Builder#setMinimumCalls(int) enough requests}, a failure or slow call rate at or above its threshold
+ * opens the circuit: for {@link Builder#setOpenDuration(Duration) the open duration}, requests to the route fail
+ * immediately with a {@link CircuitOpenException} instead of waiting on timeouts and holding connections. The circuit
+ * then becomes half-open and lets {@link Builder#setHalfOpenCalls(int) a few trial requests} through, closing again if
+ * they succeed and reopening otherwise.
+ * </p>
+ * <p>
+ * Routes are the base URLs of the service, so each region has its own circuit; service paths registered with
+ * {@link Builder#addRoute(String)} get a circuit of their own under their base URL. The same breaker can be shared by
+ * several service clients so that they all stop calling a failing route.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * CircuitBreaker circuitBreaker = CircuitBreaker.Builder()
+ *     .setFailureRateThreshold(0.5)
+ *     .setOpenDuration(Duration.ofSeconds(30))
+ *     .addRoute("/connector/api/Binaries")
+ *     .build();
+ * ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *     .setServiceSettings(settings)
+ *     .setTokenManager(tokenManager)
+ *     .setCircuitBreaker(circuitBreaker)
+ *     .build();
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class CircuitBreaker {
+
+    /**
+     * State of a circuit.
+     */
+    public enum State {
+        /**
+         * Requests are sent and their outcomes recorded.
+         */
+        CLOSED,
+        /**
+         * Requests fail immediately.
+         */
+        OPEN,
+        /**
+         * A limited number of trial requests are sent to decide whether to close or reopen the circuit.
+         */
+        HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final List<String> routes;
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@link CircuitBreaker} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public CircuitBreaker(Builder builder) {
+        Preconditions.checkArgument(builder.failureRateThreshold > 0 && builder.failureRateThreshold <= 1,
+                "Failure rate threshold must be greater than 0 and at most 1");
+        Preconditions.checkArgument(builder.slowCallRateThreshold > 0 && builder.slowCallRateThreshold <= 1,
+                "Slow call rate threshold must be greater than 0 and at most 1");
+        Preconditions.checkArgument(!builder.slowCallDuration.isNegative() && !builder.slowCallDuration.isZero(),
+                "Slow call duration must be greater than zero");
+        Preconditions.checkArgument(builder.windowSize > 0, "Window size must be greater than zero");
+        Preconditions.checkArgument(builder.minimumCalls > 0 && builder.minimumCalls <= builder.windowSize,
+                "Minimum calls must be between 1 and the window size");
+        Preconditions.checkArgument(!builder.openDuration.isNegative(), "Open duration cannot be negative");
+        Preconditions.checkArgument(builder.halfOpenCalls > 0 && builder.halfOpenCalls <= builder.windowSize,
+                "Half-open calls must be between 1 and the window size");
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallNanos = builder.slowCallDuration.toNanos();
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.openNanos = builder.openDuration.toNanos();
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.routes = new ArrayList<>(builder.routes);
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the state of the circuit that requests to the given URL go through.
+     *
+     * @param url the URL of a request, or the base URL of the service.
+     * @return the state of the circuit, {@link State#CLOSED} if no request has been sent to its route yet.
+     */
+    public State getState(String url) {
+        Circuit circuit = circuits.get(getRoute(url));
+        return circuit == null ? State.CLOSED : circuit.getState();
+    }
+
+    /**
+     * Gets the circuit that a request to the given URL goes through and asks it for permission to send the request.
+     *
+     * @param url the URL of the request.
+     * @return the circuit, to be passed the outcome of the request with {@link Circuit#release(long, Throwable)}.
+     * @throws CircuitOpenException if the circuit is open.
+     */
+    Circuit acquire(String url) throws CircuitOpenException {
+        Circuit circuit = circuits.computeIfAbsent(getRoute(url), Circuit::new);
+        circuit.acquire();
+        return circuit;
+    }
+
+    private String getRoute(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return String.valueOf(url);
+        }
+        if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+            return String.valueOf(url);
+        }
+        String origin = (uri.getScheme() + "://" + uri.getRawAuthority()).toLowerCase(Locale.ROOT);
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath().toLowerCase(Locale.ROOT);
+        String match = "";
+        for (String route : routes) {
+            if (path.startsWith(route) && route.length() > match.length()) {
+                match = route;
+            }
+        }
+        return origin + match;
+    }
+
+    private static boolean isFailure(Throwable error) {
+        if (!(error instanceof HttpResponseException)) {
+            return false;
+        }
+        int statusCode = ((HttpResponseException) error).getStatusCode();
+        return statusCode < 0 || statusCode == 408 || statusCode >= 500;
+    }
+
+    /**
+     * Circuit of a single route.
+     */
+    final class Circuit {
+        private final String route;
+        private final byte[] outcomes = new byte[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private int slowCalls;
+        private State state = State.CLOSED;
+        private long openedNanos;
+        private long halfOpenedNanos;
+        private int trials;
+
+        private Circuit(String route) {
+            this.route = route;
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        /**
+         * Asks for permission to send a request.
+         *
+         * @throws CircuitOpenException if the circuit is open, or half-open with all its trial requests in flight.
+         */
+        synchronized void acquire() throws CircuitOpenException {
+            long now = System.nanoTime();
+            if (state == State.OPEN) {
+                long remaining = openNanos - (now - openedNanos);
+                if (remaining > 0) {
+                    throw new CircuitOpenException(route, Duration.ofNanos(remaining));
+                }
+                halfOpen(now);
+            }
+            if (state == State.HALF_OPEN) {
+                if (trials >= halfOpenCalls) {
+                    // trials whose outcome never came back must not keep the circuit half-open forever
+                    if (now - halfOpenedNanos < Math.max(openNanos, slowCallNanos)) {
+                        throw new CircuitOpenException(route, Duration.ZERO);
+                    }
+                    halfOpen(now);
+                }
+                trials++;
+            }
+        }
+
+        /**
+         * Records the outcome of a request sent through this circuit.
+         *
+         * @param startNanos the time the request was sent.
+         * @param error      the error of the request, or {@code null} if it succeeded.
+         */
+        synchronized void release(long startNanos, Throwable error) {
+            long now = System.nanoTime();
+            if (state == State.OPEN || (state == State.HALF_OPEN && startNanos - halfOpenedNanos < 0)) {
+                return;
+            }
+            record(isFailure(error), now - startNanos >= slowCallNanos);
+            if (state == State.HALF_OPEN) {
+                if (calls >= halfOpenCalls) {
+                    if (isOverThreshold()) {
+                        open(now);
+                    } else {
+                        state = State.CLOSED;
+                        clear();
+                    }
+                }
+            } else if (calls >= minimumCalls && isOverThreshold()) {
+                open(now);
+            }
+        }
+
+        private void record(boolean failure, boolean slow) {
+            if (calls == windowSize) {
+                failures -= outcomes[next] & 1;
+                slowCalls -= (outcomes[next] >> 1) & 1;
+            } else {
+                calls++;
+            }
+            outcomes[next] = (byte) ((failure ? 1 : 0) | (slow ? 2 : 0));
+            failures += failure ? 1 : 0;
+            slowCalls += slow ? 1 : 0;
+            next = (next + 1) % windowSize;
+        }
+
+        private boolean isOverThreshold() {
+            return failures >= failureRateThreshold * calls || slowCalls >= slowCallRateThreshold * calls;
+        }
+
+        private void open(long now) {
+            state = State.OPEN;
+            openedNanos = now;
+            clear();
+        }
+
+        private void halfOpen(long now) {
+            state = State.HALF_OPEN;
+            halfOpenedNanos = now;
+            trials = 0;
+            clear();
+        }
+
+        private void clear() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link CircuitBreaker} instances.
+     */
+    public static class Builder {
+        private double failureRateThreshold = 0.5;
+        private double slowCallRateThreshold = 0.8;
+        private Duration slowCallDuration = Duration.ofSeconds(10);
+        private int windowSize = 50;
+        private int minimumCalls = 20;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 5;
+        private final List<String> routes = new ArrayList<>();
+
+        /**
+         * Sets the share of failed requests in the window that opens the circuit. Defaults to 0.5.
+         *
+         * @param failureRateThreshold a value greater than 0 and at most 1.
+         * @return the builder instance.
+         */
+        public Builder setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the share of slow requests in the window that opens the circuit. Defaults to 0.8.
+         *
+         * @param slowCallRateThreshold a value greater than 0 and at most 1.
+         * @return the builder instance.
+         */
+        public Builder setSlowCallRateThreshold(double slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long a request must take to count as slow. Defaults to 10 seconds.
+         *
+         * @param slowCallDuration the slow call duration.
+         * @return the builder instance.
+         */
+        public Builder setSlowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of most recent requests whose outcomes are recorded. Defaults to 50.
+         *
+         * @param windowSize the size of the window.
+         * @return the builder instance.
+         */
+        public Builder setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of requests the window must hold before the circuit can open. Defaults to 20.
+         *
+         * @param minimumCalls the minimum number of requests.
+         * @return the builder instance.
+         */
+        public Builder setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets how long an open circuit rejects requests before letting trial requests through. Defaults to 30
+         * seconds.
+         *
+         * @param openDuration the open duration.
+         * @return the builder instance.
+         */
+        public Builder setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of trial requests a half-open circuit lets through. Defaults to 5.
+         *
+         * @param halfOpenCalls the number of trial requests.
+         * @return the builder instance.
+         */
+        public Builder setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * Gives the requests whose URL path starts with the given service path, such as
+         * {@code /connector/api/Binaries}, a circuit of their own instead of the circuit of their base URL. Paths are
+         * compared case-insensitively and the longest matching path applies.
+         *
+         * @param servicePath the service path.
+         * @return the builder instance.
+         */
+        public Builder addRoute(String servicePath) {
+            Preconditions.checkNotNull(servicePath, "Service path cannot be null");
+            routes.add(servicePath.toLowerCase(Locale.ROOT));
+            return this;
+        }
+
+        /**
+         * Builds a new {@link CircuitBreaker} instance.
+         *
+         * @return a new {@link CircuitBreaker}.
+         */
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of sending a request when the {@link CircuitBreaker} of its route is open.
+ * <p>
+ * The request was not sent, so it is safe to send it again later, for example after {@link #getRetryAfter()}.
+ * </p>
+ */
+public class CircuitOpenException extends HttpExecutionException {
+    private final String route;
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a {@link CircuitOpenException} instance.
+     *
+     * @param route      the route whose circuit is open.
+     * @param retryAfter the time left before the circuit lets trial requests through.
+     */
+    public CircuitOpenException(String route, Duration retryAfter) {
+        super("The circuit for " + route + " is open", null);
+        this.route = route;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the route whose circuit is open.
+     *
+     * @return the base URL of the route, followed by its service path if it has its own circuit.
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Gets the time left before the circuit lets trial requests through.
+     *
+     * @return the time left, which is zero when the circuit is already waiting on trial requests.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
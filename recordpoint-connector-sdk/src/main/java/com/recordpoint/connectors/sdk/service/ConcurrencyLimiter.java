@@ -0,0 +1,294 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.google.common.base.Preconditions;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Adaptive limit on the number of requests that service clients send at the same time.
+ * <p>
+ * The limit follows an additive-increase/multiplicative-decrease (AIMD) algorithm. Each request that succeeds while
+ * the limit is being used raises the limit by about one per round trip; a request that is throttled ({@code 429}),
+ * rejected as unavailable ({@code 503}), fails to reach the service, or takes more than
+ * {@link Builder#setLatencyTolerance(double) a multiple of} the fastest observed response time lowers it by
+ * {@link Builder#setBackoffRatio(double) the backoff ratio}, at most once per round trip. A bulk import therefore
+ * converges on the highest concurrency that the service sustains, without choosing a thread count up front.
+ * </p>
+ * <p>
+ * Requests above the limit wait for a permit: synchronous calls block, asynchronous calls are sent when a permit is
+ * released. The same limiter can be shared by several service clients so that they adapt together. The current limit
+ * is exposed by {@link #getLimit()} for monitoring.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * ConcurrencyLimiter limiter = ConcurrencyLimiter.Builder()
+ *     .setInitialLimit(16)
+ *     .setMaxLimit(256)
+ *     .build();
+ * ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *     .setServiceSettings(settings)
+ *     .setTokenManager(tokenManager)
+ *     .setConcurrencyLimiter(limiter)
+ *     .build();
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class ConcurrencyLimiter {
+    private static final long LATENCY_WINDOW = 1000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final Queue<CompletableFuture<Long>> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long nextMinLatencyNanos = Long.MAX_VALUE;
+    private long samples;
+
+    /**
+     * Constructs a {@link ConcurrencyLimiter} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public ConcurrencyLimiter(Builder builder) {
+        Preconditions.checkArgument(builder.minLimit > 0 && builder.minLimit <= builder.maxLimit,
+                "Min limit must be between 1 and max limit");
+        Preconditions.checkArgument(builder.initialLimit >= builder.minLimit && builder.initialLimit <= builder.maxLimit,
+                "Initial limit must be between min limit and max limit");
+        Preconditions.checkArgument(builder.backoffRatio > 0 && builder.backoffRatio < 1,
+                "Backoff ratio must be between 0 and 1");
+        Preconditions.checkArgument(builder.latencyTolerance > 1, "Latency tolerance must be greater than 1");
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyTolerance = builder.latencyTolerance;
+        this.limit = builder.initialLimit;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the current number of requests that may be in flight at the same time.
+     *
+     * @return the current limit.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of requests currently in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of requests waiting for a permit.
+     *
+     * @return the number of waiting requests.
+     */
+    public synchronized int getWaiting() {
+        return waiters.size();
+    }
+
+    /**
+     * Waits for a permit.
+     *
+     * @return the start time of the request in nanoseconds, to be passed to {@link #release(long, Throwable)}.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    long acquire() throws InterruptedException {
+        CompletableFuture<Long> permit = acquireAsync();
+        try {
+            return permit.get();
+        } catch (InterruptedException e) {
+            if (!permit.cancel(false)) {
+                returnPermit();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Requests a permit without blocking.
+     *
+     * @return a future that completes with the start time of the request in nanoseconds once a permit is available.
+     */
+    CompletableFuture<Long> acquireAsync() {
+        synchronized (this) {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(System.nanoTime());
+            }
+            CompletableFuture<Long> permit = new CompletableFuture<>();
+            waiters.add(permit);
+            return permit;
+        }
+    }
+
+    /**
+     * Releases a permit and adapts the limit to the outcome of the request.
+     *
+     * @param startNanos the start time returned when the permit was acquired.
+     * @param error      the error of the request, or {@code null} if it succeeded.
+     */
+    void release(long startNanos, Throwable error) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            long latency = now - startNanos;
+            if (isOverload(error) || (error == null && isSlow(latency))) {
+                if (startNanos - lastDecreaseNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (error == null) {
+                if (inFlight >= limit / 2) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+        }
+        returnPermit();
+    }
+
+    /**
+     * Returns a permit without adapting the limit, and hands the freed permits to waiting requests.
+     */
+    private void returnPermit() {
+        List<CompletableFuture<Long>> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            while (!waiters.isEmpty() && inFlight < (int) limit) {
+                CompletableFuture<Long> waiter = waiters.poll();
+                if (!waiter.isDone()) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+        }
+        for (CompletableFuture<Long> waiter : granted) {
+            if (!waiter.complete(System.nanoTime())) {
+                returnPermit();
+            }
+        }
+    }
+
+    private static boolean isOverload(Throwable error) {
+        if (!(error instanceof HttpResponseException)) {
+            return false;
+        }
+        int statusCode = ((HttpResponseException) error).getStatusCode();
+        return statusCode == 429 || statusCode == 503 || statusCode < 0;
+    }
+
+    private boolean isSlow(long latencyNanos) {
+        nextMinLatencyNanos = Math.min(nextMinLatencyNanos, latencyNanos);
+        if (++samples % LATENCY_WINDOW == 0) {
+            minLatencyNanos = nextMinLatencyNanos;
+            nextMinLatencyNanos = Long.MAX_VALUE;
+        } else {
+            minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+        }
+        return latencyNanos > minLatencyNanos * latencyTolerance;
+    }
+
+    /**
+     * Builder class for constructing {@link ConcurrencyLimiter} instances.
+     */
+    public static class Builder {
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private double latencyTolerance = 4.0;
+
+        /**
+         * Sets the limit used before any request has completed. Defaults to 20.
+         *
+         * @param initialLimit the initial limit.
+         * @return the builder instance.
+         */
+        public Builder setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the lowest value the limit can fall to. Defaults to 1.
+         *
+         * @param minLimit the minimum limit.
+         * @return the builder instance.
+         */
+        public Builder setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Sets the highest value the limit can grow to. Defaults to 200, the size of the default connection pool.
+         *
+         * @param maxLimit the maximum limit.
+         * @return the builder instance.
+         */
+        public Builder setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets the factor applied to the limit when the service shows signs of overload. Defaults to 0.9.
+         *
+         * @param backoffRatio a value between 0 and 1, exclusive.
+         * @return the builder instance.
+         */
+        public Builder setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Sets how many times slower than the fastest recent response a response must be to count as a sign of
+         * overload. Defaults to 4.
+         *
+         * @param latencyTolerance a value greater than 1.
+         * @return the builder instance.
+         */
+        public Builder setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link ConcurrencyLimiter} instance.
+         *
+         * @return a new {@link ConcurrencyLimiter}.
+         */
+        public ConcurrencyLimiter build() {
+            return new ConcurrencyLimiter(this);
+        }
+    }
+}
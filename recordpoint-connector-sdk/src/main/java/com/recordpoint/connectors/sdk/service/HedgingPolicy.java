@@ -0,0 +1,356 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.http.HttpRequest;
+import com.recordpoint.connectors.sdk.http.HttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Policy for hedging the GET requests of a service client: when a request has not completed after the delay within
+ * which most requests complete, a second copy of it is sent, the first successful response is used and the other
+ * exchange is cancelled. Occasional slow responses then cost little more than the usual latency, instead of dominating
+ * the tail of the latency of lookups.
+ * <p>
+ * The hedging delay is the {@link Builder#setPercentile(double) configured percentile}, by default the 95th, of the
+ * latencies of the last {@link Builder#setWindowSize(int) responses} received through the policy, and no request is
+ * hedged until {@link Builder#setMinimumSamples(int) enough responses} have been observed. Only GET requests are
+ * hedged, since they can be sent twice without side effects.
+ * </p>
+ * <p>
+ * To cap the extra load on the service, a hedging budget limits the hedged requests to a fraction of the requests
+ * sent through the policy: each request adds {@link Builder#setMaxHedgeRatio(double) the hedge ratio} to the budget
+ * and each hedged request takes one from it, and at most 10 hedged requests can be banked. The latencies are tracked
+ * per policy, so a policy should only be shared by clients whose requests have similar latencies.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *     .setServiceSettings(settings)
+ *     .setTokenManager(tokenManager)
+ *     .setHedgingPolicy(HedgingPolicy.Builder().setMaxHedgeRatio(0.05).build())
+ *     .build();
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class HedgingPolicy {
+    private static final long BUDGET_SCALE = 1000;
+    private static final int MAX_BANKED_HEDGES = 10;
+
+    private static volatile ExecutorService executor;
+
+    private final double percentile;
+    private final int minimumSamples;
+    private final long minimumDelayNanos;
+    private final long budgetDeposit;
+    private final AtomicLong budget = new AtomicLong();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final long[] latencies;
+    private int samples;
+    private int next;
+    private int samplesSinceSort;
+    private long delayNanos = -1;
+
+    /**
+     * Constructs a {@link HedgingPolicy} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public HedgingPolicy(Builder builder) {
+        Preconditions.checkArgument(builder.percentile > 0 && builder.percentile < 1,
+                "Percentile must be between 0 and 1");
+        Preconditions.checkArgument(builder.windowSize > 0, "Window size must be greater than zero");
+        Preconditions.checkArgument(builder.minimumSamples > 0 && builder.minimumSamples <= builder.windowSize,
+                "Minimum samples must be between 1 and the window size");
+        Preconditions.checkNotNull(builder.minimumDelay, "Minimum delay cannot be null");
+        Preconditions.checkArgument(!builder.minimumDelay.isNegative(), "Minimum delay cannot be negative");
+        Preconditions.checkArgument(builder.maxHedgeRatio >= 0 && builder.maxHedgeRatio <= 1,
+                "Maximum hedge ratio must be between 0 and 1");
+        this.percentile = builder.percentile;
+        this.minimumSamples = builder.minimumSamples;
+        this.minimumDelayNanos = builder.minimumDelay.toNanos();
+        this.budgetDeposit = (long) (builder.maxHedgeRatio * BUDGET_SCALE);
+        this.latencies = new long[builder.windowSize];
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the number of hedged requests sent through this policy.
+     *
+     * @return the number of hedged requests.
+     */
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    /**
+     * Gets the number of hedged requests whose response was used because it arrived before the original one.
+     *
+     * @return the number of hedged requests that completed first.
+     */
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    /**
+     * Sends a request, and a copy of it if it is still in flight after the hedging delay.
+     *
+     * @param request the request.
+     * @param copier  creates the copy of the request to send as the hedged request.
+     * @param primary sends the request; it may block until the request completes.
+     * @param hedge   sends the hedged request; it runs on a thread of the policy and may block.
+     * @return a future that completes with the first successful response, or with the failure of the request if
+     * both the request and its hedged copy failed.
+     */
+    CompletableFuture<HttpResponse> execute(HttpRequest request, Supplier<HttpRequest> copier,
+                                            Function<HttpRequest, CompletableFuture<HttpResponse>> primary,
+                                            Function<HttpRequest, CompletableFuture<HttpResponse>> hedge) {
+        budget.getAndUpdate(current -> Math.min(MAX_BANKED_HEDGES * BUDGET_SCALE, current + budgetDeposit));
+        long delay = getDelayNanos();
+        if (delay < 0) {
+            return send(request, primary);
+        }
+        Race race = new Race(request, copier, hedge);
+        RetryPolicy.delay(TimeUnit.NANOSECONDS.toMillis(delay - 1) + 1).thenRunAsync(race::hedge, executor());
+        race.complete(send(request, primary), false);
+        return race.result;
+    }
+
+    private CompletableFuture<HttpResponse> send(HttpRequest request,
+                                                 Function<HttpRequest, CompletableFuture<HttpResponse>> sender) {
+        long start = System.nanoTime();
+        return sender.apply(request).whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private synchronized void record(long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+        samplesSinceSort++;
+    }
+
+    private synchronized long getDelayNanos() {
+        int count = samples;
+        if (count < minimumSamples) {
+            return -1;
+        }
+        // sorting the window on every request is wasteful, the percentile only drifts slowly
+        if (delayNanos < 0 || samplesSinceSort >= Math.max(1, latencies.length / 10)) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            delayNanos = Math.max(minimumDelayNanos, sorted[(int) Math.ceil(percentile * count) - 1]);
+            samplesSinceSort = 0;
+        }
+        return delayNanos;
+    }
+
+    private boolean withdrawBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < BUDGET_SCALE) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - BUDGET_SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    private static ExecutorService executor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (HedgingPolicy.class) {
+                current = executor;
+                if (current == null) {
+                    current = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                            .setNameFormat("recordpoint-hedge-%d").setDaemon(true).build());
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * A request and its hedged copy, racing for the first successful response.
+     */
+    private final class Race {
+        private final CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        private final HttpRequest request;
+        private final Supplier<HttpRequest> copier;
+        private final Function<HttpRequest, CompletableFuture<HttpResponse>> sender;
+        private HttpRequest copy;
+        private boolean requestDone;
+        private boolean copyDone;
+        private Throwable requestError;
+        private boolean decided;
+
+        Race(HttpRequest request, Supplier<HttpRequest> copier,
+             Function<HttpRequest, CompletableFuture<HttpResponse>> sender) {
+            this.request = request;
+            this.copier = copier;
+            this.sender = sender;
+        }
+
+        void hedge() {
+            HttpRequest hedged;
+            synchronized (this) {
+                if (requestDone || decided || !withdrawBudget()) {
+                    return;
+                }
+                copy = copier.get();
+                hedged = copy;
+            }
+            hedgesSent.incrementAndGet();
+            complete(send(hedged, sender), true);
+        }
+
+        void complete(CompletableFuture<HttpResponse> future, boolean hedged) {
+            future.whenComplete((response, throwable) -> {
+                boolean won = false;
+                Throwable failure = null;
+                synchronized (this) {
+                    if (hedged) {
+                        copyDone = true;
+                    } else {
+                        requestDone = true;
+                        requestError = throwable;
+                    }
+                    if (throwable == null) {
+                        won = !decided;
+                        decided = true;
+                    } else if (!decided && (copy == null || (requestDone && copyDone))) {
+                        // only fail once neither exchange can still succeed
+                        decided = true;
+                        failure = requestError != null ? requestError : throwable;
+                    }
+                }
+                if (failure != null) {
+                    result.completeExceptionally(failure);
+                } else if (won) {
+                    HttpRequest loser = hedged ? request : copy;
+                    if (hedged) {
+                        hedgesWon.incrementAndGet();
+                    }
+                    if (loser != null) {
+                        loser.cancel();
+                    }
+                    result.complete(response);
+                } else if (throwable == null) {
+                    discard(response);
+                }
+            });
+        }
+
+        private void discard(HttpResponse response) {
+            try {
+                response.ignore();
+            } catch (IOException ignored) {
+                // the response is not used
+            }
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link HedgingPolicy} instances.
+     */
+    public static class Builder {
+        private double percentile = 0.95;
+        private int windowSize = 100;
+        private int minimumSamples = 20;
+        private Duration minimumDelay = Duration.ofMillis(10);
+        private double maxHedgeRatio = 0.1;
+
+        /**
+         * Sets the percentile of the observed latencies after which a request is hedged. Defaults to 0.95, the 95th
+         * percentile.
+         *
+         * @param percentile the percentile, between 0 and 1.
+         * @return the builder instance.
+         */
+        public Builder setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the number of recent responses whose latencies determine the hedging delay. Defaults to 100.
+         *
+         * @param windowSize the number of responses.
+         * @return the builder instance.
+         */
+        public Builder setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of responses that must be observed before any request is hedged. Defaults to 20.
+         *
+         * @param minimumSamples the number of responses.
+         * @return the builder instance.
+         */
+        public Builder setMinimumSamples(int minimumSamples) {
+            this.minimumSamples = minimumSamples;
+            return this;
+        }
+
+        /**
+         * Sets the shortest hedging delay, so that requests to a service that responds fast are not hedged on noise.
+         * Defaults to 10 milliseconds.
+         *
+         * @param minimumDelay the shortest hedging delay.
+         * @return the builder instance.
+         */
+        public Builder setMinimumDelay(Duration minimumDelay) {
+            this.minimumDelay = minimumDelay;
+            return this;
+        }
+
+        /**
+         * Sets the number of hedged requests that each request adds to the hedging budget. Defaults to 0.1, which
+         * allows at most one hedged request for every ten requests.
+         *
+         * @param maxHedgeRatio the hedge ratio, between 0 and 1.
+         * @return the builder instance.
+         */
+        public Builder setMaxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link HedgingPolicy} instance.
+         *
+         * @return a new {@link HedgingPolicy}.
+         */
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.google.common.base.Preconditions;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side limit on the rate of requests sent to the service, per service path and per tenant.
+ * <p>
+ * Each limit is a token bucket that refills at the configured number of permits per second and holds up to
+ * {@link Builder#setBurst(Duration) a burst} worth of permits. A request takes one permit from the bucket of the
+ * longest {@link Builder#setRate(String, double) configured path} that prefixes its URL path, such as
+ * {@code /connector/api/Items}, and one from the {@link Builder#setTenantRate(double) bucket of its tenant}. When a
+ * bucket is empty the request waits for its permit instead of being sent and throttled by the service: synchronous
+ * calls block, asynchronous calls are sent once the permit is available, without holding a thread while waiting.
+ * Requests to paths without a configured rate are only limited by the tenant rate.
+ * </p>
+ * <p>
+ * Buckets are kept per tenant, as found in the {@link ServiceSettings} of each client, so a limiter can be shared by
+ * the service clients of several tenants and by the clients of the same tenant, which then share its quota.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * RateLimiter rateLimiter = RateLimiter.Builder()
+ *     .setRate("/connector/api/Items", 50)
+ *     .setRate("/connector/api/Binaries/GetSASToken", 10)
+ *     .setTenantRate(100)
+ *     .build();
+ * ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *     .setServiceSettings(settings)
+ *     .setTokenManager(tokenManager)
+ *     .setRateLimiter(rateLimiter)
+ *     .build();
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class RateLimiter {
+    private final Map<String, Double> pathRates;
+    private final double tenantRate;
+    private final long burstNanos;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a {@link RateLimiter} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public RateLimiter(Builder builder) {
+        Preconditions.checkArgument(builder.tenantRate >= 0, "Tenant rate cannot be negative");
+        Preconditions.checkArgument(!builder.burst.isNegative() && !builder.burst.isZero(),
+                "Burst must be greater than zero");
+        this.pathRates = new LinkedHashMap<>(builder.pathRates);
+        this.tenantRate = builder.tenantRate;
+        this.burstNanos = builder.burst.toNanos();
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Waits until a request to the given URL may be sent on behalf of the given tenant.
+     *
+     * @param tenantId the tenant of the request, or {@code null} if unknown.
+     * @param url      the URL of the request.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    void acquire(String tenantId, String url) throws InterruptedException {
+        long waitNanos = reserve(tenantId, url);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves a permit for a request to the given URL on behalf of the given tenant, without blocking.
+     *
+     * @param tenantId the tenant of the request, or {@code null} if unknown.
+     * @param url      the URL of the request.
+     * @return a future that completes once the request may be sent.
+     */
+    CompletableFuture<Void> acquireAsync(String tenantId, String url) {
+        long waitNanos = reserve(tenantId, url);
+        return RetryPolicy.delay(waitNanos <= 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos - 1) + 1);
+    }
+
+    /**
+     * Takes a permit from every bucket that applies to the request, borrowing from the future if a bucket is empty.
+     *
+     * @param tenantId the tenant of the request, or {@code null} if unknown.
+     * @param url      the URL of the request.
+     * @return the time to wait before sending the request, in nanoseconds.
+     */
+    long reserve(String tenantId, String url) {
+        String tenant = tenantId == null ? "" : tenantId;
+        long now = System.nanoTime();
+        long waitNanos = 0;
+        String path = matchPath(url);
+        if (path != null) {
+            waitNanos = getBucket(tenant + "\n" + path, pathRates.get(path), now).reserve(now);
+        }
+        if (tenantRate > 0) {
+            waitNanos = Math.max(waitNanos, getBucket(tenant, tenantRate, now).reserve(now));
+        }
+        return waitNanos;
+    }
+
+    private Bucket getBucket(String key, double rate, long now) {
+        return buckets.computeIfAbsent(key, ignored -> new Bucket(rate, burstNanos, now));
+    }
+
+    private String matchPath(String url) {
+        if (pathRates.isEmpty() || url == null) {
+            return null;
+        }
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            path = url;
+        }
+        if (path == null) {
+            return null;
+        }
+        path = path.toLowerCase(Locale.ROOT);
+        String match = null;
+        for (String candidate : pathRates.keySet()) {
+            if (path.startsWith(candidate) && (match == null || candidate.length() > match.length())) {
+                match = candidate;
+            }
+        }
+        return match;
+    }
+
+    /**
+     * Token bucket implemented as a generic cell rate algorithm: instead of counting tokens, it tracks the time at
+     * which the bucket would be full again if no further request arrived.
+     */
+    private static final class Bucket {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private long fullNanos;
+
+        Bucket(double rate, long burstNanos, long now) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+            this.toleranceNanos = Math.max(0, Math.max(burstNanos, intervalNanos) - intervalNanos);
+            this.fullNanos = now;
+        }
+
+        synchronized long reserve(long now) {
+            long start = fullNanos - now > 0 ? fullNanos : now;
+            fullNanos = start + intervalNanos;
+            return Math.max(0, start - toleranceNanos - now);
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link RateLimiter} instances.
+     */
+    public static class Builder {
+        private final Map<String, Double> pathRates = new LinkedHashMap<>();
+        private double tenantRate;
+        private Duration burst = Duration.ofSeconds(1);
+
+        /**
+         * Sets the rate of requests whose URL path starts with the given service path, such as
+         * {@code /connector/api/Items}. Paths are compared case-insensitively and the longest matching path applies.
+         *
+         * @param servicePath      the service path.
+         * @param permitsPerSecond the maximum number of requests per second to the path for each tenant.
+         * @return the builder instance.
+         */
+        public Builder setRate(String servicePath, double permitsPerSecond) {
+            Preconditions.checkNotNull(servicePath, "Service path cannot be null");
+            Preconditions.checkArgument(permitsPerSecond > 0, "Rate must be greater than zero");
+            pathRates.put(servicePath.toLowerCase(Locale.ROOT), permitsPerSecond);
+            return this;
+        }
+
+        /**
+         * Sets the rate of all the requests sent on behalf of a tenant. Defaults to 0, which leaves the requests of a
+         * tenant unlimited beyond the rates of their paths.
+         *
+         * @param permitsPerSecond the maximum number of requests per second for each tenant, or 0 for no limit.
+         * @return the builder instance.
+         */
+        public Builder setTenantRate(double permitsPerSecond) {
+            this.tenantRate = permitsPerSecond;
+            return this;
+        }
+
+        /**
+         * Sets how long an idle bucket keeps accumulating permits, which is how many requests can be sent at once
+         * after a quiet period. Defaults to one second, a burst of one second's worth of requests.
+         *
+         * @param burst the burst duration.
+         * @return the builder instance.
+         */
+        public Builder setBurst(Duration burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link RateLimiter} instance.
+         *
+         * @return a new {@link RateLimiter}.
+         */
+        public RateLimiter build() {
+            return new RateLimiter(this);
+        }
+    }
+}
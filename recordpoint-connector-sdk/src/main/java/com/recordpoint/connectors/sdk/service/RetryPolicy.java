@@ -0,0 +1,331 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.http.HttpMethods;
+import com.recordpoint.connectors.sdk.http.exception.HttpForbiddenException;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Policy for retrying service requests that fail with a transient error.
+ * <p>
+ * A request is retried when it fails with one of the {@link Builder#setRetryableStatusCodes(Integer...) retryable
+ * status codes} (by default 408, 429, 500, 502, 503 and 504) or cannot reach the service at all. A {@code 429 Too Many
+ * Requests} response means that the request was rejected before being processed, so it is retried whatever its
+ * method; every other failure is only retried for {@link Builder#setIdempotentMethods(String...) idempotent methods},
+ * since the service may already have processed the request.
+ * </p>
+ * <p>
+ * The delay between attempts follows exponential backoff with decorrelated jitter: each delay is a random value
+ * between the base delay and three times the previous delay, capped at the maximum delay. When the service sends a
+ * {@code Retry-After} header, the request is not retried before that delay has elapsed, and it is not retried at all
+ * if the requested delay is longer than {@link Builder#setMaxRetryAfter(Duration) the maximum accepted}.
+ * </p>
+ * <p>
+ * To keep retries from amplifying an outage, a retry budget limits them to a fraction of the requests sent through
+ * the policy: each request adds {@link Builder#setBudgetRatio(double) the budget ratio} to the budget and each retry
+ * takes one from it, and at most 100 retries can be banked. Once the budget is exhausted, failures are returned to the
+ * caller until new requests refill it. A policy can be shared by several service clients to give them a common budget.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *     .setServiceSettings(settings)
+ *     .setTokenManager(tokenManager)
+ *     .setRetryPolicy(RetryPolicy.Builder().setMaxAttempts(5).build())
+ *     .build();
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class RetryPolicy {
+    private static final RetryPolicy NONE = Builder().setMaxAttempts(1).build();
+    private static final long BUDGET_SCALE = 1000;
+    private static final int MAX_BANKED_RETRIES = 100;
+
+    private static volatile ScheduledExecutorService scheduler;
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRetryAfterMillis;
+    private final Set<String> idempotentMethods;
+    private final Set<Integer> retryableStatusCodes;
+    private final long budgetDeposit;
+    private final long budgetCapacity;
+    private final AtomicLong budget;
+
+    /**
+     * Constructs a {@link RetryPolicy} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public RetryPolicy(Builder builder) {
+        Preconditions.checkArgument(builder.maxAttempts > 0, "Max attempts must be greater than zero");
+        Preconditions.checkArgument(!builder.baseDelay.isNegative() && !builder.maxDelay.isNegative()
+                && builder.baseDelay.compareTo(builder.maxDelay) <= 0, "Base delay must be between 0 and max delay");
+        Preconditions.checkArgument(!builder.maxRetryAfter.isNegative(), "Max retry after cannot be negative");
+        Preconditions.checkArgument(builder.budgetRatio >= 0, "Budget ratio cannot be negative");
+        Preconditions.checkArgument(builder.minBudget >= 0, "Minimum budget cannot be negative");
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelayMillis = builder.baseDelay.toMillis();
+        this.maxDelayMillis = builder.maxDelay.toMillis();
+        this.maxRetryAfterMillis = builder.maxRetryAfter.toMillis();
+        this.idempotentMethods = builder.idempotentMethods;
+        this.retryableStatusCodes = builder.retryableStatusCodes;
+        this.budgetDeposit = (long) (builder.budgetRatio * BUDGET_SCALE);
+        this.budgetCapacity = Math.max(builder.minBudget, MAX_BANKED_RETRIES) * BUDGET_SCALE;
+        this.budget = new AtomicLong(builder.minBudget * BUDGET_SCALE);
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a policy that never retries. This is the default policy of service clients.
+     *
+     * @return a policy that never retries.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Gets the maximum number of attempts of a request, including the first one.
+     *
+     * @return the maximum number of attempts.
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Records that a new request is being sent, adding to the retry budget.
+     */
+    void onRequest() {
+        if (maxAttempts > 1) {
+            budget.getAndUpdate(current -> Math.min(budgetCapacity, current + budgetDeposit));
+        }
+    }
+
+    /**
+     * Decides whether a failed attempt is retried and how long to wait before the next one. A positive answer takes
+     * one retry from the budget.
+     *
+     * @param method              the HTTP method of the request.
+     * @param error               the error of the failed attempt.
+     * @param attempt             the number of the failed attempt, starting at 1.
+     * @param previousDelayMillis the delay before the failed attempt, or 0 for the first attempt.
+     * @return the delay before the next attempt in milliseconds, or {@code -1} if the request must not be retried.
+     */
+    long getRetryDelayMillis(String method, Throwable error, int attempt, long previousDelayMillis) {
+        if (attempt >= maxAttempts || !(error instanceof HttpResponseException)
+                || error instanceof HttpForbiddenException) {
+            return -1;
+        }
+        HttpResponseException exception = (HttpResponseException) error;
+        int statusCode = exception.getStatusCode();
+        boolean rejected = statusCode == 429;
+        boolean transientError = statusCode < 0 || retryableStatusCodes.contains(statusCode);
+        if (!transientError || !(rejected || idempotentMethods.contains(method.toUpperCase(Locale.ROOT)))) {
+            return -1;
+        }
+        long retryAfter = exception.getRetryAfter() == null ? 0 : exception.getRetryAfter().toMillis();
+        if (retryAfter > maxRetryAfterMillis) {
+            return -1;
+        }
+        if (!withdrawBudget()) {
+            return -1;
+        }
+        long upper = Math.max(baseDelayMillis, Math.min(maxDelayMillis, previousDelayMillis * 3));
+        long delay = upper > baseDelayMillis
+                ? ThreadLocalRandom.current().nextLong(baseDelayMillis, upper + 1) : baseDelayMillis;
+        return Math.max(delay, retryAfter);
+    }
+
+    private boolean withdrawBudget() {
+        while (true) {
+            long current = budget.get();
+            if (current < BUDGET_SCALE) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - BUDGET_SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a future that completes after the given delay, without blocking a thread while waiting.
+     *
+     * @param delayMillis the delay in milliseconds.
+     * @return a future that completes after the delay.
+     */
+    static CompletableFuture<Void> delay(long delayMillis) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (delayMillis <= 0) {
+            future.complete(null);
+        } else {
+            getScheduler().schedule(() -> future.complete(null), delayMillis, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private static ScheduledExecutorService getScheduler() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null) {
+            synchronized (RetryPolicy.class) {
+                current = scheduler;
+                if (current == null) {
+                    current = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                            .setNameFormat("recordpoint-retry-%d")
+                            .setDaemon(true)
+                            .build());
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Builder class for constructing {@link RetryPolicy} instances.
+     */
+    public static class Builder {
+        private int maxAttempts = 4;
+        private Duration baseDelay = Duration.ofMillis(200);
+        private Duration maxDelay = Duration.ofSeconds(20);
+        private Duration maxRetryAfter = Duration.ofSeconds(60);
+        private Set<String> idempotentMethods = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+                HttpMethods.GET, HttpMethods.HEAD, HttpMethods.OPTIONS, HttpMethods.PUT, HttpMethods.DELETE)));
+        private Set<Integer> retryableStatusCodes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+                408, 429, 500, 502, 503, 504)));
+        private double budgetRatio = 0.2;
+        private int minBudget = 10;
+
+        /**
+         * Sets the maximum number of attempts of a request, including the first one. Defaults to 4.
+         *
+         * @param maxAttempts the maximum number of attempts.
+         * @return the builder instance.
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the minimum delay between attempts. Defaults to 200 milliseconds.
+         *
+         * @param baseDelay the base delay.
+         * @return the builder instance.
+         */
+        public Builder setBaseDelay(Duration baseDelay) {
+            this.baseDelay = Preconditions.checkNotNull(baseDelay);
+            return this;
+        }
+
+        /**
+         * Sets the maximum delay between attempts computed by the backoff. Defaults to 20 seconds.
+         *
+         * @param maxDelay the maximum delay.
+         * @return the builder instance.
+         */
+        public Builder setMaxDelay(Duration maxDelay) {
+            this.maxDelay = Preconditions.checkNotNull(maxDelay);
+            return this;
+        }
+
+        /**
+         * Sets the longest {@code Retry-After} delay that is waited for; a request asked to wait longer fails
+         * immediately. Defaults to 60 seconds.
+         *
+         * @param maxRetryAfter the maximum accepted delay.
+         * @return the builder instance.
+         */
+        public Builder setMaxRetryAfter(Duration maxRetryAfter) {
+            this.maxRetryAfter = Preconditions.checkNotNull(maxRetryAfter);
+            return this;
+        }
+
+        /**
+         * Sets the methods that are safe to send again after a server error or a connection failure. Defaults to
+         * GET, HEAD, OPTIONS, PUT and DELETE. Submissions to the connector API are keyed by external ID, so
+         * connectors that resubmit idempotently can add POST.
+         *
+         * @param methods the idempotent methods.
+         * @return the builder instance.
+         */
+        public Builder setIdempotentMethods(String... methods) {
+            Set<String> normalized = new HashSet<>();
+            for (String method : methods) {
+                normalized.add(method.toUpperCase(Locale.ROOT));
+            }
+            this.idempotentMethods = Collections.unmodifiableSet(normalized);
+            return this;
+        }
+
+        /**
+         * Sets the status codes that are retried. Defaults to 408, 429, 500, 502, 503 and 504.
+         *
+         * @param statusCodes the retryable status codes.
+         * @return the builder instance.
+         */
+        public Builder setRetryableStatusCodes(Integer... statusCodes) {
+            this.retryableStatusCodes = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(statusCodes)));
+            return this;
+        }
+
+        /**
+         * Sets the number of retries that each request adds to the retry budget. Defaults to 0.2, which allows at
+         * most one retry for every five requests once the initial budget has been used.
+         *
+         * @param budgetRatio the budget ratio.
+         * @return the builder instance.
+         */
+        public Builder setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+            return this;
+        }
+
+        /**
+         * Sets the number of retries available before any request has added to the budget. Defaults to 10.
+         *
+         * @param minBudget the initial budget.
+         * @return the builder instance.
+         */
+        public Builder setMinBudget(int minBudget) {
+            this.minBudget = minBudget;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link RetryPolicy} instance.
+         *
+         * @return a new {@link RetryPolicy}.
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
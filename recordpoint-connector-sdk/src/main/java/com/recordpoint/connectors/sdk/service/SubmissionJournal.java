@@ -0,0 +1,532 @@
+package com.recordpoint.connectors.sdk.service;
+
+import com.google.common.base.Preconditions;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * A write-ahead journal of the submissions sent by a service client, so that submissions in flight when the process
+ * ends are not lost.
+ * <p>
+ * The JSON body of every submission is appended to the journal and forced to disk before the request is sent, and
+ * the entry is completed once the service has accepted or rejected it; a submission that fails because of the
+ * network, a server error or throttling stays in the journal. When the journal is opened again, the entries that were
+ * never completed are {@link com.recordpoint.connectors.sdk.service.item.ItemServiceClient#replayJournal() replayed}:
+ * their bodies are sent again exactly as they were recorded, so every submission is delivered at least once.
+ * </p>
+ * <p>
+ * Entries are appended to segment files of {@link Builder#setSegmentSize(long) bounded size}, and a segment is
+ * deleted once all its entries, and those of the segments before it, have been completed. Writers share the cost of
+ * forcing the journal to disk: while one writer forces the journal, the others append their entries and wait, and the
+ * next force covers all of them at once. A {@link Builder#setCommitDelay(Duration) commit delay} makes each force
+ * wait a little for more entries, trading latency for fewer forces. Completions are not forced, since a completion
+ * lost in a crash only causes a submission to be sent again.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (SubmissionJournal journal = SubmissionJournal.Builder()
+ *         .setDirectory(Paths.get("state/journal"))
+ *         .build()) {
+ *     ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *         .setSubmissionJournal(journal)
+ *         .setServiceSettings(settings)
+ *         .setTokenManager(tokenManager)
+ *         .build();
+ *     itemServiceClient.replayJournal();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class SubmissionJournal implements Closeable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final byte SUBMITTED = 1;
+    private static final byte COMPLETED = 2;
+    /**
+     * Length and checksum of the body of a record.
+     */
+    private static final int RECORD_HEADER_BYTES = 8;
+    /**
+     * Type and id of an entry.
+     */
+    private static final int BODY_HEADER_BYTES = 9;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long commitDelayNanos;
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<Long, Segment> pending = new HashMap<>();
+    private final Map<Long, Entry> recovered = new LinkedHashMap<>();
+    private Segment current;
+    private long nextId;
+    private long written;
+    private boolean closed;
+    private long durable;
+    private boolean syncing;
+    private long syncCount;
+
+    /**
+     * Constructs a {@link SubmissionJournal} instance using the provided builder, recovering the entries of its
+     * directory that were not completed.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     * @throws IOException if the journal cannot be read or written.
+     */
+    public SubmissionJournal(Builder builder) throws IOException {
+        Preconditions.checkNotNull(builder.directory, "Directory cannot be null");
+        Preconditions.checkArgument(builder.segmentSize > 0, "Segment size must be greater than zero");
+        Preconditions.checkNotNull(builder.commitDelay, "Commit delay cannot be null");
+        Preconditions.checkArgument(!builder.commitDelay.isNegative(), "Commit delay cannot be negative");
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.commitDelayNanos = builder.commitDelay.toNanos();
+        Files.createDirectories(directory);
+        recover();
+        // new entries always go to a new segment, after any torn record at the end of the last one
+        long index = segments.isEmpty() ? 0 : segments.getLast().index + 1;
+        current = Segment.create(directory, index);
+        segments.add(current);
+        deleteCompletedSegments();
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the number of entries that have not been completed, including the recovered entries that have not been
+     * replayed.
+     *
+     * @return the number of pending entries.
+     */
+    public long getPendingCount() {
+        synchronized (writeLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Gets the number of times the journal has been forced to disk, each covering the entries appended since the
+     * previous force.
+     *
+     * @return the number of forces.
+     */
+    public long getSyncCount() {
+        synchronized (syncLock) {
+            return syncCount;
+        }
+    }
+
+    /**
+     * Appends a submission to the journal and waits until it is on disk.
+     *
+     * @param servicePath the path of the service the submission is sent to.
+     * @param json        the JSON body of the submission.
+     * @return the id of the entry, to {@link #complete(long) complete} once the call has returned.
+     * @throws IOException if the entry cannot be written.
+     */
+    long append(String servicePath, ByteBuffer json) throws IOException {
+        byte[] path = servicePath.getBytes(StandardCharsets.UTF_8);
+        Preconditions.checkArgument(path.length <= Short.MAX_VALUE, "Service path is too long");
+        ByteBuffer body = ByteBuffer.allocate(BODY_HEADER_BYTES + 2 + path.length + json.remaining());
+        body.put(SUBMITTED).putLong(0).putShort((short) path.length).put(path).put(json.duplicate());
+        long id;
+        long end;
+        synchronized (writeLock) {
+            checkOpen();
+            id = nextId++;
+            body.putLong(1, id);
+            end = write(body);
+            current.pending++;
+            pending.put(id, current);
+        }
+        awaitDurable(end);
+        return id;
+    }
+
+    /**
+     * Completes an entry whose call has returned, so it is not replayed.
+     *
+     * @param id the id of the entry.
+     * @throws IOException if the completion cannot be written.
+     */
+    void complete(long id) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(BODY_HEADER_BYTES);
+        body.put(COMPLETED).putLong(id);
+        synchronized (writeLock) {
+            if (closed) {
+                // the entry is replayed when the journal is opened again
+                return;
+            }
+            Segment segment = pending.remove(id);
+            if (segment == null) {
+                return;
+            }
+            recovered.remove(id);
+            write(body);
+            segment.pending--;
+            deleteCompletedSegments();
+        }
+    }
+
+    /**
+     * Gets the recovered entries of a service that have not been completed, in the order they were appended.
+     *
+     * @param servicePath the path of the service.
+     * @return the entries to replay.
+     */
+    List<Entry> getRecovered(String servicePath) {
+        List<Entry> entries = new ArrayList<>();
+        synchronized (writeLock) {
+            for (Entry entry : recovered.values()) {
+                if (entry.servicePath.equals(servicePath)) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Writes a record to the current segment, rolling over to a new segment first if it is full.
+     *
+     * @return the position of the end of the record in the journal.
+     */
+    private long write(ByteBuffer body) throws IOException {
+        // through Buffer, so that classes compiled by newer JDKs still run on Java 8
+        ((Buffer) body).flip();
+        CRC32 checksum = new CRC32();
+        checksum.update(body.array(), 0, body.limit());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + body.limit());
+        record.putInt(body.limit()).putInt((int) checksum.getValue()).put(body);
+        ((Buffer) record).flip();
+        if (current.size > 0 && current.size + record.limit() > segmentSize) {
+            roll();
+        }
+        while (record.hasRemaining()) {
+            current.size += current.channel.write(record);
+        }
+        written += record.limit();
+        return written;
+    }
+
+    private void roll() throws IOException {
+        // forcing the sealed segment here lets the writers waiting for it be covered by the next force
+        current.channel.force(false);
+        current.sealed = true;
+        current = Segment.create(directory, current.index + 1);
+        segments.add(current);
+    }
+
+    private void deleteCompletedSegments() throws IOException {
+        while (segments.size() > 1 && segments.getFirst().pending == 0) {
+            Segment segment = segments.removeFirst();
+            segment.channel.close();
+            Files.deleteIfExists(segment.file);
+        }
+    }
+
+    /**
+     * Waits until the journal is on disk up to the given position, forcing it if no other writer is doing so.
+     */
+    private void awaitDurable(long end) throws IOException {
+        while (true) {
+            synchronized (syncLock) {
+                while (durable < end && syncing) {
+                    try {
+                        syncLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while waiting for the journal");
+                    }
+                }
+                if (durable >= end) {
+                    return;
+                }
+                syncing = true;
+            }
+            long target = -1;
+            try {
+                if (commitDelayNanos > 0) {
+                    LockSupport.parkNanos(commitDelayNanos);
+                }
+                Segment segment;
+                synchronized (writeLock) {
+                    checkOpen();
+                    target = written;
+                    segment = current;
+                }
+                try {
+                    segment.channel.force(false);
+                } catch (ClosedChannelException e) {
+                    // a sealed segment was forced when it was rolled over
+                    if (!segment.sealed) {
+                        throw e;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                target = -1;
+                throw e;
+            } finally {
+                synchronized (syncLock) {
+                    syncing = false;
+                    if (target >= 0) {
+                        durable = Math.max(durable, target);
+                        syncCount++;
+                    }
+                    syncLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The journal has been closed");
+        }
+    }
+
+    /**
+     * Reads the segments of the directory, keeping the entries that were not completed. Reading a segment stops at
+     * the first record that is incomplete or fails its checksum, such as a record torn by a crash.
+     */
+    private void recover() throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    found.add(new Segment(file, Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length()))));
+                } catch (NumberFormatException e) {
+                    // not a segment of the journal
+                }
+            }
+        }
+        found.sort((left, right) -> Long.compare(left.index, right.index));
+        for (Segment segment : found) {
+            try (InputStream in = Files.newInputStream(segment.file)) {
+                readSegment(segment, new DataInputStream(new BufferedInputStream(in)), Files.size(segment.file));
+            }
+            segment.channel = FileChannel.open(segment.file, StandardOpenOption.READ);
+            segment.sealed = true;
+            segments.add(segment);
+        }
+    }
+
+    private void readSegment(Segment segment, DataInputStream in, long remaining) throws IOException {
+        CRC32 checksum = new CRC32();
+        while (true) {
+            byte[] body;
+            try {
+                int length = in.readInt();
+                int expected = in.readInt();
+                remaining -= RECORD_HEADER_BYTES;
+                if (length < BODY_HEADER_BYTES || length > remaining) {
+                    return;
+                }
+                remaining -= length;
+                body = new byte[length];
+                in.readFully(body);
+                checksum.reset();
+                checksum.update(body, 0, body.length);
+                if ((int) checksum.getValue() != expected) {
+                    return;
+                }
+            } catch (EOFException e) {
+                return;
+            }
+            ByteBuffer record = ByteBuffer.wrap(body);
+            byte type = record.get();
+            long id = record.getLong();
+            nextId = Math.max(nextId, id + 1);
+            if (type == SUBMITTED) {
+                byte[] path = new byte[record.getShort()];
+                record.get(path);
+                byte[] json = new byte[record.remaining()];
+                record.get(json);
+                recovered.put(id, new Entry(id, new String(path, StandardCharsets.UTF_8), json));
+                pending.put(id, segment);
+                segment.pending++;
+            } else if (type == COMPLETED) {
+                Segment submitted = pending.remove(id);
+                if (submitted != null) {
+                    recovered.remove(id);
+                    submitted.pending--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forces the journal to disk and closes it. Entries that have not been completed are replayed when the journal is
+     * opened again.
+     *
+     * @throws IOException if the journal cannot be forced to disk.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            IOException failure = null;
+            for (Segment segment : segments) {
+                try {
+                    if (segment == current) {
+                        segment.channel.force(false);
+                    }
+                    segment.channel.close();
+                } catch (IOException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * A submission recovered from the journal.
+     */
+    static final class Entry {
+        private final long id;
+        private final String servicePath;
+        private final byte[] json;
+
+        private Entry(long id, String servicePath, byte[] json) {
+            this.id = id;
+            this.servicePath = servicePath;
+            this.json = json;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getServicePath() {
+            return servicePath;
+        }
+
+        byte[] getJson() {
+            return json;
+        }
+    }
+
+    /**
+     * A segment file and the number of its entries that have not been completed.
+     */
+    private static final class Segment {
+        private final Path file;
+        private final long index;
+        private FileChannel channel;
+        private long size;
+        private int pending;
+        private volatile boolean sealed;
+
+        private Segment(Path file, long index) {
+            this.file = file;
+            this.index = index;
+        }
+
+        static Segment create(Path directory, long index) throws IOException {
+            Segment segment = new Segment(directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index,
+                    SEGMENT_SUFFIX)), index);
+            segment.channel = FileChannel.open(segment.file, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+            return segment;
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link SubmissionJournal} instances.
+     */
+    public static class Builder {
+        private Path directory;
+        private long segmentSize = 64L * 1024 * 1024;
+        private Duration commitDelay = Duration.ZERO;
+
+        /**
+         * Sets the directory of the segment files. It is created if it does not exist, and it must not be shared
+         * with another journal.
+         *
+         * @param directory the path of the directory.
+         * @return the builder instance.
+         */
+        public Builder setDirectory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Sets the size after which entries are appended to a new segment file. Defaults to 64 MB.
+         *
+         * @param segmentSize the size of a segment in bytes.
+         * @return the builder instance.
+         */
+        public Builder setSegmentSize(long segmentSize) {
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets how long each force of the journal to disk waits for more entries to cover. Defaults to zero, which
+         * only batches the entries appended while the previous force was running.
+         *
+         * @param commitDelay the commit delay.
+         * @return the builder instance.
+         */
+        public Builder setCommitDelay(Duration commitDelay) {
+            this.commitDelay = commitDelay;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link SubmissionJournal} instance.
+         *
+         * @return a new {@link SubmissionJournal}.
+         * @throws IOException if the journal cannot be read or written.
+         */
+        public SubmissionJournal build() throws IOException {
+            return new SubmissionJournal(this);
+        }
+    }
+}
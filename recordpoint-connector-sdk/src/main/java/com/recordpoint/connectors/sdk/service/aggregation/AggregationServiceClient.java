@@ -5,9 +5,11 @@ import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
 import com.recordpoint.connectors.sdk.json.JsonMapperException;
 import com.recordpoint.connectors.sdk.service.AbstractServiceClient;
 import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.SubmissionJournal;
 import com.recordpoint.connectors.sdk.service.aggregation.model.Aggregation;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class AggregationServiceClient extends AbstractServiceClient {
 
@@ -25,18 +27,45 @@ public final class AggregationServiceClient extends AbstractServiceClient {
         return getRequestList(resourceUrl, Aggregation.class);
     }
 
+    public CompletableFuture<List<Aggregation>> getAggregationListAsync(GetAggregationRequest request) {
+        String resourceUrl = String.format("%s%s/%s/%s", getRootUrl(), request.getServicePath(),
+                request.getFieldName(), request.getFieldValue());
+        return getRequestListAsync(resourceUrl, Aggregation.class);
+    }
+
     public boolean submitAggregation(SubmitAggregationRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
-        postRequest(resourceUrl, request.getSubmission());
+        postSubmission(resourceUrl, request.getSubmission());
         return true;
     }
 
+    public CompletableFuture<Boolean> submitAggregationAsync(SubmitAggregationRequest request) {
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        return postSubmissionAsync(resourceUrl, request.getSubmission()).thenApply(ignored -> true);
+    }
+
+    /**
+     * Submits again the aggregations recorded in the {@link SubmissionJournal} of the client whose submission never
+     * completed. Call it on startup, before submitting new aggregations.
+     *
+     * @return the number of aggregations submitted again.
+     */
+    public int replayJournal() throws HttpExecutionException, HttpResponseException {
+        return replayJournal(SubmitAggregationRequest.SERVICE_PATH);
+    }
+
     public List<Aggregation> getAggregationMultiTenanted(GetAggregationMultitenantRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s%s/%s/%s?connectorId=%s", getRootUrl(), request.getServicePath(),
                 request.getFieldName(), request.getFieldValue(), request.getConnectorId());
         return getRequestList(resourceUrl, Aggregation.class);
     }
 
+    public CompletableFuture<List<Aggregation>> getAggregationMultiTenantedAsync(GetAggregationMultitenantRequest request) {
+        String resourceUrl = String.format("%s%s/%s/%s?connectorId=%s", getRootUrl(), request.getServicePath(),
+                request.getFieldName(), request.getFieldValue(), request.getConnectorId());
+        return getRequestListAsync(resourceUrl, Aggregation.class);
+    }
+
     public static class Builder extends AbstractServiceClient.Builder {
 
         @Override
@@ -49,6 +78,12 @@ public final class AggregationServiceClient extends AbstractServiceClient {
             super.setServiceSettings(serviceSettings);
             return this;
         }
+
+        @Override
+        public AggregationServiceClient.Builder setSubmissionJournal(SubmissionJournal submissionJournal) {
+            super.setSubmissionJournal(submissionJournal);
+            return this;
+        }
     }
 
 }
@@ -8,7 +8,9 @@ import com.recordpoint.connectors.sdk.service.util.MessageFieldProvider;
 
 public final class SubmitAggregationRequest extends AbstractServiceRequest<Aggregation> {
 
-    private final String servicePath = "/connector/api/Aggregations";
+    static final String SERVICE_PATH = "/connector/api/Aggregations";
+
+    private final String servicePath = SERVICE_PATH;
 
     private final AggregationSubmission submission;
 
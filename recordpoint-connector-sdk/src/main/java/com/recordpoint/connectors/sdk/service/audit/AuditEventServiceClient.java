@@ -5,6 +5,8 @@ import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
 import com.recordpoint.connectors.sdk.service.AbstractServiceClient;
 import com.recordpoint.connectors.sdk.service.ServiceSettings;
 
+import java.util.concurrent.CompletableFuture;
+
 public class AuditEventServiceClient extends AbstractServiceClient {
     public AuditEventServiceClient(Builder builder) {
         super(builder);
@@ -20,6 +22,11 @@ public class AuditEventServiceClient extends AbstractServiceClient {
         return true;
     }
 
+    public CompletableFuture<Boolean> submitContentSourceEventAsync(SubmitSourceEventRequest request) {
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        return putRequestAsync(resourceUrl, request.getPayload()).thenApply(ignored -> true);
+    }
+
     public static class Builder extends AbstractServiceClient.Builder {
 
         @Override
@@ -0,0 +1,244 @@
+package com.recordpoint.connectors.sdk.service.binary;
+
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An index of the changes of the binaries uploaded by a connector, mapping each binary, by its
+ * {@code (connectorId, itemExternalId, binaryExternalId)}, to the content it was last uploaded with, so that a binary
+ * submitted again without changes, as full crawls do, is not uploaded again.
+ * <p>
+ * A {@link SubmitFileRequest} that {@link SubmitFileRequest.Builder#setChangeIndex(BinaryChangeIndex) carries an
+ * index} is looked up before its upload. A file is first compared by a cheap key, its length and a hash of a few
+ * samples of its content; only when the key matches the indexed one is the whole file hashed, with the
+ * {@link SubmitFileRequest#getFileHashAlgorithm() hash algorithm of the request}, SHA-256 by default, to confirm that
+ * the content has not changed. A changed file is therefore read once, by its upload, which also computes the hash that
+ * is indexed, and an unchanged file is read once, by the hash that saves its upload. A stream is compared by the
+ * {@link com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission#getFileHash() file hash} of its
+ * submission, if it has one. When the binary already holds the content, the submission is skipped and
+ * {@link BinaryServiceClient#submitFile(SubmitFileRequest)} returns {@code false}. Content is indexed once its upload
+ * has been notified.
+ * </p>
+ * <p>
+ * The index only detects that a binary has not changed; it does not deduplicate content across binaries or records.
+ * The service has no way for a binary to reference the blob of another one, so the same content attached to several
+ * binaries, of the same record or of different ones, is uploaded for each of them.
+ * </p>
+ * <p>
+ * With a {@link Builder#setFile(Path) file}, the index is appended to that file as binaries are uploaded and loaded
+ * from it when it is opened again, so it outlives the process.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (BinaryChangeIndex changeIndex = BinaryChangeIndex.Builder()
+ *         .setFile(Paths.get("state/binaries.index"))
+ *         .build()) {
+ *     boolean uploaded = binaryServiceClient.submitFile(SubmitFileRequest.Builder()
+ *         .setFileSubmissionInfo(binary)
+ *         .setFileContent(path)
+ *         .setChangeIndex(changeIndex)
+ *         .build());
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class BinaryChangeIndex implements Closeable {
+
+    private final Map<String, Content> binaries = new ConcurrentHashMap<>();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private BufferedWriter writer;
+
+    /**
+     * Constructs a {@link BinaryChangeIndex} instance using the provided builder, loading its file if it exists.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     * @throws IOException if the file cannot be read or opened for writing.
+     */
+    public BinaryChangeIndex(Builder builder) throws IOException {
+        if (builder.file == null) {
+            return;
+        }
+        if (Files.exists(builder.file)) {
+            for (String line : Files.readAllLines(builder.file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t", -1);
+                // Ignore partially written lines; the last line of a binary holds its latest content.
+                if (fields.length == 5) {
+                    binaries.put(keyOf(fields[0], fields[1], fields[2]),
+                            new Content(fields[3].isEmpty() ? null : fields[3], fields[4]));
+                }
+            }
+        } else if (builder.file.getParent() != null) {
+            Files.createDirectories(builder.file.getParent());
+        }
+        writer = Files.newBufferedWriter(builder.file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the hash of the content a binary was last uploaded with.
+     *
+     * @param submission the binary.
+     * @return the hash of its content, or {@code null} if the binary has not been uploaded.
+     */
+    public String getContentHash(DirectBinarySubmission submission) {
+        Content content = get(submission);
+        return content != null ? content.hash : null;
+    }
+
+    /**
+     * Gets the number of binaries in the index.
+     *
+     * @return the number of indexed binaries.
+     */
+    public long size() {
+        return binaries.size();
+    }
+
+    /**
+     * Gets the number of submissions skipped because their binary already held their content.
+     *
+     * @return the number of unchanged submissions.
+     */
+    public long getUnchangedCount() {
+        return unchanged.sum();
+    }
+
+    /**
+     * Gets the number of bytes that were not uploaded because their binary already held them. Streams of unknown
+     * length are not counted.
+     *
+     * @return the number of bytes saved.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    void recordUnchanged(long fileLength) {
+        unchanged.increment();
+        bytesSaved.add(Math.max(0, fileLength));
+    }
+
+    Content get(DirectBinarySubmission submission) {
+        return binaries.get(keyOf(submission));
+    }
+
+    void record(DirectBinarySubmission submission, String sampleKey, String contentHash) throws IOException {
+        Content content = new Content(sampleKey, contentHash);
+        if (content.equals(binaries.put(keyOf(submission), content))) {
+            return;
+        }
+        synchronized (this) {
+            if (writer != null) {
+                writer.write(keyOf(submission) + '\t' + (sampleKey != null ? sampleKey : "") + '\t' + contentHash);
+                writer.newLine();
+                writer.flush();
+            }
+        }
+    }
+
+    private static String keyOf(DirectBinarySubmission submission) {
+        return keyOf(submission.getConnectorId(), submission.getItemExternalId(), submission.getBinaryExternalId());
+    }
+
+    private static String keyOf(String connectorId, String itemExternalId, String binaryExternalId) {
+        return connectorId + '\t' + itemExternalId + '\t' + binaryExternalId;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * The content a binary was uploaded with: the sample key of its file, if it was uploaded from a file, and the hash
+     * of its content.
+     */
+    static final class Content {
+        private final String sampleKey;
+        private final String hash;
+
+        private Content(String sampleKey, String hash) {
+            this.sampleKey = sampleKey;
+            this.hash = hash;
+        }
+
+        String getSampleKey() {
+            return sampleKey;
+        }
+
+        String getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Content)) {
+                return false;
+            }
+            Content other = (Content) o;
+            return Objects.equals(sampleKey, other.sampleKey) && Objects.equals(hash, other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sampleKey, hash);
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link BinaryChangeIndex} instances.
+     */
+    public static class Builder {
+        private Path file;
+
+        /**
+         * Sets the file the index is loaded from and appended to. By default, the index is only kept in memory.
+         *
+         * @param file the path of the file.
+         * @return the builder instance.
+         */
+        public Builder setFile(Path file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link BinaryChangeIndex} instance.
+         *
+         * @return a new {@link BinaryChangeIndex}.
+         * @throws IOException if the file cannot be read or opened for writing.
+         */
+        public BinaryChangeIndex build() throws IOException {
+            return new BinaryChangeIndex(this);
+        }
+    }
+}
@@ -1,15 +1,40 @@
 package com.recordpoint.connectors.sdk.service.binary;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import com.recordpoint.connectors.sdk.http.Deadline;
 import com.recordpoint.connectors.sdk.http.FileContent;
 import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
 import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
 import com.recordpoint.connectors.sdk.json.JsonMapperException;
 import com.recordpoint.connectors.sdk.service.AbstractServiceClient;
 import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
 import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmissionOutput;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class BinaryServiceClient extends AbstractServiceClient {
 
+    /**
+     * Size of each of the samples of a file compared with a {@link BinaryChangeIndex} before the file is hashed.
+     */
+    private static final int SAMPLE_BYTES = 64 * 1024;
+
     public BinaryServiceClient(AbstractServiceClient.Builder builder) {
         super(builder);
     }
@@ -24,23 +49,456 @@ public class BinaryServiceClient extends AbstractServiceClient {
         return true;
     }
 
+    public CompletableFuture<Boolean> submitBinaryAsync(SubmitBinaryArchiveRequest request) {
+        String resourceUrl = String.format("%s%s?ConnectorId=%s&ItemExternalId=%s&BinaryExternalId=%s", getRootUrl(), request.getServicePath(), request.getConnectorId(), request.getItemExternalId(), request.getBinaryExternalId());
+        return postRequestAsync(resourceUrl, null).thenApply(ignored -> true);
+    }
+
     public DirectBinarySubmissionOutput getBlobToken(GetBlobTokenResourceRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
-        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
-        return postRequest(resourceUrl, request.getPayload(), DirectBinarySubmissionOutput.class);
+        return getBlobToken(request, null);
+    }
+
+    public CompletableFuture<DirectBinarySubmissionOutput> getBlobTokenAsync(GetBlobTokenResourceRequest request) {
+        return getBlobTokenAsync(request, null);
     }
 
     public boolean notifyBinaryUploaded(NotifiesNewBinaryUploadedRequest request) throws HttpExecutionException, HttpResponseException {
+        return notifyBinaryUploaded(request, null);
+    }
+
+    public CompletableFuture<Boolean> notifyBinaryUploadedAsync(NotifiesNewBinaryUploadedRequest request) {
+        return notifyBinaryUploadedAsync(request, null);
+    }
+
+    private DirectBinarySubmissionOutput getBlobToken(GetBlobTokenResourceRequest request, Deadline deadline) throws JsonMapperException, HttpExecutionException, HttpResponseException {
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        return postRequest(resourceUrl, request.getPayload(), DirectBinarySubmissionOutput.class, deadline);
+    }
+
+    private CompletableFuture<DirectBinarySubmissionOutput> getBlobTokenAsync(GetBlobTokenResourceRequest request, Deadline deadline) {
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        return postRequestAsync(resourceUrl, request.getPayload(), DirectBinarySubmissionOutput.class, deadline);
+    }
+
+    private boolean notifyBinaryUploaded(NotifiesNewBinaryUploadedRequest request, Deadline deadline) throws HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
-        postRequest(resourceUrl, request.getPayload());
+        postRequest(resourceUrl, request.getPayload(), deadline);
         return true;
     }
 
+    private CompletableFuture<Boolean> notifyBinaryUploadedAsync(NotifiesNewBinaryUploadedRequest request, Deadline deadline) {
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        return postRequestAsync(resourceUrl, request.getPayload(), deadline).thenApply(ignored -> true);
+    }
+
     public boolean submitFile(SubmitFileRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
-        DirectBinarySubmissionOutput blobUrl = getBlobToken(GetBlobTokenResourceRequest.Builder()
-                .setPayload(request.getFileSubmission()).build());
-        putExternalRequest(blobUrl.getUrl(), new FileContent(request.getFile()));
-        return notifyBinaryUploaded(NotifiesNewBinaryUploadedRequest.Builder()
-                .setPayload(request.getFileSubmission()).build());
+        return submitFile(request, null);
+    }
+
+    /**
+     * Submits a file, starting its upload with the SAS URL prefetched by the given prefetcher if it is ready.
+     *
+     * @param request    the file to submit.
+     * @param prefetcher the {@link SasTokenPrefetcher} the binary was registered with, or {@code null} for none.
+     * @return {@code true} once the upload has been notified, or {@code false} if the submission was skipped because
+     * the {@link SubmitFileRequest#getChangeIndex() change index} of the request shows that the binary already
+     * holds its content.
+     */
+    public boolean submitFile(SubmitFileRequest request, SasTokenPrefetcher prefetcher) throws JsonMapperException, HttpExecutionException, HttpResponseException {
+        try (FileUpload upload = startFileUpload(request)) {
+            requestBlobUrl(upload, prefetcher);
+            uploadFile(upload);
+            return notifyFileUploaded(upload);
+        }
+    }
+
+    /**
+     * Prepares the submission of a file, which is then carried out by {@link #requestBlobUrl(FileUpload)},
+     * {@link #uploadFile(FileUpload)} and {@link #notifyFileUploaded(FileUpload)}, possibly on different threads.
+     */
+    FileUpload startFileUpload(SubmitFileRequest request) throws HttpExecutionException {
+        Deadline deadline = newDeadline(request);
+        long fileLength = getFileLength(request);
+        String sampleKey = sampleContent(request, fileLength);
+        if (isUnchanged(request, sampleKey, fileLength)) {
+            return new FileUpload(request, deadline, fileLength, null, null, sampleKey, true);
+        }
+        return new FileUpload(request, deadline, fileLength, openJournal(request, fileLength), newDigest(request),
+                sampleKey, false);
+    }
+
+    void requestBlobUrl(FileUpload upload) throws JsonMapperException, HttpExecutionException, HttpResponseException {
+        requestBlobUrl(upload, null);
+    }
+
+    void requestBlobUrl(FileUpload upload, SasTokenPrefetcher prefetcher) throws JsonMapperException, HttpExecutionException, HttpResponseException {
+        if (upload.unchanged) {
+            if (prefetcher != null) {
+                prefetcher.remove(upload.request.getFileSubmission());
+            }
+            return;
+        }
+        String blobUrl = upload.journal != null ? upload.journal.getValidBlobUrl() : null;
+        if (prefetcher != null) {
+            // an upload resumed from its journal must keep its blob
+            if (blobUrl == null) {
+                blobUrl = prefetcher.take(upload.request.getFileSubmission());
+            } else {
+                prefetcher.remove(upload.request.getFileSubmission());
+            }
+        }
+        if (blobUrl == null) {
+            blobUrl = getBlobToken(GetBlobTokenResourceRequest.Builder()
+                    .setPayload(upload.request.getFileSubmission()).build(), upload.deadline).getUrl();
+        }
+        upload.blobUrl = blobUrl;
+    }
+
+    void uploadFile(FileUpload upload) throws HttpResponseException, HttpExecutionException {
+        if (upload.unchanged) {
+            return;
+        }
+        uploadFile(upload.blobUrl, upload.request, upload.fileLength, upload.journal, upload.digest, upload.deadline);
+    }
+
+    boolean notifyFileUploaded(FileUpload upload) throws HttpExecutionException, HttpResponseException {
+        if (upload.unchanged) {
+            return false;
+        }
+        String contentHash = hashOf(upload.digest);
+        boolean notified = notifyBinaryUploaded(NotifiesNewBinaryUploadedRequest.Builder()
+                .setPayload(getUploadedSubmission(upload.request, contentHash)).build(), upload.deadline);
+        try {
+            if (upload.journal != null) {
+                upload.journal.delete();
+            }
+            indexContent(upload.request, upload.sampleKey, contentHash);
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+        return notified;
+    }
+
+    public CompletableFuture<Boolean> submitFileAsync(SubmitFileRequest request) {
+        Deadline deadline = newDeadline(request);
+        long fileLength;
+        String sampleKey;
+        UploadJournal journal;
+        try {
+            fileLength = getFileLength(request);
+            sampleKey = sampleContent(request, fileLength);
+            if (isUnchanged(request, sampleKey, fileLength)) {
+                return CompletableFuture.completedFuture(false);
+            }
+            journal = openJournal(request, fileLength);
+        } catch (HttpExecutionException e) {
+            CompletableFuture<Boolean> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        String journalUrl = journal != null ? journal.getValidBlobUrl() : null;
+        CompletableFuture<String> blobUrl = journalUrl != null
+                ? CompletableFuture.completedFuture(journalUrl)
+                : getBlobTokenAsync(GetBlobTokenResourceRequest.Builder()
+                        .setPayload(request.getFileSubmission()).build(), deadline)
+                        .thenApply(DirectBinarySubmissionOutput::getUrl);
+        MessageDigest digest = newDigest(request);
+        return blobUrl
+                .thenCompose(url -> uploadFileAsync(url, request, fileLength, journal, digest, deadline))
+                .thenCompose(ignored -> {
+                    String contentHash = hashOf(digest);
+                    return notifyBinaryUploadedAsync(NotifiesNewBinaryUploadedRequest.Builder()
+                            .setPayload(getUploadedSubmission(request, contentHash)).build(), deadline)
+                            .thenApply(notified -> {
+                                try {
+                                    if (journal != null) {
+                                        journal.delete();
+                                    }
+                                    indexContent(request, sampleKey, contentHash);
+                                } catch (IOException e) {
+                                    throw new CompletionException(new HttpExecutionException(e));
+                                }
+                                return notified;
+                            });
+                })
+                .whenComplete((ignored, throwable) -> closeQuietly(journal));
+    }
+
+    private void uploadFile(String blobUrl, SubmitFileRequest request, long fileLength, UploadJournal journal,
+                            MessageDigest digest, Deadline deadline) throws HttpResponseException, HttpExecutionException {
+        try {
+            if (!isBlockUpload(request, fileLength)) {
+                FileContent content = openFileContent(request, fileLength, digest);
+                try {
+                    putExternalRequest(blobUrl, content, deadline);
+                } finally {
+                    closeContent(content);
+                }
+                return;
+            }
+            if (journal != null) {
+                journal.start(blobUrl, request.getBlockUploadSettings().getBlockSize());
+            }
+            try (InputStream in = openFileContent(request, fileLength, digest).getInputStream()) {
+                new BlockBlobUploader(getRequestFactory(), request.getBlockUploadSettings(), deadline)
+                        .upload(blobUrl, in, request.getFileSubmission().getMimeType(), journal);
+            }
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+    }
+
+    private CompletableFuture<Void> uploadFileAsync(String blobUrl, SubmitFileRequest request, long fileLength,
+                                                    UploadJournal journal, MessageDigest digest, Deadline deadline) {
+        try {
+            if (!isBlockUpload(request, fileLength)) {
+                FileContent content = openFileContent(request, fileLength, digest);
+                return putExternalRequestAsync(blobUrl, content, deadline)
+                        .whenComplete((ignored, throwable) -> closeContent(content));
+            }
+            if (journal != null) {
+                journal.start(blobUrl, request.getBlockUploadSettings().getBlockSize());
+            }
+            InputStream in = openFileContent(request, fileLength, digest).getInputStream();
+            return new BlockBlobUploader(getRequestFactory(), request.getBlockUploadSettings(), deadline)
+                    .uploadAsync(blobUrl, in, request.getFileSubmission().getMimeType(), journal)
+                    .whenComplete((ignored, throwable) -> closeQuietly(in));
+        } catch (IOException e) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new HttpExecutionException(e));
+            return failed;
+        }
+    }
+
+    private static UploadJournal openJournal(SubmitFileRequest request, long fileLength) throws HttpExecutionException {
+        if (!isBlockUpload(request, fileLength) || request.getBlockUploadSettings().getJournalDirectory() == null) {
+            return null;
+        }
+        try {
+            return UploadJournal.open(request.getBlockUploadSettings().getJournalDirectory(),
+                    request.getFileSubmission(), describeSource(request, fileLength));
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+    }
+
+    /**
+     * Identifies the version of the content of a request: the length and last modified time of its file, or for a
+     * stream, the file hash of the submission if it is known and otherwise its length and source last modified date.
+     */
+    private static String describeSource(SubmitFileRequest request, long fileLength) throws IOException {
+        if (request.getFilePath() != null) {
+            return fileLength + " " + Files.getLastModifiedTime(request.getFilePath()).toMillis();
+        }
+        DirectBinarySubmission submission = request.getFileSubmission();
+        return submission.getFileHash() != null
+                ? submission.getFileHash()
+                : fileLength + " " + submission.getSourceLastModifiedDate();
+    }
+
+    /**
+     * Returns the key a file is first compared by with the change index of its request: its length and a hash of
+     * samples taken at its start, middle and end, which only reads a few blocks of a large file.
+     */
+    private static String sampleContent(SubmitFileRequest request, long fileLength) throws HttpExecutionException {
+        if (request.getChangeIndex() == null || request.getFilePath() == null) {
+            return null;
+        }
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        ByteBuffer sample = ByteBuffer.allocate(SAMPLE_BYTES);
+        try (FileChannel channel = FileChannel.open(request.getFilePath(), StandardOpenOption.READ)) {
+            for (long position : new long[]{0, (fileLength - SAMPLE_BYTES) / 2, fileLength - SAMPLE_BYTES}) {
+                long start = Math.max(0, position);
+                // through Buffer, so that classes compiled by newer JDKs still run on Java 8
+                ((Buffer) sample).clear();
+                while (sample.hasRemaining() && channel.read(sample, start + sample.position()) > 0) {
+                    // keep reading until the sample is full or the file ends
+                }
+                hasher.putBytes(sample.array(), 0, sample.position());
+            }
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+        return fileLength + ":" + hasher.hash();
+    }
+
+    /**
+     * Checks whether the binary of a request already holds its content. A file whose sample key matches the indexed
+     * one is hashed in full to confirm it, so files that changed are not read twice; a stream is compared by the file
+     * hash of its submission, since it cannot be read twice.
+     */
+    private static boolean isUnchanged(SubmitFileRequest request, String sampleKey, long fileLength)
+            throws HttpExecutionException {
+        BinaryChangeIndex changeIndex = request.getChangeIndex();
+        BinaryChangeIndex.Content indexed = changeIndex != null ? changeIndex.get(request.getFileSubmission()) : null;
+        if (indexed == null) {
+            return false;
+        }
+        boolean unchanged = request.getFilePath() == null
+                ? indexed.getHash().equals(request.getFileSubmission().getFileHash())
+                : sampleKey.equals(indexed.getSampleKey()) && indexed.getHash().equals(hashFile(request));
+        if (!unchanged) {
+            return false;
+        }
+        changeIndex.recordUnchanged(fileLength);
+        return true;
+    }
+
+    private static String hashFile(SubmitFileRequest request) throws HttpExecutionException {
+        MessageDigest digest = newDigest(request);
+        try (InputStream in = new DigestInputStream(Files.newInputStream(request.getFilePath()), digest)) {
+            ByteStreams.exhaust(in);
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+        return hashOf(digest);
+    }
+
+    /**
+     * Indexes the content a binary has been uploaded with: the hash computed by its upload, or the file hash of the
+     * submission of a stream if it has one, as streams are compared by it.
+     */
+    private static void indexContent(SubmitFileRequest request, String sampleKey, String contentHash)
+            throws IOException {
+        if (request.getChangeIndex() == null) {
+            return;
+        }
+        String fileHash = request.getFileSubmission().getFileHash();
+        String hash = request.getFilePath() == null && fileHash != null ? fileHash : contentHash;
+        if (hash != null) {
+            request.getChangeIndex().record(request.getFileSubmission(), sampleKey, hash);
+        }
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Deadline newDeadline(SubmitFileRequest request) {
+        return request.getTimeout() == null ? null : Deadline.after(request.getTimeout());
+    }
+
+    private static boolean isBlockUpload(SubmitFileRequest request, long fileLength) {
+        if (request.getBlockUploadSettings() == null) {
+            return false;
+        }
+        return fileLength < 0 || fileLength > request.getBlockUploadSettings().getBlockSize();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // The upload has already completed.
+        }
+    }
+
+    /**
+     * Closes the stream of a content once it has been uploaded. The stream of a content read from a path is opened and
+     * closed by the transport.
+     */
+    private static void closeContent(FileContent content) {
+        if (content.getPath() == null) {
+            closeQuietly((Closeable) content.getContent());
+        }
+    }
+
+    private static long getFileLength(SubmitFileRequest request) throws HttpExecutionException {
+        if (request.getFilePath() != null) {
+            try {
+                return Files.size(request.getFilePath());
+            } catch (IOException e) {
+                throw new HttpExecutionException(e);
+            }
+        }
+        long fileSize = request.getFileSubmission().getFileSize();
+        return fileSize > 0 ? fileSize : -1;
+    }
+
+    /**
+     * Returns the content to upload. When the file is hashed, the content is read through a
+     * {@link DigestInputStream} so the hash is computed by the same single read that uploads the file.
+     */
+    private static FileContent openFileContent(SubmitFileRequest request, long fileLength, MessageDigest digest)
+            throws IOException {
+        if (digest == null) {
+            return request.getFilePath() != null
+                    ? new FileContent(request.getFilePath())
+                    : new FileContent(request.getFile(), fileLength);
+        }
+        InputStream in = request.getFilePath() != null
+                ? Files.newInputStream(request.getFilePath())
+                : request.getFile();
+        return new FileContent(new DigestInputStream(in, digest), fileLength);
+    }
+
+    /**
+     * Returns the digest the content is hashed with as it is uploaded: the hash algorithm of the request, or SHA-256
+     * when only the change index needs the hash.
+     */
+    private static MessageDigest newDigest(SubmitFileRequest request) {
+        if (request.getFileHashAlgorithm() == null) {
+            return request.getChangeIndex() != null ? newSha256Digest() : null;
+        }
+        try {
+            return MessageDigest.getInstance(request.getFileHashAlgorithm());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hashOf(MessageDigest digest) {
+        return digest != null ? BaseEncoding.base16().lowerCase().encode(digest.digest()) : null;
+    }
+
+    private static DirectBinarySubmission getUploadedSubmission(SubmitFileRequest request, String contentHash) {
+        if (request.getFileHashAlgorithm() == null) {
+            return request.getFileSubmission();
+        }
+        return DirectBinarySubmission.Builder(request.getFileSubmission())
+                .fileHash(contentHash)
+                .build();
+    }
+
+    /**
+     * State of a file submission between its steps.
+     */
+    static final class FileUpload implements Closeable {
+        private final SubmitFileRequest request;
+        private final Deadline deadline;
+        private final long fileLength;
+        private final UploadJournal journal;
+        private final MessageDigest digest;
+        private final String sampleKey;
+        private final boolean unchanged;
+        private String blobUrl;
+
+        private FileUpload(SubmitFileRequest request, Deadline deadline, long fileLength, UploadJournal journal,
+                           MessageDigest digest, String sampleKey, boolean unchanged) {
+            this.request = request;
+            this.deadline = deadline;
+            this.fileLength = fileLength;
+            this.journal = journal;
+            this.digest = digest;
+            this.sampleKey = sampleKey;
+            this.unchanged = unchanged;
+        }
+
+        SubmitFileRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public void close() {
+            closeQuietly(journal);
+        }
     }
 
     public static class Builder extends AbstractServiceClient.Builder {
@@ -0,0 +1,377 @@
+package com.recordpoint.connectors.sdk.service.binary;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.http.Deadline;
+import com.recordpoint.connectors.sdk.http.FileContent;
+import com.recordpoint.connectors.sdk.http.HttpRequest;
+import com.recordpoint.connectors.sdk.http.HttpRequestFactory;
+import com.recordpoint.connectors.sdk.http.HttpResponse;
+import com.recordpoint.connectors.sdk.http.exception.DeadlineExceededException;
+import com.recordpoint.connectors.sdk.http.exception.HttpExecutionException;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Uploads content to a block blob SAS URL in blocks. Blocks are read sequentially from the content into a fixed
+ * pool of buffers, uploaded in parallel with {@code Put Block} and committed with {@code Put Block List}, so memory
+ * usage is bounded by the block size times the parallelism regardless of the size of the content.
+ * <p>
+ * Block IDs are derived from the position of the block, so the same content always produces the same IDs. When an
+ * {@link UploadJournal} is given, every staged block is recorded in it, and blocks recorded by a previous attempt
+ * that are still in the blob's uncommitted block list are skipped instead of uploaded again.
+ * </p>
+ */
+final class BlockBlobUploader {
+
+    private static final String BLOCK_ID_FORMAT = "block-%08d";
+    private static final Pattern UNCOMMITTED_BLOCK =
+            Pattern.compile("<Block>\\s*<Name>([^<]+)</Name>\\s*<Size>(\\d+)</Size>\\s*</Block>");
+    /**
+     * Threads shared by the uploads whose settings do not provide an executor, created on demand and released after
+     * a minute of inactivity.
+     */
+    private static final ExecutorService SHARED_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("recordpoint-block-upload-%d")
+            .build());
+
+    private final HttpRequestFactory requestFactory;
+    private final BlockUploadSettings settings;
+    private final Deadline deadline;
+
+    BlockBlobUploader(HttpRequestFactory requestFactory, BlockUploadSettings settings, Deadline deadline) {
+        this.requestFactory = requestFactory;
+        this.settings = settings;
+        this.deadline = deadline;
+    }
+
+    void upload(String blobUrl, InputStream content, String mimeType, UploadJournal journal)
+            throws HttpResponseException, HttpExecutionException {
+        try {
+            uploadAsync(blobUrl, content, mimeType, journal).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpExecutionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpResponseException) {
+                throw (HttpResponseException) e.getCause();
+            }
+            if (e.getCause() instanceof HttpExecutionException) {
+                throw (HttpExecutionException) e.getCause();
+            }
+            throw new HttpExecutionException(e);
+        }
+    }
+
+    /**
+     * Uploads the content on the {@link BlockUploadSettings#getExecutor() executor of the settings}, or on a pool
+     * shared by all uploads: one task reads the blocks and up to {@code parallelism} others upload them.
+     *
+     * @param blobUrl  the SAS URL of the blob.
+     * @param content  the content to upload, read until the end of the stream.
+     * @param mimeType the content type of the blob, or {@code null} to keep the default.
+     * @param journal  the journal of the upload, or {@code null} if the upload is not resumable.
+     * @return a future that completes once the block list has been committed.
+     */
+    CompletableFuture<Void> uploadAsync(String blobUrl, InputStream content, String mimeType, UploadJournal journal) {
+        if (journal != null && journal.isCommitted()) {
+            CompletableFuture<Void> committed = new CompletableFuture<>();
+            try {
+                skip(content, Long.MAX_VALUE);
+                committed.complete(null);
+            } catch (IOException e) {
+                committed.completeExceptionally(new HttpExecutionException("The content could not be read.", e));
+            }
+            return committed;
+        }
+        Executor executor = settings.getExecutor() != null ? settings.getExecutor() : SHARED_EXECUTOR;
+        return CompletableFuture.runAsync(() -> {
+            try {
+                putBlockList(blobUrl, uploadBlocks(blobUrl, content, executor, journal), mimeType);
+                if (journal != null) {
+                    journal.recordCommitted();
+                }
+            } catch (IOException e) {
+                throw new CompletionException(new HttpExecutionException(e));
+            } catch (HttpResponseException | HttpExecutionException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private List<String> uploadBlocks(String blobUrl, InputStream content, Executor executor,
+                                      UploadJournal journal) throws HttpResponseException, HttpExecutionException {
+        Map<String, Long> stagedBlocks = getResumableBlocks(blobUrl, journal);
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(settings.getParallelism());
+        for (int i = 0; i < settings.getParallelism(); i++) {
+            buffers.add(new byte[settings.getBlockSize()]);
+        }
+        List<String> blockIds = new ArrayList<>();
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        try {
+            for (int index = 0; !failure.isDone(); index++) {
+                String blockId = blockId(index);
+                Long stagedSize = stagedBlocks.get(blockId);
+                if (stagedSize != null) {
+                    if (skip(content, stagedSize) != stagedSize) {
+                        throw new EOFException("The content is shorter than the blocks already uploaded.");
+                    }
+                    blockIds.add(blockId);
+                    if (stagedSize < settings.getBlockSize()) {
+                        break;
+                    }
+                    continue;
+                }
+                byte[] buffer = buffers.take();
+                int length = ByteStreams.read(content, buffer, 0, buffer.length);
+                if (length == 0) {
+                    break;
+                }
+                blockIds.add(blockId);
+                uploads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        putBlock(blobUrl, blockId, buffer, length);
+                        if (journal != null) {
+                            journal.recordBlock(blockId);
+                        }
+                    } catch (HttpResponseException | HttpExecutionException e) {
+                        throw new CompletionException(e);
+                    } catch (IOException e) {
+                        throw new CompletionException(new HttpExecutionException(e));
+                    }
+                }, executor).whenComplete((ignored, throwable) -> {
+                    buffers.add(buffer);
+                    if (throwable != null) {
+                        failure.completeExceptionally(throwable);
+                    }
+                }));
+                if (length < buffer.length) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpExecutionException(e);
+        } catch (IOException e) {
+            throw new HttpExecutionException("The content could not be read.", e);
+        }
+        try {
+            CompletableFuture.allOf(uploads.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof HttpResponseException) {
+                throw (HttpResponseException) e.getCause();
+            }
+            if (e.getCause() instanceof HttpExecutionException) {
+                throw (HttpExecutionException) e.getCause();
+            }
+            throw e;
+        }
+        return blockIds;
+    }
+
+    /**
+     * Returns the blocks recorded in the journal that are still staged in the blob, with their sizes. Blocks that
+     * are no longer in the uncommitted block list, for example because they expired, are uploaded again.
+     *
+     * @param blobUrl the SAS URL of the blob.
+     * @param journal the journal of the upload, or {@code null} if the upload is not resumable.
+     * @return the resumable blocks by block ID.
+     */
+    private Map<String, Long> getResumableBlocks(String blobUrl, UploadJournal journal)
+            throws HttpResponseException, HttpExecutionException {
+        Map<String, Long> resumable = new HashMap<>();
+        if (journal == null || journal.getStagedBlocks().isEmpty()) {
+            return resumable;
+        }
+        String blockListUrl = withQuery(blobUrl, "comp=blocklist&blocklisttype=uncommitted");
+        String blockList;
+        try {
+            blockList = withRetries(() -> {
+                HttpRequest request = requestFactory.buildGetRequest(blockListUrl);
+                request.setDeadline(deadline);
+                HttpResponse response = request.execute();
+                try (InputStream in = response.getContent()) {
+                    return in == null ? "" : new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+                } catch (IOException e) {
+                    throw new HttpExecutionException(e);
+                }
+            });
+        } catch (HttpResponseException e) {
+            if (e.getStatusCode() == 404) {
+                return resumable;
+            }
+            throw e;
+        }
+        Matcher block = UNCOMMITTED_BLOCK.matcher(blockList);
+        while (block.find()) {
+            if (journal.getStagedBlocks().contains(block.group(1))) {
+                resumable.put(block.group(1), Long.parseLong(block.group(2)));
+            }
+        }
+        return resumable;
+    }
+
+    /**
+     * Skips content that does not need to be uploaded. Content that is being digested is read rather than skipped,
+     * so the digest still covers the whole content.
+     *
+     * @param content the content.
+     * @param count   the number of bytes to skip.
+     * @return the number of bytes skipped, which is less than {@code count} only at the end of the content.
+     * @throws IOException if an I/O error occurs while skipping the content.
+     */
+    private static long skip(InputStream content, long count) throws IOException {
+        if (content instanceof DigestInputStream) {
+            return ByteStreams.exhaust(ByteStreams.limit(content, count));
+        }
+        long skipped = 0;
+        while (skipped < count) {
+            long step = content.skip(count - skipped);
+            if (step <= 0) {
+                if (content.read() < 0) {
+                    break;
+                }
+                step = 1;
+            }
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    private void putBlock(String blobUrl, String blockId, byte[] buffer, int length)
+            throws HttpResponseException, HttpExecutionException {
+        String blockUrl = withQuery(blobUrl, "comp=block&blockid=" + urlEncode(blockId));
+        withRetries(() -> {
+            execute(blockUrl, new FileContent(new ByteArrayInputStream(buffer, 0, length), length),
+                    "application/octet-stream");
+            return null;
+        });
+    }
+
+    /**
+     * Executes a request of the upload, retrying it with an exponential backoff while it fails with a transient
+     * error, up to the maximum number of attempts of the settings.
+     *
+     * @param call the request.
+     * @param <T>  the type of the result of the request.
+     * @return the result of the request.
+     */
+    private <T> T withRetries(Call<T> call) throws HttpResponseException, HttpExecutionException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.execute();
+            } catch (HttpResponseException e) {
+                if (attempt >= settings.getMaxBlockAttempts() || !isTransient(e.getStatusCode())) {
+                    throw e;
+                }
+            } catch (HttpExecutionException e) {
+                if (attempt >= settings.getMaxBlockAttempts() || e instanceof DeadlineExceededException) {
+                    throw e;
+                }
+            }
+            long delay = settings.getRetryDelayMillis() << (attempt - 1);
+            if (deadline != null && delay >= deadline.getRemaining().toMillis()) {
+                throw new DeadlineExceededException();
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HttpExecutionException(e);
+            }
+        }
+    }
+
+    private void putBlockList(String blobUrl, List<String> blockIds, String mimeType)
+            throws HttpResponseException, HttpExecutionException {
+        StringBuilder blockList = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?><BlockList>");
+        for (String blockId : blockIds) {
+            blockList.append("<Latest>").append(blockId).append("</Latest>");
+        }
+        blockList.append("</BlockList>");
+        byte[] body = blockList.toString().getBytes(StandardCharsets.UTF_8);
+
+        String blockListUrl = withQuery(blobUrl, "comp=blocklist");
+        withRetries(() -> {
+            HttpRequest request = requestFactory.buildPutRequest(blockListUrl,
+                    new FileContent(new ByteArrayInputStream(body), body.length));
+            request.setDeadline(deadline);
+            request.setContentType("application/xml");
+            request.addHeader("Content-Type", "application/xml");
+            if (mimeType != null) {
+                request.addHeader("x-ms-blob-content-type", mimeType);
+            }
+            ignore(request.execute());
+            return null;
+        });
+    }
+
+    private void execute(String url, FileContent content, String contentType)
+            throws HttpResponseException, HttpExecutionException {
+        HttpRequest request = requestFactory.buildPutRequest(url, content);
+        request.setDeadline(deadline);
+        request.setContentType(contentType);
+        ignore(request.execute());
+    }
+
+    private static void ignore(HttpResponse response) throws HttpExecutionException {
+        try {
+            response.ignore();
+        } catch (IOException e) {
+            throw new HttpExecutionException(e);
+        }
+    }
+
+    static String blockId(int index) {
+        return Base64.getEncoder().encodeToString(
+                String.format(BLOCK_ID_FORMAT, index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean isTransient(int statusCode) {
+        return statusCode < 0 || statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+
+    private static String withQuery(String blobUrl, String query) {
+        return blobUrl + (blobUrl.indexOf('?') < 0 ? "?" : "&") + query;
+    }
+
+    /**
+     * A request of the upload that can be retried.
+     */
+    private interface Call<T> {
+        T execute() throws HttpResponseException, HttpExecutionException;
+    }
+
+    private static String urlEncode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
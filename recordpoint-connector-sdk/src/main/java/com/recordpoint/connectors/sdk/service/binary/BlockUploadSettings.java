@@ -0,0 +1,224 @@
+package com.recordpoint.connectors.sdk.service.binary;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+
+/**
+ * Settings for uploading binaries to blob storage in blocks.
+ * <p>
+ * When a {@link SubmitFileRequest} carries these settings, content larger than one block is split into blocks of
+ * {@link #getBlockSize()} bytes that are uploaded in parallel with {@code Put Block} and then committed with
+ * {@code Put Block List}. At most {@link #getParallelism()} blocks are held in memory and uploaded at the same time,
+ * and a block that fails with a transient error is retried on its own up to {@link #getMaxBlockAttempts()} times.
+ * The requests that read and commit the block list are retried the same way.
+ * </p>
+ * <p>
+ * Uploads run on a pool of threads shared by all uploads, unless the settings provide an
+ * {@link #getExecutor() executor}.
+ * </p>
+ * <p>
+ * Setting a {@link #getJournalDirectory() journal directory} makes uploads resumable: the progress of each upload is
+ * recorded in a small file in that directory, and submitting the same binary again after a restart reuses the SAS
+ * URL while it is valid and uploads only the blocks that are missing from the blob.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * BlockUploadSettings blockUpload = BlockUploadSettings.Builder()
+ *     .setBlockSize(16 * 1024 * 1024)
+ *     .setParallelism(8)
+ *     .build();
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class BlockUploadSettings {
+    private static final int DEFAULT_BLOCK_SIZE = 8 * 1024 * 1024;
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int DEFAULT_MAX_BLOCK_ATTEMPTS = 3;
+    private static final long DEFAULT_RETRY_DELAY_MILLIS = 500;
+    private static final int MAX_BLOCK_SIZE = 100 * 1024 * 1024;
+
+    private final int blockSize;
+    private final int parallelism;
+    private final int maxBlockAttempts;
+    private final long retryDelayMillis;
+    private final Path journalDirectory;
+    private final Executor executor;
+
+    /**
+     * Constructs a {@link BlockUploadSettings} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public BlockUploadSettings(Builder builder) {
+        Preconditions.checkArgument(builder.blockSize > 0 && builder.blockSize <= MAX_BLOCK_SIZE,
+                "Block size must be between 1 and %s bytes", MAX_BLOCK_SIZE);
+        Preconditions.checkArgument(builder.parallelism > 0, "Parallelism must be greater than zero");
+        Preconditions.checkArgument(builder.maxBlockAttempts > 0, "Max block attempts must be greater than zero");
+        Preconditions.checkArgument(builder.retryDelayMillis >= 0, "Retry delay cannot be negative");
+        this.blockSize = builder.blockSize;
+        this.parallelism = builder.parallelism;
+        this.maxBlockAttempts = builder.maxBlockAttempts;
+        this.retryDelayMillis = builder.retryDelayMillis;
+        this.journalDirectory = builder.journalDirectory;
+        this.executor = builder.executor;
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the size of each block in bytes.
+     *
+     * @return the block size.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Gets the maximum number of blocks uploaded at the same time.
+     *
+     * @return the parallelism.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the maximum number of attempts of each request of an upload, such as the upload of a single block.
+     *
+     * @return the maximum number of attempts.
+     */
+    public int getMaxBlockAttempts() {
+        return maxBlockAttempts;
+    }
+
+    /**
+     * Gets the delay before the first retry of a block, in milliseconds. The delay doubles on each retry.
+     *
+     * @return the retry delay in milliseconds.
+     */
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    /**
+     * Gets the directory where the journals of resumable uploads are stored.
+     *
+     * @return the journal directory, or {@code null} if uploads are not resumable.
+     */
+    public Path getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    /**
+     * Gets the executor the blocks are read and uploaded on.
+     *
+     * @return the executor, or {@code null} to use the pool shared by all uploads.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Builder class for constructing {@link BlockUploadSettings} instances.
+     */
+    public static class Builder {
+        private int blockSize = DEFAULT_BLOCK_SIZE;
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int maxBlockAttempts = DEFAULT_MAX_BLOCK_ATTEMPTS;
+        private long retryDelayMillis = DEFAULT_RETRY_DELAY_MILLIS;
+        private Path journalDirectory;
+        private Executor executor;
+
+        /**
+         * Sets the size of each block in bytes. Defaults to 8 MiB.
+         *
+         * @param blockSize the block size.
+         * @return the builder instance.
+         */
+        public Builder setBlockSize(int blockSize) {
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of blocks uploaded at the same time. Defaults to 4.
+         *
+         * @param parallelism the parallelism.
+         * @return the builder instance.
+         */
+        public Builder setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of attempts of each request of an upload, such as the upload of a single block.
+         * Defaults to 3.
+         *
+         * @param maxBlockAttempts the maximum number of attempts.
+         * @return the builder instance.
+         */
+        public Builder setMaxBlockAttempts(int maxBlockAttempts) {
+            this.maxBlockAttempts = maxBlockAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the delay before the first retry of a block, in milliseconds. Defaults to 500.
+         *
+         * @param retryDelayMillis the retry delay in milliseconds.
+         * @return the builder instance.
+         */
+        public Builder setRetryDelayMillis(long retryDelayMillis) {
+            this.retryDelayMillis = retryDelayMillis;
+            return this;
+        }
+
+        /**
+         * Sets the directory where the journals of resumable uploads are stored. Uploads are not resumable unless
+         * a directory is set. The journals hold the SAS URLs of the uploads, which grant write access to the blobs
+         * until they expire, so the directory must not be readable by other users.
+         *
+         * @param journalDirectory the journal directory.
+         * @return the builder instance.
+         */
+        public Builder setJournalDirectory(Path journalDirectory) {
+            this.journalDirectory = journalDirectory;
+            return this;
+        }
+
+        /**
+         * Sets the executor the blocks are read and uploaded on. Each upload runs one task that reads its blocks for
+         * as long as the upload lasts, so a bounded executor must have more threads than the number of concurrent
+         * uploads. By default, uploads run on a pool of threads shared by all uploads.
+         *
+         * @param executor the executor.
+         * @return the builder instance.
+         */
+        public Builder setExecutor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds a {@link BlockUploadSettings} instance.
+         *
+         * @return a new {@link BlockUploadSettings} instance.
+         */
+        public BlockUploadSettings build() {
+            return new BlockUploadSettings(this);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.recordpoint.connectors.sdk.service.binary;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.ItemSubmissionPipeline;
+import com.recordpoint.connectors.sdk.service.item.SubmissionStatistics;
+import com.recordpoint.connectors.sdk.service.item.SubmitItemRequest;
+import com.recordpoint.connectors.sdk.service.item.model.ItemAcceptance;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Submits records, an item together with its binaries, overlapping the round trips of many records.
+ * <p>
+ * Submitting a record with a binary takes four round trips: the item submission, the SAS token request, the upload
+ * of the blob and the notification of the upload. The pipeline runs each of them in its own stage, with its own
+ * workers, so while the blob of a record uploads, the SAS tokens of the next records are requested and the
+ * notifications of the previous ones are sent. Within a record, the item submission and the SAS token request are
+ * sent at the same time and the blob is uploaded as soon as its token is available; only the notification waits for
+ * the item to be accepted. With enough records in flight, the pipeline completes records at the pace of its slowest
+ * stage instead of the sum of the stages.
+ * </p>
+ * <p>
+ * {@link #offer(ItemSubmission, SubmitFileRequest...)} blocks while the maximum number of records is in flight, and
+ * the outcome of every record is reported to the {@link ItemSubmissionPipeline.Listener} of the pipeline. A record
+ * fails if its item or any of its binaries fails. Once the item of a record is rejected, the binaries of the record
+ * whose blobs have not started uploading are skipped, and no binary of the record is notified.
+ * {@link #close()} stops accepting records and waits for the records in flight.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (RecordSubmissionPipeline pipeline = RecordSubmissionPipeline.Builder()
+ *         .setItemServiceClient(itemServiceClient)
+ *         .setBinaryServiceClient(binaryServiceClient)
+ *         .setUploadWorkers(16)
+ *         .setListener(listener)
+ *         .build()) {
+ *     for (ItemSubmission item : items) {
+ *         pipeline.offer(item, SubmitFileRequest.Builder()
+ *                 .setFileSubmissionInfo(binaryOf(item))
+ *                 .setFileContent(pathOf(item))
+ *                 .build());
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class RecordSubmissionPipeline implements AutoCloseable {
+    private final ItemServiceClient itemServiceClient;
+    private final BinaryServiceClient binaryServiceClient;
+    private final ItemSubmissionPipeline.Listener listener;
+    private final ExecutorService itemStage;
+    private final ExecutorService tokenStage;
+    private final ExecutorService uploadStage;
+    private final ExecutorService notifyStage;
+    private final Semaphore capacity;
+    private final SubmissionStatistics statistics = new SubmissionStatistics();
+    private volatile boolean closed;
+
+    /**
+     * Constructs a {@link RecordSubmissionPipeline} instance using the provided builder and starts its workers.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public RecordSubmissionPipeline(Builder builder) {
+        Preconditions.checkNotNull(builder.itemServiceClient, "Item service client cannot be null");
+        Preconditions.checkNotNull(builder.binaryServiceClient, "Binary service client cannot be null");
+        Preconditions.checkArgument(builder.workers > 0, "Workers must be greater than zero");
+        Preconditions.checkArgument(builder.uploadWorkers > 0, "Upload workers must be greater than zero");
+        Preconditions.checkArgument(builder.maxRecordsInFlight > 0,
+                "Maximum records in flight must be greater than zero");
+        this.itemServiceClient = builder.itemServiceClient;
+        this.binaryServiceClient = builder.binaryServiceClient;
+        this.listener = builder.listener;
+        this.capacity = new Semaphore(builder.maxRecordsInFlight);
+        this.itemStage = newStage("item", builder.workers);
+        this.tokenStage = newStage("token", builder.workers);
+        this.uploadStage = newStage("upload", builder.uploadWorkers);
+        this.notifyStage = newStage("notify", builder.workers);
+    }
+
+    private static ExecutorService newStage(String name, int workers) {
+        return Executors.newFixedThreadPool(workers, new ThreadFactoryBuilder()
+                .setNameFormat("record-submission-" + name + "-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts the submission of a record, waiting while the maximum number of records is in flight.
+     *
+     * @param item  the item of the record.
+     * @param files the binaries of the item, if any.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     * @throws IllegalStateException if the pipeline has been closed.
+     */
+    public void offer(ItemSubmission item, SubmitFileRequest... files) throws InterruptedException {
+        Preconditions.checkNotNull(item, "Item cannot be null");
+        Preconditions.checkState(!closed, "The pipeline has been closed");
+        capacity.acquire();
+        statistics.started();
+        long start = System.nanoTime();
+        CompletableFuture<ItemAcceptance> accepted = run(() -> itemServiceClient.submitItem(
+                SubmitItemRequest.Builder().setPayload(item).build()), itemStage);
+        CompletableFuture<?>[] stages = new CompletableFuture<?>[files.length + 1];
+        stages[0] = accepted;
+        for (int i = 0; i < files.length; i++) {
+            stages[i + 1] = submitFile(files[i], accepted);
+        }
+        CompletableFuture.allOf(stages).whenComplete((ignored, throwable) -> {
+            statistics.record(start, throwable == null);
+            try {
+                if (throwable == null) {
+                    listener.onSuccess(item, accepted.join());
+                } else if (accepted.isCompletedExceptionally()) {
+                    // the binaries skipped because of the rejection are not the cause of the failure
+                    listener.onFailure(item, unwrap(accepted.handle((acceptance, error) -> error).join()));
+                } else {
+                    listener.onFailure(item, unwrap(throwable));
+                }
+            } finally {
+                complete();
+            }
+        });
+    }
+
+    private CompletableFuture<Void> submitFile(SubmitFileRequest file, CompletableFuture<ItemAcceptance> accepted) {
+        return run(() -> {
+            checkAccepted(accepted);
+            BinaryServiceClient.FileUpload upload = binaryServiceClient.startFileUpload(file);
+            try {
+                binaryServiceClient.requestBlobUrl(upload);
+            } catch (Exception e) {
+                upload.close();
+                throw e;
+            }
+            return upload;
+        }, tokenStage).thenCompose(upload -> run(() -> {
+            checkAccepted(accepted);
+            binaryServiceClient.uploadFile(upload);
+            return upload;
+        }, uploadStage).thenCombine(accepted, (uploaded, acceptance) -> uploaded).thenCompose(uploaded -> run(() -> {
+            binaryServiceClient.notifyFileUploaded(uploaded);
+            return (Void) null;
+        }, notifyStage)).whenComplete((ignored, throwable) -> upload.close()));
+    }
+
+    /**
+     * Fails the stage of a binary whose item has already been rejected, so that no blob is uploaded for it.
+     */
+    private static void checkAccepted(CompletableFuture<ItemAcceptance> accepted) {
+        if (accepted.isCompletedExceptionally()) {
+            throw new CancellationException("The item of the binary was not accepted");
+        }
+    }
+
+    private static <T> CompletableFuture<T> run(Step<T> step, ExecutorService stage) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return step.run();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, stage);
+    }
+
+    private static Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
+    private void complete() {
+        statistics.completed();
+        capacity.release();
+    }
+
+    /**
+     * Waits until every record offered so far has been submitted and reported to the listener.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        statistics.flush();
+    }
+
+    /**
+     * Gets the number of records whose item and binaries were all submitted successfully.
+     *
+     * @return the number of successful records.
+     */
+    public long getSucceededCount() {
+        return statistics.getSucceededCount();
+    }
+
+    /**
+     * Gets the number of records whose item or one of whose binaries failed.
+     *
+     * @return the number of failed records.
+     */
+    public long getFailedCount() {
+        return statistics.getFailedCount();
+    }
+
+    /**
+     * Gets the number of records in flight.
+     *
+     * @return the number of pending records.
+     */
+    public long getPendingCount() {
+        return statistics.getPendingCount();
+    }
+
+    /**
+     * Gets the number of records completed per second, successfully or not, from the first offered record to the
+     * last completed one.
+     *
+     * @return the throughput in records per second, or 0 if no record has completed.
+     */
+    public double getThroughput() {
+        return statistics.getThroughput();
+    }
+
+    /**
+     * Gets the average time taken to submit a record, from its offer to the completion of its last stage.
+     *
+     * @return the average latency, or {@link Duration#ZERO} if no record has completed.
+     */
+    public Duration getAverageLatency() {
+        return statistics.getAverageLatency();
+    }
+
+    /**
+     * Gets the longest time taken to submit a record.
+     *
+     * @return the maximum latency, or {@link Duration#ZERO} if no record has completed.
+     */
+    public Duration getMaxLatency() {
+        return statistics.getMaxLatency();
+    }
+
+    /**
+     * Stops accepting records and waits for the records in flight to complete. If the thread is interrupted while
+     * waiting, the stages that have not started are abandoned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        itemStage.shutdownNow();
+        tokenStage.shutdownNow();
+        uploadStage.shutdownNow();
+        notifyStage.shutdownNow();
+    }
+
+    /**
+     * A stage of the submission of a record.
+     */
+    private interface Step<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Builder class for constructing {@link RecordSubmissionPipeline} instances.
+     */
+    public static class Builder {
+        private ItemServiceClient itemServiceClient;
+        private BinaryServiceClient binaryServiceClient;
+        private int workers = 4;
+        private int uploadWorkers = 8;
+        private int maxRecordsInFlight = 64;
+        private ItemSubmissionPipeline.Listener listener = ItemSubmissionPipeline.Listener.NONE;
+
+        /**
+         * Sets the client used to submit the items.
+         *
+         * @param itemServiceClient the {@link ItemServiceClient} client.
+         * @return the builder instance.
+         */
+        public Builder setItemServiceClient(ItemServiceClient itemServiceClient) {
+            this.itemServiceClient = itemServiceClient;
+            return this;
+        }
+
+        /**
+         * Sets the client used to submit the binaries.
+         *
+         * @param binaryServiceClient the {@link BinaryServiceClient} client.
+         * @return the builder instance.
+         */
+        public Builder setBinaryServiceClient(BinaryServiceClient binaryServiceClient) {
+            this.binaryServiceClient = binaryServiceClient;
+            return this;
+        }
+
+        /**
+         * Sets the number of concurrent requests of each of the item submission, SAS token and notification
+         * stages. Defaults to 4.
+         *
+         * @param workers the number of workers of each stage.
+         * @return the builder instance.
+         */
+        public Builder setWorkers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets the number of blobs uploaded concurrently, usually the slowest stage. Defaults to 8.
+         *
+         * @param uploadWorkers the number of workers of the upload stage.
+         * @return the builder instance.
+         */
+        public Builder setUploadWorkers(int uploadWorkers) {
+            this.uploadWorkers = uploadWorkers;
+            return this;
+        }
+
+        /**
+         * Sets the number of records that can be in flight before
+         * {@link RecordSubmissionPipeline#offer(ItemSubmission, SubmitFileRequest...)} blocks. Defaults to 64.
+         *
+         * @param maxRecordsInFlight the maximum number of records in flight.
+         * @return the builder instance.
+         */
+        public Builder setMaxRecordsInFlight(int maxRecordsInFlight) {
+            this.maxRecordsInFlight = maxRecordsInFlight;
+            return this;
+        }
+
+        /**
+         * Sets the listener that receives the outcome of every record. By default, outcomes are only counted.
+         *
+         * @param listener the {@link ItemSubmissionPipeline.Listener} listener.
+         * @return the builder instance.
+         */
+        public Builder setListener(ItemSubmissionPipeline.Listener listener) {
+            Preconditions.checkNotNull(listener, "Listener cannot be null");
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link RecordSubmissionPipeline} instance.
+         *
+         * @return a new {@link RecordSubmissionPipeline}.
+         */
+        public RecordSubmissionPipeline build() {
+            return new RecordSubmissionPipeline(this);
+        }
+    }
+}
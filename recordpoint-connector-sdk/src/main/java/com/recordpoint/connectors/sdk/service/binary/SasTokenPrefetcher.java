@@ -0,0 +1,359 @@
+package com.recordpoint.connectors.sdk.service.binary;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Requests the SAS URLs of binaries ahead of their upload, so that
+ * {@link BinaryServiceClient#submitFile(SubmitFileRequest, SasTokenPrefetcher)} can start the upload of a queued file
+ * right away instead of waiting for a {@code GetSASToken} round trip.
+ * <p>
+ * Callers {@link #prefetch(DirectBinarySubmission) register} the binaries they are about to submit, in the order they
+ * will submit them. The prefetcher requests their tokens in the background, keeping at most
+ * {@link Builder#setLookAhead(int) the look-ahead} tokens requested but not yet used, so that tokens are not requested
+ * long before they are needed. A binary whose token comes within {@link Builder#setExpiryMargin(Duration) the expiry
+ * margin} of its expiry before it is used is forgotten, giving its place to the next binaries, so a binary that is
+ * registered but never submitted does not hold a place for longer than the lifetime of one token. A binary whose token
+ * is not ready, has expired or could not be requested falls back to requesting its token on submission.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (SasTokenPrefetcher prefetcher = SasTokenPrefetcher.Builder()
+ *         .setBinaryServiceClient(binaryServiceClient)
+ *         .setLookAhead(16)
+ *         .build()) {
+ *     requests.forEach(request -> prefetcher.prefetch(request.getFileSubmission()));
+ *     for (SubmitFileRequest request : requests) {
+ *         binaryServiceClient.submitFile(request, prefetcher);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class SasTokenPrefetcher implements AutoCloseable {
+    private final BinaryServiceClient binaryServiceClient;
+    private final int lookAhead;
+    private final Duration expiryMargin;
+    private final ExecutorService workers;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Deque<Entry> waiting = new ArrayDeque<>();
+    private final Set<Entry> requested = new LinkedHashSet<>();
+    private final Set<CompletableFuture<String>> fetching = new HashSet<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private boolean closed;
+
+    /**
+     * Constructs a {@link SasTokenPrefetcher} instance using the provided builder.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public SasTokenPrefetcher(Builder builder) {
+        Preconditions.checkNotNull(builder.binaryServiceClient, "Binary service client cannot be null");
+        Preconditions.checkArgument(builder.lookAhead > 0, "Look-ahead must be greater than zero");
+        Preconditions.checkArgument(builder.workers > 0, "Workers must be greater than zero");
+        Preconditions.checkNotNull(builder.expiryMargin, "Expiry margin cannot be null");
+        Preconditions.checkArgument(!builder.expiryMargin.isNegative(), "Expiry margin cannot be negative");
+        this.binaryServiceClient = builder.binaryServiceClient;
+        this.lookAhead = builder.lookAhead;
+        this.expiryMargin = builder.expiryMargin;
+        this.workers = Executors.newFixedThreadPool(builder.workers, new ThreadFactoryBuilder()
+                .setNameFormat("sas-token-prefetch-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registers a binary that is about to be submitted, so that its SAS URL is requested ahead of its upload. Does not
+     * block.
+     *
+     * @param submission the binary to submit.
+     * @throws IllegalStateException if the prefetcher has been closed.
+     */
+    public void prefetch(DirectBinarySubmission submission) {
+        Preconditions.checkNotNull(submission, "Submission cannot be null");
+        List<Entry> toRequest;
+        synchronized (this) {
+            Preconditions.checkState(!closed, "The prefetcher has been closed");
+            String key = keyOf(submission);
+            if (!entries.containsKey(key)) {
+                Entry entry = new Entry(submission);
+                entries.put(key, entry);
+                waiting.add(entry);
+            }
+            toRequest = schedule();
+        }
+        request(toRequest);
+    }
+
+    /**
+     * Gets the number of submissions that used a prefetched SAS URL.
+     *
+     * @return the number of prefetched SAS URLs used.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of submissions that had to request their SAS URL because it had not been prefetched, was not
+     * valid any more or could not be requested.
+     *
+     * @return the number of SAS URLs requested on submission.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Takes the prefetched SAS URL of a binary, waiting for it if it is being requested.
+     *
+     * @param submission the binary to submit.
+     * @return the SAS URL, or {@code null} if it has to be requested by the caller.
+     */
+    String take(DirectBinarySubmission submission) {
+        Entry entry = remove(submission);
+        String blobUrl = entry != null && entry.future != null ? entry.future.join() : null;
+        if (blobUrl == null || !isValid(entry)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return blobUrl;
+    }
+
+    /**
+     * Forgets a binary whose SAS URL is not needed any more, for example because its upload resumes with the URL of
+     * its journal.
+     *
+     * @param submission the binary.
+     * @return the removed entry, or {@code null} if the binary was not registered.
+     */
+    Entry remove(DirectBinarySubmission submission) {
+        Entry entry;
+        List<Entry> toRequest;
+        synchronized (this) {
+            entry = entries.remove(keyOf(submission));
+            if (entry != null) {
+                // an entry still waiting is skipped when it reaches the head of the queue
+                entry.removed = true;
+                requested.remove(entry);
+            }
+            toRequest = schedule();
+        }
+        request(toRequest);
+        return entry;
+    }
+
+    /**
+     * Starts requesting the tokens of the registered binaries, in order, up to the look-ahead. Binaries whose tokens
+     * have been waiting so long that they are about to expire are forgotten, rather than requested again, so that
+     * binaries that are never submitted do not keep their place.
+     */
+    private List<Entry> schedule() {
+        List<Entry> toRequest = new ArrayList<>();
+        if (closed) {
+            return toRequest;
+        }
+        for (Iterator<Entry> iterator = requested.iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.future.getNow(null) != null && !isValid(entry)) {
+                iterator.remove();
+                entries.remove(keyOf(entry.submission));
+                entry.removed = true;
+            }
+        }
+        while (requested.size() < lookAhead && !waiting.isEmpty()) {
+            Entry entry = waiting.poll();
+            if (!entry.removed) {
+                entry.future = new CompletableFuture<>();
+                fetching.add(entry.future);
+                requested.add(entry);
+                toRequest.add(entry);
+            }
+        }
+        return toRequest;
+    }
+
+    private void request(List<Entry> toRequest) {
+        for (Entry entry : toRequest) {
+            try {
+                workers.execute(() -> fetch(entry));
+            } catch (RejectedExecutionException e) {
+                CompletableFuture<String> future = entry.future;
+                synchronized (this) {
+                    fetching.remove(future);
+                }
+                future.complete(null);
+            }
+        }
+    }
+
+    private void fetch(Entry entry) {
+        CompletableFuture<String> future = entry.future;
+        try {
+            String blobUrl = binaryServiceClient.getBlobToken(GetBlobTokenResourceRequest.Builder()
+                    .setPayload(entry.submission).build()).getUrl();
+            entry.requestedAt = Instant.now();
+            future.complete(blobUrl);
+        } catch (Exception e) {
+            // the submission requests the token itself
+            future.complete(null);
+        } finally {
+            synchronized (this) {
+                fetching.remove(future);
+            }
+        }
+    }
+
+    /**
+     * Checks that the token of an entry does not expire within the margin. A token whose expiry is unknown is only
+     * trusted for the length of the margin after it was requested.
+     */
+    private boolean isValid(Entry entry) {
+        String blobUrl = entry.future.getNow(null);
+        if (blobUrl == null) {
+            return false;
+        }
+        Instant now = Instant.now();
+        Instant expiry = UploadJournal.getSasExpiry(blobUrl);
+        return expiry != null
+                ? expiry.isAfter(now.plus(expiryMargin))
+                : entry.requestedAt.plus(expiryMargin).isAfter(now);
+    }
+
+    private static String keyOf(DirectBinarySubmission submission) {
+        return submission.getConnectorId() + "\n" + submission.getItemExternalId() + "\n"
+                + submission.getBinaryExternalId();
+    }
+
+    /**
+     * Stops requesting tokens and forgets the registered binaries. Submissions waiting for a token that is being
+     * requested request it themselves.
+     */
+    @Override
+    public void close() {
+        List<CompletableFuture<String>> outstanding;
+        synchronized (this) {
+            closed = true;
+            outstanding = new ArrayList<>(fetching);
+            fetching.clear();
+            entries.clear();
+            waiting.clear();
+            requested.clear();
+        }
+        workers.shutdownNow();
+        // the requests still queued never run, so their waiters are released here
+        for (CompletableFuture<String> future : outstanding) {
+            future.complete(null);
+        }
+    }
+
+    /**
+     * A registered binary and the request of its token.
+     */
+    static final class Entry {
+        private final DirectBinarySubmission submission;
+        private volatile CompletableFuture<String> future;
+        private volatile Instant requestedAt;
+        private boolean removed;
+
+        private Entry(DirectBinarySubmission submission) {
+            this.submission = submission;
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link SasTokenPrefetcher} instances.
+     */
+    public static class Builder {
+        private BinaryServiceClient binaryServiceClient;
+        private int lookAhead = 16;
+        private int workers = 2;
+        private Duration expiryMargin = Duration.ofMinutes(5);
+
+        /**
+         * Sets the client used to request the tokens.
+         *
+         * @param binaryServiceClient the {@link BinaryServiceClient} client.
+         * @return the builder instance.
+         */
+        public Builder setBinaryServiceClient(BinaryServiceClient binaryServiceClient) {
+            this.binaryServiceClient = binaryServiceClient;
+            return this;
+        }
+
+        /**
+         * Sets the number of tokens that can be requested ahead of their use. Defaults to 16.
+         *
+         * @param lookAhead the number of tokens requested ahead.
+         * @return the builder instance.
+         */
+        public Builder setLookAhead(int lookAhead) {
+            this.lookAhead = lookAhead;
+            return this;
+        }
+
+        /**
+         * Sets the number of tokens requested concurrently. Defaults to 2.
+         *
+         * @param workers the number of workers.
+         * @return the builder instance.
+         */
+        public Builder setWorkers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets how long a prefetched token must remain valid to be used, leaving time for the upload. Defaults to 5
+         * minutes.
+         *
+         * @param expiryMargin the expiry margin.
+         * @return the builder instance.
+         */
+        public Builder setExpiryMargin(Duration expiryMargin) {
+            this.expiryMargin = expiryMargin;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link SasTokenPrefetcher} instance.
+         *
+         * @return a new {@link SasTokenPrefetcher}.
+         */
+        public SasTokenPrefetcher build() {
+            return new SasTokenPrefetcher(this);
+        }
+    }
+}
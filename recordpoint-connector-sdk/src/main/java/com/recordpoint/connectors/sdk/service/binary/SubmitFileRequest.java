@@ -7,17 +7,41 @@ import com.recordpoint.connectors.sdk.service.binary.model.EmptyResponse;
 import com.recordpoint.connectors.sdk.service.util.MessageFieldProvider;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class SubmitFileRequest extends AbstractServiceRequest<EmptyResponse> {
 
     private final InputStream file;
+    private final Path filePath;
     private final DirectBinarySubmission fileSubmission;
+    private final BlockUploadSettings blockUploadSettings;
+    private final String fileHashAlgorithm;
+    private final Duration timeout;
+    private final BinaryChangeIndex changeIndex;
 
     public SubmitFileRequest(Builder builder) {
         Preconditions.checkNotNull(builder.fileSubmission, MessageFieldProvider.getMessage("field.payload"));
-        Preconditions.checkNotNull(builder.fileContent, MessageFieldProvider.getMessage("field.fileContent"));
+        Preconditions.checkNotNull(builder.fileContent != null ? builder.fileContent : builder.filePath,
+                MessageFieldProvider.getMessage("field.fileContent"));
         this.fileSubmission = builder.fileSubmission;
         this.file = builder.fileContent;
+        this.filePath = builder.filePath;
+        this.blockUploadSettings = builder.blockUploadSettings;
+        this.fileHashAlgorithm = builder.fileHashAlgorithm;
+        Preconditions.checkArgument(builder.timeout == null || !builder.timeout.isNegative(),
+                "Timeout cannot be negative");
+        this.timeout = builder.timeout;
+        this.changeIndex = builder.changeIndex;
+        if (fileHashAlgorithm != null) {
+            try {
+                MessageDigest.getInstance(fileHashAlgorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+        }
     }
 
     public static Builder Builder() {
@@ -28,17 +52,49 @@ public class SubmitFileRequest extends AbstractServiceRequest<EmptyResponse> {
         return file;
     }
 
+    public Path getFilePath() {
+        return filePath;
+    }
+
     public DirectBinarySubmission getFileSubmission() {
         return fileSubmission;
     }
 
+    public BlockUploadSettings getBlockUploadSettings() {
+        return blockUploadSettings;
+    }
+
+    public String getFileHashAlgorithm() {
+        return fileHashAlgorithm;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public BinaryChangeIndex getChangeIndex() {
+        return changeIndex;
+    }
+
     public static class Builder extends AbstractServiceRequest.Builder {
 
         private InputStream fileContent;
+        private Path filePath;
         private DirectBinarySubmission fileSubmission;
+        private BlockUploadSettings blockUploadSettings;
+        private String fileHashAlgorithm;
+        private Duration timeout;
+        private BinaryChangeIndex changeIndex;
 
         public SubmitFileRequest.Builder setFileContent(InputStream fileContent) {
             this.fileContent = fileContent;
+            this.filePath = null;
+            return this;
+        }
+
+        public SubmitFileRequest.Builder setFileContent(Path filePath) {
+            this.filePath = filePath;
+            this.fileContent = null;
             return this;
         }
 
@@ -47,6 +103,34 @@ public class SubmitFileRequest extends AbstractServiceRequest<EmptyResponse> {
             return this;
         }
 
+        public SubmitFileRequest.Builder setBlockUploadSettings(BlockUploadSettings blockUploadSettings) {
+            this.blockUploadSettings = blockUploadSettings;
+            return this;
+        }
+
+        public SubmitFileRequest.Builder setFileHashAlgorithm(String fileHashAlgorithm) {
+            this.fileHashAlgorithm = fileHashAlgorithm;
+            return this;
+        }
+
+        public SubmitFileRequest.Builder setTimeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the index the binary is compared with before its upload. The submission is skipped if the binary, as
+         * identified by its connector, item and binary external ids, was last uploaded with the same content. Content
+         * shared with other binaries is not deduplicated and is uploaded for each of them.
+         *
+         * @param changeIndex the index, or {@code null} to always upload the binary.
+         * @return the builder instance.
+         */
+        public SubmitFileRequest.Builder setChangeIndex(BinaryChangeIndex changeIndex) {
+            this.changeIndex = changeIndex;
+            return this;
+        }
+
         @Override
         public SubmitFileRequest build() {
             return new SubmitFileRequest(this);
@@ -0,0 +1,244 @@
+package com.recordpoint.connectors.sdk.service.binary;
+
+import com.google.common.hash.Hashing;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A small append-only journal of a block upload, stored in one file per
+ * {@code (connectorId, itemExternalId, binaryExternalId)}. It records the source of the content, the SAS URL of the
+ * blob, the block size, every block that has been staged and whether the block list has been committed, so an upload
+ * interrupted by a restart can reuse the SAS URL while it is valid and upload only the missing blocks. A journal
+ * recorded for another version of the source is discarded and the upload starts from scratch.
+ * <p>
+ * The SAS URL grants write access to the blob until it expires, so the journal is a secret. On file systems that
+ * support POSIX permissions, the journal and the directories created for it are only accessible by their owner.
+ * </p>
+ */
+final class UploadJournal implements Closeable {
+
+    private static final long SAS_EXPIRY_MARGIN_SECONDS = 5 * 60;
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private final Path file;
+    private final String source;
+    private String recordedSource;
+    private String blobUrl;
+    private int blockSize;
+    private final Set<String> stagedBlocks = new LinkedHashSet<>();
+    private boolean committed;
+    private BufferedWriter writer;
+
+    private UploadJournal(Path file, String source) {
+        this.file = file;
+        this.source = source;
+    }
+
+    /**
+     * Opens the journal of a binary. The progress it records is discarded if it was made for another source.
+     *
+     * @param directory  the directory of the journals.
+     * @param submission the binary being uploaded.
+     * @param source     identifies the version of the content being uploaded, such as its length and last modified
+     *                   time.
+     * @return the journal.
+     * @throws IOException if the journal cannot be read.
+     */
+    static UploadJournal open(Path directory, DirectBinarySubmission submission, String source) throws IOException {
+        String key = submission.getConnectorId() + '\n' + submission.getItemExternalId() + '\n'
+                + submission.getBinaryExternalId();
+        UploadJournal journal = new UploadJournal(directory.resolve(
+                Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + ".journal"), source);
+        journal.read();
+        if (!source.equals(journal.recordedSource)) {
+            journal.discard();
+        }
+        return journal;
+    }
+
+    private void discard() {
+        blobUrl = null;
+        blockSize = 0;
+        stagedBlocks.clear();
+        committed = false;
+    }
+
+    private void read() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            int separator = line.indexOf(' ');
+            String entry = separator < 0 ? line : line.substring(0, separator);
+            String value = separator < 0 ? "" : line.substring(separator + 1);
+            switch (entry) {
+                case "source":
+                    recordedSource = value;
+                    break;
+                case "url":
+                    blobUrl = value;
+                    break;
+                case "blockSize":
+                    blockSize = Integer.parseInt(value);
+                    break;
+                case "block":
+                    stagedBlocks.add(value);
+                    break;
+                case "committed":
+                    committed = true;
+                    break;
+                default:
+                    // Ignore partially written lines.
+            }
+        }
+    }
+
+    /**
+     * Returns the SAS URL recorded in the journal if it does not expire within the next few minutes.
+     *
+     * @return the recorded SAS URL, or {@code null} if there is none or it is about to expire.
+     */
+    String getValidBlobUrl() {
+        if (blobUrl == null) {
+            return null;
+        }
+        Instant expiry = getSasExpiry(blobUrl);
+        return expiry != null && expiry.isAfter(Instant.now().plusSeconds(SAS_EXPIRY_MARGIN_SECONDS)) ? blobUrl : null;
+    }
+
+    /**
+     * Starts or resumes the upload to the given blob. The recorded progress is kept only if it was made against the
+     * same blob with the same block size; otherwise the journal is started over.
+     *
+     * @param blobUrl   the SAS URL of the blob.
+     * @param blockSize the block size of the upload.
+     * @throws IOException if the journal cannot be written.
+     */
+    synchronized void start(String blobUrl, int blockSize) throws IOException {
+        boolean sameBlob = this.blobUrl != null && stripQuery(this.blobUrl).equals(stripQuery(blobUrl))
+                && this.blockSize == blockSize;
+        if (!sameBlob) {
+            stagedBlocks.clear();
+            committed = false;
+        }
+        this.blobUrl = blobUrl;
+        this.blockSize = blockSize;
+        boolean posix = file.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            Files.createDirectories(file.getParent(), PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+        } else {
+            Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (posix) {
+            // restricted before the SAS URL is written, including for journals written by earlier versions
+            Files.setPosixFilePermissions(file, OWNER_ONLY_FILE);
+        }
+        append("source " + source);
+        append("url " + blobUrl);
+        append("blockSize " + blockSize);
+        for (String blockId : stagedBlocks) {
+            append("block " + blockId);
+        }
+        if (committed) {
+            append("committed");
+        }
+    }
+
+    Set<String> getStagedBlocks() {
+        return Collections.unmodifiableSet(stagedBlocks);
+    }
+
+    boolean isCommitted() {
+        return committed;
+    }
+
+    synchronized void recordBlock(String blockId) throws IOException {
+        if (stagedBlocks.add(blockId)) {
+            append("block " + blockId);
+        }
+    }
+
+    synchronized void recordCommitted() throws IOException {
+        committed = true;
+        append("committed");
+    }
+
+    /**
+     * Deletes the journal once the upload has been completed and notified.
+     *
+     * @throws IOException if the journal cannot be deleted.
+     */
+    synchronized void delete() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    private void append(String line) throws IOException {
+        writer.write(line);
+        writer.newLine();
+        writer.flush();
+    }
+
+    private static String stripQuery(String url) {
+        int query = url.indexOf('?');
+        return query < 0 ? url : url.substring(0, query);
+    }
+
+    /**
+     * Returns the expiry of a SAS URL from its {@code se} parameter.
+     *
+     * @param sasUrl the SAS URL.
+     * @return the expiry, or {@code null} if it is missing or cannot be parsed.
+     */
+    static Instant getSasExpiry(String sasUrl) {
+        int query = sasUrl.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String parameter : sasUrl.substring(query + 1).split("&")) {
+            if (!parameter.startsWith("se=")) {
+                continue;
+            }
+            try {
+                String value = URLDecoder.decode(parameter.substring(3), StandardCharsets.UTF_8.name());
+                return value.length() == 10
+                        ? LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant()
+                        : Instant.parse(value);
+            } catch (UnsupportedEncodingException | DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -44,6 +44,22 @@ public class DirectBinarySubmission implements ServicePayload {
         return new Builder();
     }
 
+    public static Builder Builder(DirectBinarySubmission submission) {
+        return new Builder()
+                .mimeType(submission.mimeType)
+                .fileSize(submission.fileSize)
+                .fileHash(submission.fileHash)
+                .sourceLastModifiedDate(submission.sourceLastModifiedDate)
+                .connectorId(submission.connectorId)
+                .itemExternalId(submission.itemExternalId)
+                .binaryExternalId(submission.binaryExternalId)
+                .fileName(submission.fileName)
+                .location(submission.location)
+                .correlationId(submission.correlationId)
+                .isOldVersion(submission.isOldVersion)
+                .skipEnrichment(submission.skipEnrichment);
+    }
+
     public String getMimeType() {
         return mimeType;
     }
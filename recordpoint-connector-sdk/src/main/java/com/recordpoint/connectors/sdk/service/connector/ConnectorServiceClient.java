@@ -8,6 +8,7 @@ import com.recordpoint.connectors.sdk.service.ServiceSettings;
 import com.recordpoint.connectors.sdk.service.model.ConnectorConfig;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ConnectorServiceClient extends AbstractServiceClient {
 
@@ -24,16 +25,31 @@ public class ConnectorServiceClient extends AbstractServiceClient {
         return getRequest(resourceUrl, ConnectorConfig.class);
     }
 
+    public CompletableFuture<ConnectorConfig> getMultiTenantedConfigurationAsync(GetMultiTenantedConfigRequest request) {
+        String resourceUrl = String.format("%s%s?connectorId=%s", getRootUrl(), request.getServicePath(), request.getConnectorId());
+        return getRequestAsync(resourceUrl, ConnectorConfig.class);
+    }
+
     public ConnectorConfig getConnectorConfiguration(GetConnectorConfigRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s%s/%s", getRootUrl(), request.getServicePath(), request.getId());
         return getRequest(resourceUrl, ConnectorConfig.class);
     }
 
+    public CompletableFuture<ConnectorConfig> getConnectorConfigurationAsync(GetConnectorConfigRequest request) {
+        String resourceUrl = String.format("%s%s/%s", getRootUrl(), request.getServicePath(), request.getId());
+        return getRequestAsync(resourceUrl, ConnectorConfig.class);
+    }
+
     public List<ConnectorConfig> getConnectorConfigurations() throws JsonMapperException, HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s/connector/api/ConnectorConfigurations", getRootUrl());
         return getRequestList(resourceUrl, ConnectorConfig.class);
     }
 
+    public CompletableFuture<List<ConnectorConfig>> getConnectorConfigurationsAsync() {
+        String resourceUrl = String.format("%s/connector/api/ConnectorConfigurations", getRootUrl());
+        return getRequestListAsync(resourceUrl, ConnectorConfig.class);
+    }
+
     public static class Builder extends AbstractServiceClient.Builder {
 
         @Override
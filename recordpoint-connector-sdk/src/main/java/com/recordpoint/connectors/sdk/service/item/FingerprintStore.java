@@ -0,0 +1,483 @@
+package com.recordpoint.connectors.sdk.service.item;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import com.recordpoint.connectors.sdk.json.JsonMapperException;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A persistent store of the fingerprints of the items submitted to the service, used by an {@link ItemServiceClient}
+ * to skip resubmitting items that have not changed since they were last accepted.
+ * <p>
+ * The fingerprint of an item is a hash of its content version and of its canonical JSON, with properties in a fixed
+ * order, and it is stored under a hash of its connector and external id. The store is a hash table in a memory-mapped
+ * file with 32 bytes per item, so it holds tens of millions of items without taking space on the heap. When the table
+ * is three quarters full, the store grows in place: a new table twice the size of the last one is appended to the
+ * file and receives the new items, so nothing is rehashed, the file is never replaced and the existing mappings stay
+ * valid. A lookup probes the tables from the newest, so a store should be created with room for the expected number
+ * of items. Writes go to the page cache as they are made, so they survive a crash of the process; {@link #flush()}
+ * forces them to disk.
+ * </p>
+ * <p>
+ * A store is opened by one process at a time. Since the mapped memory is only released when the store is garbage
+ * collected, a closed store should not be reopened in the same process right away on platforms that lock mapped
+ * files.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (FingerprintStore fingerprints = FingerprintStore.Builder()
+ *         .setFile(Paths.get("state/items.fingerprints"))
+ *         .build()) {
+ *     ItemServiceClient itemServiceClient = ItemServiceClient.Builder()
+ *         .setFingerprintStore(fingerprints)
+ *         .setServiceSettings(settings)
+ *         .setTokenManager(tokenManager)
+ *         .build();
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class FingerprintStore implements Closeable {
+    private static final long MAGIC = 0x5250465052494e54L;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 32;
+    private static final int REGION_SHIFT = 21;
+    private static final long REGION_SLOTS = 1L << REGION_SHIFT;
+    private static final long MIN_CAPACITY = 1024;
+    // configured like the default instance of JacksonMapper, with properties and map entries in a stable order
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final Path file;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Table> tables = new ArrayList<>();
+    private MappedByteBuffer header;
+    private long initialCapacity;
+    private long size;
+    private long newestSize;
+    private boolean closed;
+
+    /**
+     * Constructs a {@link FingerprintStore} instance using the provided builder, opening its file or creating it if
+     * it does not exist.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     * @throws IOException if the file cannot be opened or is not a fingerprint store.
+     */
+    public FingerprintStore(Builder builder) throws IOException {
+        Preconditions.checkNotNull(builder.file, "File cannot be null");
+        Preconditions.checkArgument(builder.initialCapacity > 0, "Initial capacity must be greater than zero");
+        this.file = builder.file;
+        if (Files.exists(file)) {
+            open();
+        } else {
+            long capacity = MIN_CAPACITY;
+            while (capacity * 3 / 4 < builder.initialCapacity) {
+                capacity <<= 1;
+            }
+            create(capacity);
+        }
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks whether an item has the same fingerprint as when it was last {@link #put(ItemSubmission) recorded}.
+     *
+     * @param submission the item.
+     * @return {@code true} if the item has not changed.
+     * @throws JsonMapperException if the item cannot be serialized.
+     */
+    public boolean matches(ItemSubmission submission) throws JsonMapperException {
+        return matches(fingerprintOf(submission));
+    }
+
+    /**
+     * Records the fingerprint of an item that has been accepted by the service.
+     *
+     * @param submission the item.
+     * @throws JsonMapperException if the item cannot be serialized.
+     * @throws IOException         if the store is full and cannot grow.
+     */
+    public void put(ItemSubmission submission) throws JsonMapperException, IOException {
+        put(fingerprintOf(submission));
+    }
+
+    /**
+     * Gets the number of items in the store.
+     *
+     * @return the number of items.
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Fingerprint fingerprintOf(ItemSubmission submission) throws JsonMapperException {
+        byte[] json;
+        try {
+            json = CANONICAL_MAPPER.writeValueAsBytes(submission);
+        } catch (JsonProcessingException e) {
+            throw new JsonMapperException(e, ItemSubmission.class);
+        }
+        String contentVersion = submission.getContentVersion() == null ? "" : submission.getContentVersion();
+        ByteBuffer key = ByteBuffer.wrap(Hashing.murmur3_128().newHasher()
+                .putString(String.valueOf(submission.getConnectorId()), StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(String.valueOf(submission.getExternalId()), StandardCharsets.UTF_8)
+                .hash().asBytes());
+        ByteBuffer value = ByteBuffer.wrap(Hashing.murmur3_128().newHasher()
+                .putString(contentVersion, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putBytes(json)
+                .hash().asBytes());
+        return new Fingerprint(key.getLong(), key.getLong(), value.getLong(), value.getLong());
+    }
+
+    boolean matches(Fingerprint fingerprint) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            for (int i = tables.size() - 1; i >= 0; i--) {
+                Table table = tables.get(i);
+                long slot = table.find(fingerprint);
+                if (!table.isEmpty(slot)) {
+                    return table.matches(slot, fingerprint);
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(Fingerprint fingerprint) throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            for (int i = tables.size() - 1; i >= 0; i--) {
+                Table table = tables.get(i);
+                long slot = table.find(fingerprint);
+                if (!table.isEmpty(slot)) {
+                    table.write(slot, fingerprint);
+                    return;
+                }
+            }
+            Table newest = tables.get(tables.size() - 1);
+            if ((newestSize + 1) * 4 > newest.capacity * 3) {
+                try {
+                    newest = grow();
+                } catch (IOException e) {
+                    // keep filling the newest table while it has room
+                    if (newestSize + 1 >= newest.capacity) {
+                        throw e;
+                    }
+                }
+            }
+            newest.write(newest.find(fingerprint), fingerprint);
+            setSize(size + 1, newestSize + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Creates the file of the store with a single table.
+     */
+    private void create(long capacity) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            initialCapacity = capacity;
+            tables.add(Table.map(channel, HEADER_BYTES, capacity));
+            header.putLong(0, MAGIC);
+            header.putInt(8, VERSION);
+            header.putLong(16, capacity);
+            header.putInt(32, 1);
+            setSize(0, 0);
+        }
+    }
+
+    /**
+     * Opens the file of the store and maps its tables.
+     */
+    private void open() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException(String.format("%s is not a fingerprint store", file));
+            }
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            initialCapacity = header.getLong(16);
+            int count = header.getInt(32);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION || Long.bitCount(initialCapacity) != 1
+                    || count < 1 || count > Long.numberOfLeadingZeros(initialCapacity) - 6
+                    || channel.size() < offsetOf(count)) {
+                throw new IOException(String.format("%s is not a fingerprint store", file));
+            }
+            for (int i = 0; i < count; i++) {
+                tables.add(Table.map(channel, offsetOf(i), initialCapacity << i));
+            }
+            size = header.getLong(24);
+            newestSize = header.getLong(40);
+        }
+    }
+
+    /**
+     * Appends a table twice the size of the last one to the file and maps it, leaving the existing tables
+     * and their mappings untouched.
+     */
+    private Table grow() throws IOException {
+        int count = tables.size();
+        Table grown;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            grown = Table.map(channel, offsetOf(count), initialCapacity << count);
+        }
+        tables.add(grown);
+        // the table is only counted once it is mapped, so a crash while growing leaves a readable store
+        header.putInt(32, count + 1);
+        setSize(size, 0);
+        return grown;
+    }
+
+    /**
+     * Gets the offset of a table in the file. The tables hold the initial capacity times 1, 2, 4... slots.
+     */
+    private long offsetOf(int table) {
+        return HEADER_BYTES + ((1L << table) - 1) * initialCapacity * SLOT_BYTES;
+    }
+
+    private void setSize(long size, long newestSize) {
+        this.size = size;
+        this.newestSize = newestSize;
+        header.putLong(24, size);
+        header.putLong(40, newestSize);
+    }
+
+    private void checkOpen() {
+        Preconditions.checkState(!closed, "The fingerprint store has been closed");
+    }
+
+    private void force() {
+        for (Table table : tables) {
+            table.force();
+        }
+        header.force();
+    }
+
+    /**
+     * Forces the changes made to the store to disk.
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the changes made to the store to disk and closes it.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                force();
+                closed = true;
+                tables.clear();
+                header = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The hash of the identity of an item and the hash of its content.
+     */
+    static final class Fingerprint {
+        private final long keyHigh;
+        private final long keyLow;
+        private final long valueHigh;
+        private final long valueLow;
+
+        Fingerprint(long keyHigh, long keyLow, long valueHigh, long valueLow) {
+            // an all-zero key marks an empty slot
+            this.keyHigh = keyHigh;
+            this.keyLow = keyHigh == 0 && keyLow == 0 ? 1 : keyLow;
+            this.valueHigh = valueHigh;
+            this.valueLow = valueLow;
+        }
+    }
+
+    /**
+     * An open-addressing hash table with linear probing, mapped from a file in regions of up to 64 MB. The header of
+     * the file holds a magic number, the version of the format, the capacity of the first table, the number of items,
+     * the number of tables and the number of items of the newest table.
+     */
+    private static final class Table {
+        private final MappedByteBuffer[] regions;
+        private final long capacity;
+
+        private Table(MappedByteBuffer[] regions, long capacity) {
+            this.regions = regions;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Maps a table of the given capacity at the given offset, extending the file if it is shorter.
+         */
+        static Table map(FileChannel channel, long offset, long capacity) throws IOException {
+            MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((capacity + REGION_SLOTS - 1) >>> REGION_SHIFT)];
+            for (int i = 0; i < regions.length; i++) {
+                long slots = Math.min(REGION_SLOTS, capacity - (long) i * REGION_SLOTS);
+                regions[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        offset + (long) i * REGION_SLOTS * SLOT_BYTES, slots * SLOT_BYTES);
+            }
+            return new Table(regions, capacity);
+        }
+
+        /**
+         * Finds the slot holding the key of a fingerprint, or the empty slot where it would be inserted.
+         */
+        long find(Fingerprint fingerprint) {
+            long mask = capacity - 1;
+            long slot = fingerprint.keyLow & mask;
+            while (true) {
+                MappedByteBuffer region = region(slot);
+                int offset = offset(slot);
+                long keyHigh = region.getLong(offset);
+                long keyLow = region.getLong(offset + 8);
+                if ((keyHigh == 0 && keyLow == 0)
+                        || (keyHigh == fingerprint.keyHigh && keyLow == fingerprint.keyLow)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        boolean isEmpty(long slot) {
+            MappedByteBuffer region = region(slot);
+            int offset = offset(slot);
+            return region.getLong(offset) == 0 && region.getLong(offset + 8) == 0;
+        }
+
+        boolean matches(long slot, Fingerprint fingerprint) {
+            MappedByteBuffer region = region(slot);
+            int offset = offset(slot);
+            return region.getLong(offset + 16) == fingerprint.valueHigh
+                    && region.getLong(offset + 24) == fingerprint.valueLow;
+        }
+
+        void write(long slot, Fingerprint fingerprint) {
+            MappedByteBuffer region = region(slot);
+            int offset = offset(slot);
+            region.putLong(offset + 16, fingerprint.valueHigh);
+            region.putLong(offset + 24, fingerprint.valueLow);
+            region.putLong(offset, fingerprint.keyHigh);
+            region.putLong(offset + 8, fingerprint.keyLow);
+        }
+
+        void force() {
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+        }
+
+        private MappedByteBuffer region(long slot) {
+            return regions[(int) (slot >>> REGION_SHIFT)];
+        }
+
+        private static int offset(long slot) {
+            return (int) (slot & (REGION_SLOTS - 1)) * SLOT_BYTES;
+        }
+    }
+
+    /**
+     * Builder class for constructing {@link FingerprintStore} instances.
+     */
+    public static class Builder {
+        private Path file;
+        private long initialCapacity = 1 << 20;
+
+        /**
+         * Sets the file of the store. It is created if it does not exist.
+         *
+         * @param file the path of the file.
+         * @return the builder instance.
+         */
+        public Builder setFile(Path file) {
+            this.file = file;
+            return this;
+        }
+
+        /**
+         * Sets the number of items a new store can hold before it grows. Every growth adds a table that lookups have
+         * to probe, so crawls of a known size should set it up front. Defaults to 1048576. Ignored when the file
+         * exists.
+         *
+         * @param initialCapacity the number of items.
+         * @return the builder instance.
+         */
+        public Builder setInitialCapacity(long initialCapacity) {
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link FingerprintStore} instance.
+         *
+         * @return a new {@link FingerprintStore}.
+         * @throws IOException if the file cannot be opened or is not a fingerprint store.
+         */
+        public FingerprintStore build() throws IOException {
+            return new FingerprintStore(this);
+        }
+    }
+}
@@ -5,24 +5,102 @@ import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
 import com.recordpoint.connectors.sdk.json.JsonMapperException;
 import com.recordpoint.connectors.sdk.service.AbstractServiceClient;
 import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.SubmissionJournal;
 import com.recordpoint.connectors.sdk.service.item.model.ItemAcceptance;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
 import com.recordpoint.connectors.sdk.service.item.model.ItemSubmissionOutput;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class ItemServiceClient extends AbstractServiceClient {
 
+    /**
+     * {@link FingerprintStore} store of the items accepted by the service, or {@code null} if every item is submitted.
+     */
+    private final FingerprintStore fingerprintStore;
+
     public ItemServiceClient(Builder builder) {
         super(builder);
+        this.fingerprintStore = builder.fingerprintStore;
     }
 
     public static Builder Builder() {
         return new Builder();
     }
 
+    /**
+     * Submits an item. When the client has a {@link FingerprintStore}, an item that has not changed since it was last
+     * accepted is not sent: the returned acceptance then only carries the external id and last modified date of the
+     * item, without an aggregation status.
+     *
+     * @param request the request.
+     * @return the acceptance of the item.
+     */
     public ItemAcceptance submitItem(SubmitItemRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
+        FingerprintStore.Fingerprint fingerprint = null;
+        if (fingerprintStore != null) {
+            fingerprint = FingerprintStore.fingerprintOf(request.getSubmission());
+            if (fingerprintStore.matches(fingerprint)) {
+                return unchanged(request.getSubmission());
+            }
+        }
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        ItemAcceptance acceptance = postSubmission(resourceUrl, request.getSubmission(), ItemAcceptance.class);
+        record(fingerprint);
+        return acceptance;
+    }
+
+    public CompletableFuture<ItemAcceptance> submitItemAsync(SubmitItemRequest request) {
+        FingerprintStore.Fingerprint fingerprint = null;
+        if (fingerprintStore != null) {
+            try {
+                fingerprint = FingerprintStore.fingerprintOf(request.getSubmission());
+            } catch (JsonMapperException e) {
+                CompletableFuture<ItemAcceptance> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+            if (fingerprintStore.matches(fingerprint)) {
+                return CompletableFuture.completedFuture(unchanged(request.getSubmission()));
+            }
+        }
         String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
-        return postRequest(resourceUrl, request.getSubmission(), ItemAcceptance.class);
+        FingerprintStore.Fingerprint accepted = fingerprint;
+        return postSubmissionAsync(resourceUrl, request.getSubmission(), ItemAcceptance.class)
+                .thenApply(acceptance -> {
+                    record(accepted);
+                    return acceptance;
+                });
+    }
+
+    /**
+     * Submits again the items recorded in the {@link SubmissionJournal} of the client whose submission never
+     * completed, such as those in flight when the process ended. Call it on startup, before submitting new items.
+     *
+     * @return the number of items submitted again.
+     */
+    public int replayJournal() throws HttpExecutionException, HttpResponseException {
+        return replayJournal(SubmitItemRequest.SERVICE_PATH);
+    }
+
+    private void record(FingerprintStore.Fingerprint fingerprint) {
+        if (fingerprint == null) {
+            return;
+        }
+        try {
+            fingerprintStore.put(fingerprint);
+        } catch (IOException e) {
+            // the item is only submitted again on the next crawl
+        }
+    }
+
+    private static ItemAcceptance unchanged(ItemSubmission submission) {
+        ItemAcceptance acceptance = new ItemAcceptance();
+        acceptance.setExternalId(submission.getExternalId());
+        acceptance.setSourceLastModifiedDate(submission.getSourceLastModifiedDate());
+        return acceptance;
     }
 
     public List<ItemSubmissionOutput> getItemsList(GetItemsRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
@@ -31,14 +109,31 @@ public final class ItemServiceClient extends AbstractServiceClient {
         return getRequestList(resourceUrl, ItemSubmissionOutput.class);
     }
 
+    public CompletableFuture<List<ItemSubmissionOutput>> getItemsListAsync(GetItemsRequest request) {
+        String resourceUrl = String.format("%s%s/%s/%s?pagesize=%s", getRootUrl(), request.getServicePath(),
+                request.getFieldName(), request.getFieldValue(), request.getPageSize());
+        return getRequestListAsync(resourceUrl, ItemSubmissionOutput.class);
+    }
+
     public List<ItemSubmissionOutput> getItemsMultiTenantedList(GetItemsMultiTenantedRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s%s/%s/%s?connectorId=%s", getRootUrl(), request.getServicePath(),
                 request.getFieldName(), request.getFieldValue(), request.getConnectorId());
         return getRequestList(resourceUrl, ItemSubmissionOutput.class);
     }
 
+    public CompletableFuture<List<ItemSubmissionOutput>> getItemsMultiTenantedListAsync(GetItemsMultiTenantedRequest request) {
+        String resourceUrl = String.format("%s%s/%s/%s?connectorId=%s", getRootUrl(), request.getServicePath(),
+                request.getFieldName(), request.getFieldValue(), request.getConnectorId());
+        return getRequestListAsync(resourceUrl, ItemSubmissionOutput.class);
+    }
+
     public static class Builder extends AbstractServiceClient.Builder {
 
+        /**
+         * {@link FingerprintStore} store of the items accepted by the service.
+         */
+        FingerprintStore fingerprintStore;
+
         @Override
         public ItemServiceClient build() {
             return new ItemServiceClient(this);
@@ -50,6 +145,24 @@ public final class ItemServiceClient extends AbstractServiceClient {
             return this;
         }
 
+        /**
+         * Sets the store of the fingerprints of the items accepted by the service. Items whose fingerprint has not
+         * changed since they were last accepted are then not submitted again. By default, every item is submitted.
+         *
+         * @param fingerprintStore the {@link FingerprintStore} store.
+         * @return the builder instance.
+         */
+        public ItemServiceClient.Builder setFingerprintStore(FingerprintStore fingerprintStore) {
+            this.fingerprintStore = fingerprintStore;
+            return this;
+        }
+
+        @Override
+        public ItemServiceClient.Builder setSubmissionJournal(SubmissionJournal submissionJournal) {
+            super.setSubmissionJournal(submissionJournal);
+            return this;
+        }
+
     }
 
 }
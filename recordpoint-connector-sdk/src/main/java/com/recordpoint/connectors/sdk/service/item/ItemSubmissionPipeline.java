@@ -0,0 +1,336 @@
+package com.recordpoint.connectors.sdk.service.item;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.recordpoint.connectors.sdk.service.item.model.ItemAcceptance;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Submits items to the service with a fixed number of concurrent workers, so callers only have to
+ * {@link #offer(ItemSubmission) offer} the items they read from their source.
+ * <p>
+ * Offered items wait in a bounded queue until a worker submits them through the {@link ItemServiceClient}. When the
+ * queue is full, {@link #offer(ItemSubmission)} blocks until a worker takes an item, so a fast source is slowed down to
+ * the pace of the service instead of buffering without limit. The outcome of every item is reported to the
+ * {@link Listener} of the pipeline, and the pipeline keeps counters of its throughput and of the latency of the
+ * submissions.
+ * </p>
+ * <p>
+ * {@link #close()} stops accepting items and waits for the queued items to be submitted.
+ * </p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (ItemSubmissionPipeline pipeline = ItemSubmissionPipeline.Builder()
+ *         .setItemServiceClient(itemServiceClient)
+ *         .setWorkers(8)
+ *         .setListener(new ItemSubmissionPipeline.Listener() {
+ *             public void onSuccess(ItemSubmission submission, ItemAcceptance acceptance) {
+ *             }
+ *
+ *             public void onFailure(ItemSubmission submission, Exception error) {
+ *                 LOG.error("Unable to submit item {}", submission.getExternalId(), error);
+ *             }
+ *         })
+ *         .build()) {
+ *     for (ItemSubmission submission : submissions) {
+ *         pipeline.offer(submission);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see Builder
+ */
+public final class ItemSubmissionPipeline implements AutoCloseable {
+    private final ItemServiceClient itemServiceClient;
+    private final Listener listener;
+    private final ExecutorService workers;
+    private final Semaphore capacity;
+    private final SubmissionStatistics statistics = new SubmissionStatistics();
+    private volatile boolean closed;
+
+    /**
+     * Constructs an {@link ItemSubmissionPipeline} instance using the provided builder and starts its workers.
+     *
+     * @param builder the {@link Builder} instance containing configuration values.
+     */
+    public ItemSubmissionPipeline(Builder builder) {
+        Preconditions.checkNotNull(builder.itemServiceClient, "Item service client cannot be null");
+        Preconditions.checkArgument(builder.workers > 0, "Workers must be greater than zero");
+        Preconditions.checkArgument(builder.queueCapacity > 0, "Queue capacity must be greater than zero");
+        this.itemServiceClient = builder.itemServiceClient;
+        this.listener = builder.listener;
+        // every worker holds one item besides the queued ones
+        this.capacity = new Semaphore(builder.queueCapacity + builder.workers);
+        this.workers = Executors.newFixedThreadPool(builder.workers, new ThreadFactoryBuilder()
+                .setNameFormat("item-submission-%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Creates a new {@link Builder} instance.
+     *
+     * @return a new {@link Builder}.
+     */
+    public static Builder Builder() {
+        return new Builder();
+    }
+
+    /**
+     * Queues an item for submission, waiting for room in the queue if it is full.
+     *
+     * @param submission the item to submit.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     * @throws IllegalStateException if the pipeline has been closed.
+     */
+    public void offer(ItemSubmission submission) throws InterruptedException {
+        Preconditions.checkNotNull(submission, "Submission cannot be null");
+        Preconditions.checkState(!closed, "The pipeline has been closed");
+        capacity.acquire();
+        enqueue(submission);
+    }
+
+    /**
+     * Queues an item for submission, waiting up to the given timeout for room in the queue if it is full.
+     *
+     * @param submission the item to submit.
+     * @param timeout    the maximum time to wait.
+     * @return {@code true} if the item was queued, {@code false} if the queue stayed full.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     * @throws IllegalStateException if the pipeline has been closed.
+     */
+    public boolean offer(ItemSubmission submission, Duration timeout) throws InterruptedException {
+        Preconditions.checkNotNull(submission, "Submission cannot be null");
+        Preconditions.checkState(!closed, "The pipeline has been closed");
+        if (!capacity.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        enqueue(submission);
+        return true;
+    }
+
+    private void enqueue(ItemSubmission submission) {
+        statistics.started();
+        try {
+            workers.execute(() -> submit(submission));
+        } catch (RuntimeException e) {
+            complete();
+            throw new IllegalStateException("The pipeline has been closed", e);
+        }
+    }
+
+    private void submit(ItemSubmission submission) {
+        try {
+            long start = System.nanoTime();
+            ItemAcceptance acceptance;
+            try {
+                acceptance = itemServiceClient.submitItem(SubmitItemRequest.Builder()
+                        .setPayload(submission)
+                        .build());
+            } catch (Exception e) {
+                statistics.record(start, false);
+                listener.onFailure(submission, e);
+                return;
+            }
+            statistics.record(start, true);
+            listener.onSuccess(submission, acceptance);
+        } finally {
+            complete();
+        }
+    }
+
+    private void complete() {
+        statistics.completed();
+        capacity.release();
+    }
+
+    /**
+     * Waits until every item offered so far has been submitted and reported to the listener.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        statistics.flush();
+    }
+
+    /**
+     * Gets the number of items that were submitted successfully.
+     *
+     * @return the number of accepted items.
+     */
+    public long getSucceededCount() {
+        return statistics.getSucceededCount();
+    }
+
+    /**
+     * Gets the number of items whose submission failed.
+     *
+     * @return the number of failed items.
+     */
+    public long getFailedCount() {
+        return statistics.getFailedCount();
+    }
+
+    /**
+     * Gets the number of items that are queued or being submitted.
+     *
+     * @return the number of pending items.
+     */
+    public long getPendingCount() {
+        return statistics.getPendingCount();
+    }
+
+    /**
+     * Gets the number of items submitted per second, successfully or not, from the first offered item to the last
+     * completed submission.
+     *
+     * @return the throughput in items per second, or 0 if no submission has completed.
+     */
+    public double getThroughput() {
+        return statistics.getThroughput();
+    }
+
+    /**
+     * Gets the average time taken by the service client to submit an item, retries included.
+     *
+     * @return the average latency, or {@link Duration#ZERO} if no submission has completed.
+     */
+    public Duration getAverageLatency() {
+        return statistics.getAverageLatency();
+    }
+
+    /**
+     * Gets the longest time taken by the service client to submit an item, retries included.
+     *
+     * @return the maximum latency, or {@link Duration#ZERO} if no submission has completed.
+     */
+    public Duration getMaxLatency() {
+        return statistics.getMaxLatency();
+    }
+
+    /**
+     * Stops accepting items and waits for the queued items to be submitted. If the thread is interrupted while
+     * waiting, the submissions that have not started are abandoned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for the queued items
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Receives the outcome of every item submitted by an {@link ItemSubmissionPipeline}. Methods are called on the
+     * worker threads of the pipeline, so they should return quickly and must be thread-safe.
+     */
+    public interface Listener {
+
+        /**
+         * A listener that ignores the outcomes, which are still counted by the pipeline.
+         */
+        Listener NONE = new Listener() {
+            @Override
+            public void onSuccess(ItemSubmission submission, ItemAcceptance acceptance) {
+            }
+
+            @Override
+            public void onFailure(ItemSubmission submission, Exception error) {
+            }
+        };
+
+        /**
+         * Called when an item has been accepted by the service.
+         *
+         * @param submission the submitted item.
+         * @param acceptance the acceptance returned by the service.
+         */
+        void onSuccess(ItemSubmission submission, ItemAcceptance acceptance);
+
+        /**
+         * Called when the submission of an item has failed, after the retries of the service client.
+         *
+         * @param submission the item that could not be submitted.
+         * @param error      the error of the submission.
+         */
+        void onFailure(ItemSubmission submission, Exception error);
+    }
+
+    /**
+     * Builder class for constructing {@link ItemSubmissionPipeline} instances.
+     */
+    public static class Builder {
+        private ItemServiceClient itemServiceClient;
+        private int workers = 4;
+        private int queueCapacity = 1000;
+        private Listener listener = Listener.NONE;
+
+        /**
+         * Sets the client used to submit the items.
+         *
+         * @param itemServiceClient the {@link ItemServiceClient} client.
+         * @return the builder instance.
+         */
+        public Builder setItemServiceClient(ItemServiceClient itemServiceClient) {
+            this.itemServiceClient = itemServiceClient;
+            return this;
+        }
+
+        /**
+         * Sets the number of items submitted concurrently. Defaults to 4.
+         *
+         * @param workers the number of workers.
+         * @return the builder instance.
+         */
+        public Builder setWorkers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Sets the number of items that can wait for a worker before {@link ItemSubmissionPipeline#offer(ItemSubmission)}
+         * blocks. Defaults to 1000.
+         *
+         * @param queueCapacity the capacity of the queue.
+         * @return the builder instance.
+         */
+        public Builder setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the listener that receives the outcome of every item. By default, outcomes are only counted.
+         *
+         * @param listener the {@link Listener} listener.
+         * @return the builder instance.
+         */
+        public Builder setListener(Listener listener) {
+            Preconditions.checkNotNull(listener, "Listener cannot be null");
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Builds a new {@link ItemSubmissionPipeline} instance.
+         *
+         * @return a new {@link ItemSubmissionPipeline}.
+         */
+        public ItemSubmissionPipeline build() {
+            return new ItemSubmissionPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.recordpoint.connectors.sdk.service.item;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the submissions of a pipeline: the submissions in flight, their outcomes, the throughput of the pipeline and
+ * the latency of the submissions.
+ * <p>
+ * A pipeline calls {@link #started()} when it takes a submission, {@link #record(long, boolean)} with its outcome and
+ * {@link #completed()} once the submission has been reported, so that {@link #flush()} waits for the submissions in
+ * flight. All methods are thread-safe.
+ * </p>
+ *
+ * @see ItemSubmissionPipeline
+ */
+public final class SubmissionStatistics {
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final Object lock = new Object();
+    private long pending;
+    private long firstOfferNanos;
+    private long lastCompletionNanos;
+    private boolean started;
+
+    /**
+     * Counts a submission taken by the pipeline as pending.
+     */
+    public void started() {
+        synchronized (lock) {
+            if (!started) {
+                started = true;
+                firstOfferNanos = System.nanoTime();
+            }
+            pending++;
+        }
+    }
+
+    /**
+     * Records the outcome and the latency of a submission.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the submission started.
+     * @param success    whether the submission succeeded.
+     */
+    public void record(long startNanos, boolean success) {
+        long latency = System.nanoTime() - startNanos;
+        (success ? succeeded : failed).increment();
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Counts a pending submission as completed, waking up the threads waiting in {@link #flush()} if it was the last.
+     */
+    public void completed() {
+        synchronized (lock) {
+            pending--;
+            lastCompletionNanos = System.nanoTime();
+            if (pending == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until no submission is pending.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        synchronized (lock) {
+            while (pending > 0) {
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of successful submissions.
+     *
+     * @return the number of successful submissions.
+     */
+    public long getSucceededCount() {
+        return succeeded.sum();
+    }
+
+    /**
+     * Gets the number of failed submissions.
+     *
+     * @return the number of failed submissions.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Gets the number of submissions in flight.
+     *
+     * @return the number of pending submissions.
+     */
+    public long getPendingCount() {
+        synchronized (lock) {
+            return pending;
+        }
+    }
+
+    /**
+     * Gets the number of submissions completed per second, successfully or not, from the first started submission to
+     * the last completed one.
+     *
+     * @return the throughput in submissions per second, or 0 if no submission has completed.
+     */
+    public double getThroughput() {
+        long completed = succeeded.sum() + failed.sum();
+        long elapsed;
+        synchronized (lock) {
+            elapsed = lastCompletionNanos - firstOfferNanos;
+        }
+        return completed == 0 || elapsed <= 0 ? 0 : completed * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * Gets the average latency of the submissions.
+     *
+     * @return the average latency, or {@link Duration#ZERO} if no submission has completed.
+     */
+    public Duration getAverageLatency() {
+        long completed = succeeded.sum() + failed.sum();
+        return completed == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos.sum() / completed);
+    }
+
+    /**
+     * Gets the longest latency of the submissions.
+     *
+     * @return the maximum latency, or {@link Duration#ZERO} if no submission has completed.
+     */
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+}
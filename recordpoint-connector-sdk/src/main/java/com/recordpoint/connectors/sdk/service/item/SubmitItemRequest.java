@@ -8,7 +8,9 @@ import com.recordpoint.connectors.sdk.service.util.MessageFieldProvider;
 
 public final class SubmitItemRequest extends AbstractServiceRequest<ItemAcceptance> {
 
-    private final String servicePath = "/connector/api/Items";
+    static final String SERVICE_PATH = "/connector/api/Items";
+
+    private final String servicePath = SERVICE_PATH;
 
     private final ItemSubmission submission;
 
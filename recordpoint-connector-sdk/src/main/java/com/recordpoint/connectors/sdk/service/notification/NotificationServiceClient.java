@@ -8,6 +8,7 @@ import com.recordpoint.connectors.sdk.service.ServiceSettings;
 import com.recordpoint.connectors.sdk.service.notification.model.Notification;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public final class NotificationServiceClient extends AbstractServiceClient {
 
@@ -27,12 +28,25 @@ public final class NotificationServiceClient extends AbstractServiceClient {
         return getRequestList(resourceUrl, Notification.class);
     }
 
+    public CompletableFuture<List<Notification>> getNotificationListAsync(GetNotificationRequest request) {
+        String resourceUrl = String.format(
+                "%s%s?connectorId=%s&receiveAll=%s", getRootUrl(),
+                request.getServicePath(), request.getConnectorId(), request.getReceiveAll()
+        );
+        return getRequestListAsync(resourceUrl, Notification.class);
+    }
+
     public boolean acknowledgeProcessedNotification(AcknowledgeNotificationRequest request) throws JsonMapperException, HttpExecutionException, HttpResponseException {
         String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
         postRequest(resourceUrl, request.getPayload());
         return true;
     }
 
+    public CompletableFuture<Boolean> acknowledgeProcessedNotificationAsync(AcknowledgeNotificationRequest request) {
+        String resourceUrl = String.format("%s%s", getRootUrl(), request.getServicePath());
+        return postRequestAsync(resourceUrl, request.getPayload()).thenApply(ignored -> true);
+    }
+
     public static class Builder extends AbstractServiceClient.Builder {
 
         @Override
@@ -0,0 +1,197 @@
+import com.recordpoint.connectors.sdk.http.FileContent;
+import com.recordpoint.connectors.sdk.http.HttpRequest;
+import com.recordpoint.connectors.sdk.http.HttpRequestFactory;
+import com.recordpoint.connectors.sdk.http.HttpResponse;
+import com.recordpoint.connectors.sdk.http.StreamingContent;
+import com.recordpoint.connectors.sdk.http.apache.ApacheHttpTransport;
+import com.recordpoint.connectors.sdk.http.apache.ApacheAsyncHttpTransport;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.json.jackson.JacksonMapper;
+import com.recordpoint.connectors.sdk.service.item.model.ItemAcceptance;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ApacheAsyncHttpTransportTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ApacheAsyncHttpTransport transport;
+    private String baseUrl;
+
+    @BeforeAll
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/item", exchange -> {
+            byte[] body = "{\"externalId\":\"abc\",\"aggregationStatus\":\"Ok\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/echo", exchange -> {
+            ByteArrayOutputStream received = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] chunk = new byte[1024];
+                for (int read; (read = in.read(chunk)) != -1; ) {
+                    received.write(chunk, 0, read);
+                }
+            }
+            boolean lengthMatches = String.valueOf(received.size())
+                    .equals(exchange.getRequestHeaders().getFirst("Content-Length"));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(lengthMatches ? 200 : 411, received.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                received.writeTo(out);
+            }
+        });
+        server.createContext("/upload", exchange -> {
+            long received = 0;
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] chunk = new byte[8192];
+                for (int read; (read = in.read(chunk)) != -1; ) {
+                    received += read;
+                }
+            }
+            boolean streamed = exchange.getRequestHeaders().getFirst("Transfer-Encoding") == null
+                    && String.valueOf(received).equals(exchange.getRequestHeaders().getFirst("Content-Length"));
+            exchange.sendResponseHeaders(streamed ? 201 : 411, -1);
+            exchange.close();
+        });
+        server.createContext("/error", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        transport = new ApacheAsyncHttpTransport();
+    }
+
+    @AfterAll
+    public void tearDown() throws IOException {
+        transport.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private HttpRequest newGetRequest(String path) {
+        HttpRequestFactory factory = transport.createRequestFactory();
+        HttpRequest request = factory.buildGetRequest(baseUrl + path);
+        request.setJsonMapper(new JacksonMapper());
+        return request;
+    }
+
+    @Test
+    void testExecuteAsync() throws Exception {
+        List<CompletableFuture<HttpResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(newGetRequest("/item").executeAsync());
+        }
+        for (CompletableFuture<HttpResponse> future : futures) {
+            ItemAcceptance acceptance = future.get(10, TimeUnit.SECONDS).parseAs(ItemAcceptance.class);
+            assertEquals("abc", acceptance.getExternalId());
+        }
+    }
+
+    @Test
+    void testExecuteAsyncFailure() {
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> newGetRequest("/error").executeAsync().get(10, TimeUnit.SECONDS));
+        assertInstanceOf(HttpResponseException.class, exception.getCause());
+        assertEquals(503, ((HttpResponseException) exception.getCause()).getStatusCode());
+    }
+
+    @Test
+    void testJsonContentIsRepeatable() throws Exception {
+        ItemAcceptance payload = new ItemAcceptance();
+        payload.setExternalId("caf\u00e9-\u6587\u66f8");
+        StreamingContent content = new StreamingContent() {
+            @Override
+            public InputStream getInputStream() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Object getContent() {
+                return payload;
+            }
+        };
+        ApacheHttpTransport syncTransport = new ApacheHttpTransport();
+        try {
+            for (HttpRequestFactory factory : new HttpRequestFactory[]{
+                    transport.createRequestFactory(), syncTransport.createRequestFactory()}) {
+                HttpRequest request = factory.buildPostRequest(baseUrl + "/echo", content);
+                request.setJsonMapper(new JacksonMapper());
+                request.setContentType("application/json");
+                assertEquals(payload.getExternalId(), request.execute().parseAs(ItemAcceptance.class).getExternalId());
+                assertEquals(payload.getExternalId(),
+                        request.executeAsync().get(10, TimeUnit.SECONDS).parseAs(ItemAcceptance.class).getExternalId());
+            }
+        } finally {
+            syncTransport.shutdown();
+        }
+    }
+
+    @Test
+    void testBinaryContentIsStreamedWithLength() throws Exception {
+        Path file = Files.createTempFile("upload", ".bin");
+        ApacheHttpTransport syncTransport = new ApacheHttpTransport();
+        try {
+            byte[] data = new byte[3 * 1024 * 1024 + 17];
+            Files.write(file, data);
+            for (HttpRequestFactory factory : new HttpRequestFactory[]{
+                    transport.createRequestFactory(), syncTransport.createRequestFactory()}) {
+                for (boolean async : new boolean[]{false, true}) {
+                    List<FileContent> contents = new ArrayList<>();
+                    contents.add(new FileContent(file));
+                    contents.add(new FileContent(Files.newInputStream(file), data.length));
+                    for (FileContent content : contents) {
+                        HttpRequest request = factory.buildPutRequest(baseUrl + "/upload", content);
+                        request.setContentType("multipart/form-data");
+                        HttpResponse response = async
+                                ? request.executeAsync().get(10, TimeUnit.SECONDS)
+                                : request.execute();
+                        assertEquals(201, response.getStatusCode());
+                    }
+                    // the caller owns the stream
+                    contents.get(1).getInputStream().close();
+                }
+            }
+        } finally {
+            syncTransport.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testExecuteWaitsForExchange() throws Exception {
+        assertEquals(200, newGetRequest("/item").execute().getStatusCode());
+        HttpResponseException exception = assertThrows(HttpResponseException.class,
+                () -> newGetRequest("/error").execute());
+        assertEquals(503, exception.getStatusCode());
+    }
+}
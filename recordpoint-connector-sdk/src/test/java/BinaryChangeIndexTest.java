@@ -0,0 +1,149 @@
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.binary.BinaryChangeIndex;
+import com.recordpoint.connectors.sdk.service.binary.BinaryServiceClient;
+import com.recordpoint.connectors.sdk.service.binary.SubmitFileRequest;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryChangeIndexTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private Path directory;
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicInteger notifications = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/connector/api/Binaries/GetSASToken", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            TestSupport.respond(exchange,
+                    "{\"url\":\"" + baseUrl + "/blob/item?sv=1&se=2099-01-01T00%3A00%3A00Z&sig=abc\"}");
+        });
+        server.createContext("/blob", exchange -> {
+            uploadedBytes.addAndGet(TestSupport.countBytes(exchange.getRequestBody()));
+            uploads.incrementAndGet();
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        server.createContext("/connector/api/Binaries/NotifyBinarySubmission", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            notifications.incrementAndGet();
+            TestSupport.respond(exchange, "{}");
+        });
+        server.start();
+        directory = Files.createTempDirectory("binaries");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private BinaryServiceClient newClient() {
+        return (BinaryServiceClient) BinaryServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    private static SubmitFileRequest newSubmitFileRequest(String binaryExternalId, Path file,
+                                                          BinaryChangeIndex changeIndex) throws IOException {
+        return SubmitFileRequest.Builder()
+                .setFileSubmissionInfo(DirectBinarySubmission.Builder()
+                        .connectorId("connector")
+                        .itemExternalId("item-" + binaryExternalId)
+                        .binaryExternalId(binaryExternalId)
+                        .sourceLastModifiedDate(Instant.now())
+                        .mimeType("application/pdf")
+                        .fileSize(Files.size(file))
+                        .build())
+                .setFileContent(file)
+                .setChangeIndex(changeIndex)
+                .build();
+    }
+
+    @Test
+    void testUnchangedBinaryIsUploadedOnce() throws Exception {
+        byte[] content = new byte[4096];
+        new Random(7).nextBytes(content);
+        Path attachment = Files.write(directory.resolve("attachment.pdf"), content);
+        Path copy = Files.write(directory.resolve("copy.pdf"), content);
+        Path indexFile = directory.resolve("binaries.index");
+        BinaryServiceClient client = newClient();
+        try (BinaryChangeIndex changeIndex = BinaryChangeIndex.Builder().setFile(indexFile).build()) {
+            assertTrue(client.submitFile(newSubmitFileRequest("binary-1", attachment, changeIndex)));
+            assertFalse(client.submitFile(newSubmitFileRequest("binary-1", copy, changeIndex)));
+            assertFalse(client.submitFileAsync(newSubmitFileRequest("binary-1", attachment, changeIndex)).join());
+            assertEquals(1, uploads.get());
+            assertEquals(content.length, uploadedBytes.get());
+            assertEquals(2, changeIndex.getUnchangedCount());
+            assertEquals(2L * content.length, changeIndex.getBytesSaved());
+        }
+        // the index outlives the process
+        try (BinaryChangeIndex changeIndex = BinaryChangeIndex.Builder().setFile(indexFile).build()) {
+            assertEquals(1, changeIndex.size());
+            assertFalse(client.submitFile(newSubmitFileRequest("binary-1", copy, changeIndex)));
+            assertEquals(1, uploads.get());
+            assertEquals(1, notifications.get());
+        }
+    }
+
+    @Test
+    void testSameContentOfAnotherBinaryIsUploaded() throws Exception {
+        byte[] content = new byte[4096];
+        new Random(7).nextBytes(content);
+        Path attachment = Files.write(directory.resolve("attachment.pdf"), content);
+        BinaryServiceClient client = newClient();
+        try (BinaryChangeIndex changeIndex = BinaryChangeIndex.Builder().build()) {
+            assertTrue(client.submitFile(newSubmitFileRequest("binary-1", attachment, changeIndex)));
+            assertTrue(client.submitFileAsync(newSubmitFileRequest("binary-2", attachment, changeIndex)).join());
+            assertEquals(2, uploads.get());
+            assertEquals(2, notifications.get());
+            assertEquals(0, changeIndex.getUnchangedCount());
+        }
+    }
+
+    @Test
+    void testChangeOutsideTheSamplesIsUploaded() throws Exception {
+        byte[] content = new byte[1024 * 1024];
+        new Random(7).nextBytes(content);
+        Path attachment = Files.write(directory.resolve("attachment.pdf"), content);
+        BinaryServiceClient client = newClient();
+        try (BinaryChangeIndex changeIndex = BinaryChangeIndex.Builder().build()) {
+            assertTrue(client.submitFile(newSubmitFileRequest("binary-1", attachment, changeIndex)));
+            String contentHash = changeIndex.getContentHash(newSubmitFileRequest("binary-1", attachment, changeIndex)
+                    .getFileSubmission());
+            assertNotNull(contentHash);
+            content[200_000]++;
+            Files.write(attachment, content);
+            assertTrue(client.submitFile(newSubmitFileRequest("binary-1", attachment, changeIndex)));
+            assertEquals(2, uploads.get());
+            assertNotEquals(contentHash, changeIndex.getContentHash(
+                    newSubmitFileRequest("binary-1", attachment, changeIndex).getFileSubmission()));
+        }
+    }
+}
@@ -0,0 +1,366 @@
+import com.google.common.io.BaseEncoding;
+import com.recordpoint.connectors.sdk.http.apache.ApacheAsyncHttpTransport;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.binary.BinaryServiceClient;
+import com.recordpoint.connectors.sdk.service.binary.BlockUploadSettings;
+import com.recordpoint.connectors.sdk.service.binary.SubmitFileRequest;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockBlobUploadTest {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private BinaryServiceClient client;
+    private final Map<String, byte[]> stagedBlocks = new ConcurrentHashMap<>();
+    private final List<String> committedBlocks = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+    private final AtomicInteger commitFailuresToInject = new AtomicInteger();
+    private final AtomicInteger notifications = new AtomicInteger();
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+    private final AtomicInteger blockRequests = new AtomicInteger();
+    private volatile String failingBlockId;
+    private volatile byte[] blob;
+    private volatile String notification;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/connector/api/Binaries/GetSASToken", exchange -> {
+            tokenRequests.incrementAndGet();
+            TestSupport.respond(exchange, 200,
+                    "{\"url\":\"" + baseUrl + "/blob/item-1?sv=1&se=2099-01-01T00%3A00%3A00Z&sig=abc\"}");
+        });
+        server.createContext("/connector/api/Binaries/NotifyBinarySubmission", exchange -> {
+            notifications.incrementAndGet();
+            notification = new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8);
+            TestSupport.respond(exchange, 200, null);
+        });
+        server.createContext("/blob", this::handleBlob);
+        server.start();
+
+        client = (BinaryServiceClient) BinaryServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleBlob(HttpExchange exchange) throws IOException {
+        byte[] body = readAll(exchange.getRequestBody());
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if (!"abc".equals(query.get("sig"))) {
+            TestSupport.respond(exchange, 403, null);
+        } else if ("GET".equals(exchange.getRequestMethod()) && "blocklist".equals(query.get("comp"))) {
+            StringBuilder blockList = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?><BlockList>"
+                    + "<CommittedBlocks /><UncommittedBlocks>");
+            stagedBlocks.forEach((blockId, block) -> blockList.append("<Block><Name>").append(blockId)
+                    .append("</Name><Size>").append(block.length).append("</Size></Block>"));
+            TestSupport.respond(exchange, 200, blockList.append("</UncommittedBlocks></BlockList>").toString());
+        } else if ("block".equals(query.get("comp"))) {
+            blockRequests.incrementAndGet();
+            if (failuresToInject.getAndDecrement() > 0 || query.get("blockid").equals(failingBlockId)) {
+                TestSupport.respond(exchange, 503, null);
+                return;
+            }
+            stagedBlocks.put(query.get("blockid"), body);
+            TestSupport.respond(exchange, 201, null);
+        } else if ("blocklist".equals(query.get("comp"))) {
+            if (commitFailuresToInject.getAndDecrement() > 0) {
+                TestSupport.respond(exchange, 503, null);
+                return;
+            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            Matcher matcher = Pattern.compile("<Latest>([^<]+)</Latest>")
+                    .matcher(new String(body, StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                committedBlocks.add(matcher.group(1));
+                content.write(stagedBlocks.get(matcher.group(1)));
+            }
+            blob = content.toByteArray();
+            TestSupport.respond(exchange, 201, null);
+        } else {
+            blob = body;
+            TestSupport.respond(exchange, 201, null);
+        }
+    }
+
+    private static DirectBinarySubmission submission(long fileSize) {
+        return DirectBinarySubmission.Builder()
+                .connectorId("connector")
+                .itemExternalId("item-1")
+                .binaryExternalId("binary-1")
+                .sourceLastModifiedDate(Instant.now())
+                .mimeType("application/pdf")
+                .fileSize(fileSize)
+                .build();
+    }
+
+    @Test
+    void testUploadsBlocksInParallelAndRetriesFailedBlocks() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE * 10 + 123];
+        new Random(7).nextBytes(data);
+        Path file = Files.createTempFile("block-upload", ".bin");
+        Files.write(file, data);
+        failuresToInject.set(2);
+        try {
+            assertTrue(client.submitFile(SubmitFileRequest.Builder()
+                    .setFileContent(file)
+                    .setFileSubmissionInfo(submission(0))
+                    .setBlockUploadSettings(BlockUploadSettings.Builder()
+                            .setBlockSize(BLOCK_SIZE)
+                            .setParallelism(4)
+                            .setRetryDelayMillis(1)
+                            .build())
+                    .build()));
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(11, committedBlocks.size());
+        assertArrayEquals(data, blob);
+        assertEquals(1, notifications.get());
+    }
+
+    @Test
+    void testRetriesBlockListCommitOnExecutor() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE * 4];
+        new Random(5).nextBytes(data);
+        commitFailuresToInject.set(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertTrue(client.submitFile(SubmitFileRequest.Builder()
+                    .setFileContent(new ByteArrayInputStream(data))
+                    .setFileSubmissionInfo(submission(0))
+                    .setBlockUploadSettings(BlockUploadSettings.Builder()
+                            .setBlockSize(BLOCK_SIZE)
+                            .setRetryDelayMillis(1)
+                            .setExecutor(executor)
+                            .build())
+                    .build()));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4, committedBlocks.size());
+        assertArrayEquals(data, blob);
+    }
+
+    @Test
+    void testUploadsStreamOfUnknownLengthAsync() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE * 3];
+        new Random(11).nextBytes(data);
+        assertTrue(client.submitFileAsync(SubmitFileRequest.Builder()
+                .setFileContent(new ByteArrayInputStream(data))
+                .setFileSubmissionInfo(submission(0))
+                .setBlockUploadSettings(BlockUploadSettings.Builder().setBlockSize(BLOCK_SIZE).build())
+                .build()).get(10, TimeUnit.SECONDS));
+        assertEquals(3, committedBlocks.size());
+        assertArrayEquals(data, blob);
+    }
+
+    @Test
+    void testResumesInterruptedUploadFromJournal() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE * 8 + 5];
+        new Random(3).nextBytes(data);
+        Path journalDirectory = Files.createTempDirectory("journal");
+        DirectBinarySubmission submission = submission(data.length);
+        SubmitFileRequest request = SubmitFileRequest.Builder()
+                .setFileContent(new ByteArrayInputStream(data))
+                .setFileSubmissionInfo(submission)
+                .setBlockUploadSettings(BlockUploadSettings.Builder()
+                        .setBlockSize(BLOCK_SIZE)
+                        .setParallelism(2)
+                        .setMaxBlockAttempts(1)
+                        .setJournalDirectory(journalDirectory)
+                        .build())
+                .build();
+        failingBlockId = Base64.getEncoder().encodeToString("block-00000005".getBytes(StandardCharsets.UTF_8));
+        assertThrows(HttpResponseException.class, () -> client.submitFile(request));
+        assertEquals(0, notifications.get());
+        if (journalDirectory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            // the journal holds the SAS URL
+            try (Stream<Path> journals = Files.list(journalDirectory)) {
+                for (Path journal : (Iterable<Path>) journals::iterator) {
+                    assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(journal)));
+                }
+            }
+        }
+        int firstAttemptBlocks = blockRequests.get();
+
+        failingBlockId = null;
+        assertTrue(client.submitFile(SubmitFileRequest.Builder()
+                .setFileContent(new ByteArrayInputStream(data))
+                .setFileSubmissionInfo(submission)
+                .setBlockUploadSettings(request.getBlockUploadSettings())
+                .build()));
+        assertArrayEquals(data, blob);
+        assertEquals(1, tokenRequests.get());
+        assertEquals(9, stagedBlocks.size());
+        assertEquals(9 - (firstAttemptBlocks - 1), blockRequests.get() - firstAttemptBlocks);
+        try (Stream<Path> journals = Files.list(journalDirectory)) {
+            assertEquals(0, journals.count());
+        }
+        Files.delete(journalDirectory);
+    }
+
+    @Test
+    void testRestartsUploadWhenFileChangedSinceJournal() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE * 8 + 5];
+        new Random(13).nextBytes(data);
+        Path file = Files.createTempFile("changed-upload", ".bin");
+        Files.write(file, data);
+        Path journalDirectory = Files.createTempDirectory("journal");
+        try {
+            SubmitFileRequest request = SubmitFileRequest.Builder()
+                    .setFileContent(file)
+                    .setFileSubmissionInfo(submission(0))
+                    .setBlockUploadSettings(BlockUploadSettings.Builder()
+                            .setBlockSize(BLOCK_SIZE)
+                            .setParallelism(2)
+                            .setMaxBlockAttempts(1)
+                            .setJournalDirectory(journalDirectory)
+                            .build())
+                    .build();
+            failingBlockId = Base64.getEncoder().encodeToString("block-00000005".getBytes(StandardCharsets.UTF_8));
+            assertThrows(HttpResponseException.class, () -> client.submitFile(request));
+            int firstAttemptBlocks = blockRequests.get();
+
+            // same length, other content and modification time
+            new Random(17).nextBytes(data);
+            Files.write(file, data);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 60_000));
+            failingBlockId = null;
+            assertTrue(client.submitFile(request));
+            assertArrayEquals(data, blob);
+            assertEquals(2, tokenRequests.get());
+            assertEquals(9, blockRequests.get() - firstAttemptBlocks);
+            try (Stream<Path> journals = Files.list(journalDirectory)) {
+                assertEquals(0, journals.count());
+            }
+        } finally {
+            Files.delete(file);
+            Files.delete(journalDirectory);
+        }
+    }
+
+    @Test
+    void testComputesFileHashWhileUploading() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE * 3 + 1];
+        new Random(5).nextBytes(data);
+        String expectedHash = BaseEncoding.base16().lowerCase()
+                .encode(MessageDigest.getInstance("SHA-256").digest(data));
+        Path file = Files.createTempFile("hashed-upload", ".bin");
+        Files.write(file, data);
+        try {
+            for (BlockUploadSettings blockUpload : new BlockUploadSettings[]{
+                    null, BlockUploadSettings.Builder().setBlockSize(BLOCK_SIZE).build()}) {
+                notification = null;
+                assertTrue(client.submitFile(SubmitFileRequest.Builder()
+                        .setFileContent(file)
+                        .setFileSubmissionInfo(submission(0))
+                        .setBlockUploadSettings(blockUpload)
+                        .setFileHashAlgorithm("SHA-256")
+                        .build()));
+                assertArrayEquals(data, blob);
+                assertTrue(notification.contains("\"fileHash\":\"" + expectedHash + "\""), notification);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testClosesHashedContentAfterAsyncUpload() throws Exception {
+        byte[] data = new byte[BLOCK_SIZE / 2];
+        new Random(7).nextBytes(data);
+        AtomicInteger closes = new AtomicInteger();
+        InputStream content = new ByteArrayInputStream(data) {
+            @Override
+            public void close() throws IOException {
+                closes.incrementAndGet();
+                super.close();
+            }
+        };
+        ApacheAsyncHttpTransport transport = new ApacheAsyncHttpTransport();
+        try {
+            BinaryServiceClient asyncClient = (BinaryServiceClient) BinaryServiceClient.Builder()
+                    .setTransport(transport)
+                    .setServiceSettings(ServiceSettings.Builder()
+                            .setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort()).build())
+                    .setTokenManager(new TestSupport.StaticTokenManager())
+                    .build();
+            assertTrue(asyncClient.submitFileAsync(SubmitFileRequest.Builder()
+                    .setFileContent(content)
+                    .setFileSubmissionInfo(submission(data.length))
+                    .setFileHashAlgorithm("SHA-256")
+                    .build()).get(10, TimeUnit.SECONDS));
+        } finally {
+            transport.shutdown();
+        }
+        assertArrayEquals(data, blob);
+        assertTrue(closes.get() > 0);
+    }
+
+    private static Map<String, String> parseQuery(String query) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        for (String parameter : query.split("&")) {
+            String[] pair = parameter.split("=", 2);
+            parameters.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8.name()));
+        }
+        return parameters;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (int read; (read = in.read(chunk)) != -1; ) {
+            out.write(chunk, 0, read);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+}
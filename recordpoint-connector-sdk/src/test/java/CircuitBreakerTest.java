@@ -0,0 +1,172 @@
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.service.CircuitBreaker;
+import com.recordpoint.connectors.sdk.service.CircuitOpenException;
+import com.recordpoint.connectors.sdk.service.RateLimiter;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.aggregation.AggregationServiceClient;
+import com.recordpoint.connectors.sdk.service.aggregation.GetAggregationRequest;
+import com.recordpoint.connectors.sdk.service.item.GetItemsRequest;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 503;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", this::handleItems);
+        server.createContext("/connector/api/Aggregations", this::handleItems);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = (status == 200 ? "[]" : "{}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ItemServiceClient newClient(CircuitBreaker circuitBreaker) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setCircuitBreaker(circuitBreaker)
+                .build();
+    }
+
+    private static CircuitBreaker newCircuitBreaker() {
+        return CircuitBreaker.Builder()
+                .setWindowSize(4)
+                .setMinimumCalls(4)
+                .setHalfOpenCalls(1)
+                .setOpenDuration(Duration.ofMillis(300))
+                .build();
+    }
+
+    private static GetItemsRequest newGetItemsRequest() {
+        return GetItemsRequest.Builder().setFieldName("externalId").setFieldValue("item-1").build();
+    }
+
+    @Test
+    void testCircuitOpensOnFailuresAndClosesAfterTrial() throws Exception {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        ItemServiceClient client = newClient(circuitBreaker);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpResponseException.class, () -> client.getItemsList(newGetItemsRequest()));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(baseUrl));
+
+        CircuitOpenException exception = assertThrows(CircuitOpenException.class,
+                () -> client.getItemsList(newGetItemsRequest()));
+        assertTrue(exception.getRetryAfter().compareTo(Duration.ZERO) > 0);
+        assertEquals(4, requests.get());
+
+        Thread.sleep(exception.getRetryAfter().toMillis() + 50);
+        status = 200;
+        assertNotNull(client.getItemsList(newGetItemsRequest()));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(baseUrl));
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    void testFailedTrialReopensCircuit() throws Exception {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        ItemServiceClient client = newClient(circuitBreaker);
+        for (int i = 0; i < 4; i++) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> client.getItemsListAsync(newGetItemsRequest()).get(10, TimeUnit.SECONDS));
+            assertInstanceOf(HttpResponseException.class, exception.getCause());
+        }
+        ExecutionException rejected = assertThrows(ExecutionException.class,
+                () -> client.getItemsListAsync(newGetItemsRequest()).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(CircuitOpenException.class, rejected.getCause());
+
+        Thread.sleep(350);
+        assertThrows(HttpResponseException.class, () -> client.getItemsList(newGetItemsRequest()));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(baseUrl + "/connector/api/Items"));
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    void testRequestInterruptedWhileRateLimitedHoldsNoTrial() throws Exception {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        RateLimiter rateLimiter = RateLimiter.Builder()
+                .setRate("/connector/api/Items", 0.5)
+                .setBurst(Duration.ofSeconds(2))
+                .build();
+        ServiceSettings settings = ServiceSettings.Builder().setBaseUrl(baseUrl).build();
+        ItemServiceClient itemClient = (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(settings)
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setCircuitBreaker(circuitBreaker)
+                .setRateLimiter(rateLimiter)
+                .build();
+        AggregationServiceClient aggregationClient = (AggregationServiceClient) AggregationServiceClient.Builder()
+                .setServiceSettings(settings)
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setCircuitBreaker(circuitBreaker)
+                .setRateLimiter(rateLimiter)
+                .build();
+        GetAggregationRequest getAggregation = GetAggregationRequest.Builder()
+                .setFieldName("externalId").setFieldValue("aggregation-1").build();
+        // the only permit of the items path is used by the first failure
+        assertThrows(HttpResponseException.class, () -> itemClient.getItemsList(newGetItemsRequest()));
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpResponseException.class, () -> aggregationClient.getAggregationList(getAggregation));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(baseUrl));
+        Thread.sleep(350);
+
+        Thread waiting = new Thread(() -> {
+            try {
+                itemClient.getItemsList(newGetItemsRequest());
+            } catch (Exception ignored) {
+                // interrupted while waiting for the rate limiter
+            }
+        });
+        waiting.start();
+        Thread.sleep(100);
+        waiting.interrupt();
+        waiting.join(5000);
+        assertFalse(waiting.isAlive());
+
+        status = 200;
+        assertNotNull(aggregationClient.getAggregationList(getAggregation));
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState(baseUrl));
+    }
+}
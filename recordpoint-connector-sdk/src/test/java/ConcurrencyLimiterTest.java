@@ -0,0 +1,124 @@
+import com.recordpoint.connectors.sdk.http.apache.ApacheAsyncHttpTransport;
+import com.recordpoint.connectors.sdk.service.ConcurrencyLimiter;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.item.GetItemsRequest;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmissionOutput;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ApacheAsyncHttpTransport transport;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int status = 200;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", this::handleItems);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        transport = new ApacheAsyncHttpTransport();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        transport.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ItemServiceClient newClient(ConcurrencyLimiter limiter) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setTransport(transport)
+                .setConcurrencyLimiter(limiter)
+                .build();
+    }
+
+    private static GetItemsRequest newGetItemsRequest() {
+        return GetItemsRequest.Builder().setFieldName("externalId").setFieldValue("item-1").build();
+    }
+
+    private static List<CompletableFuture<List<ItemSubmissionOutput>>> sendAll(ItemServiceClient client, int count) {
+        List<CompletableFuture<List<ItemSubmissionOutput>>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(client.getItemsListAsync(newGetItemsRequest()));
+        }
+        return futures;
+    }
+
+    @Test
+    void testRequestsInFlightStayWithinLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.Builder().setInitialLimit(3).setMaxLimit(3).build();
+        for (CompletableFuture<List<ItemSubmissionOutput>> future : sendAll(newClient(limiter), 40)) {
+            assertNotNull(future.get(10, TimeUnit.SECONDS));
+        }
+        assertTrue(maxInFlight.get() <= 3, "max in flight was " + maxInFlight.get());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(0, limiter.getWaiting());
+    }
+
+    @Test
+    void testLimitGrowsUnderLoadAndShrinksWhenThrottled() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.Builder().setInitialLimit(2).setMaxLimit(16)
+                .setLatencyTolerance(1000).build();
+        ItemServiceClient client = newClient(limiter);
+        for (CompletableFuture<List<ItemSubmissionOutput>> future : sendAll(client, 60)) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 2, "limit was " + grown);
+
+        status = 429;
+        for (int i = 0; i < 5; i++) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> client.getItemsListAsync(newGetItemsRequest()).get(10, TimeUnit.SECONDS));
+            assertNotNull(exception.getCause());
+        }
+        assertTrue(limiter.getLimit() < grown, "limit was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,132 @@
+import com.recordpoint.connectors.sdk.http.exception.DeadlineExceededException;
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.binary.BinaryServiceClient;
+import com.recordpoint.connectors.sdk.service.binary.SubmitFileRequest;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger notifications = new AtomicInteger();
+    private volatile long blobDelayMillis;
+    private volatile boolean readBlob = true;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/connector/api/Binaries/GetSASToken", exchange -> TestSupport.respond(exchange, 200,
+                "{\"url\":\"" + baseUrl + "/blob/item-1?sv=1&se=2099-01-01T00%3A00%3A00Z&sig=abc\"}"));
+        server.createContext("/connector/api/Binaries/NotifyBinarySubmission", exchange -> {
+            notifications.incrementAndGet();
+            drain(exchange.getRequestBody());
+            TestSupport.respond(exchange, 200, null);
+        });
+        server.createContext("/blob", this::handleBlob);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleBlob(HttpExchange exchange) throws IOException {
+        if (readBlob) {
+            drain(exchange.getRequestBody());
+        }
+        try {
+            Thread.sleep(blobDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        TestSupport.respond(exchange, 201, null);
+    }
+
+    private BinaryServiceClient newClient(Duration writeTimeout) {
+        return (BinaryServiceClient) BinaryServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setWriteTimeout(writeTimeout)
+                .build();
+    }
+
+    private static SubmitFileRequest newSubmitFileRequest(int size, Duration timeout) {
+        return SubmitFileRequest.Builder()
+                .setFileSubmissionInfo(DirectBinarySubmission.Builder()
+                        .connectorId("connector")
+                        .itemExternalId("item-1")
+                        .binaryExternalId("binary-1")
+                        .sourceLastModifiedDate(Instant.now())
+                        .mimeType("application/pdf")
+                        .fileSize(size)
+                        .build())
+                .setFileContent(new ByteArrayInputStream(new byte[size]))
+                .setTimeout(timeout)
+                .build();
+    }
+
+    @Test
+    void testDeadlineSpansTheHopsOfSubmitFile() throws Exception {
+        BinaryServiceClient client = newClient(Duration.ofSeconds(60));
+        assertTrue(client.submitFile(newSubmitFileRequest(1024, Duration.ofSeconds(10))));
+        assertEquals(1, notifications.get());
+
+        blobDelayMillis = 5000;
+        long start = System.nanoTime();
+        assertThrows(DeadlineExceededException.class,
+                () -> client.submitFile(newSubmitFileRequest(1024, Duration.ofMillis(500))));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> client
+                .submitFileAsync(newSubmitFileRequest(1024, Duration.ofMillis(500))).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, exception.getCause());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 4000);
+        assertEquals(1, notifications.get());
+    }
+
+    @Test
+    void testBlockedWriteTimesOut() {
+        readBlob = false;
+        blobDelayMillis = 10000;
+        BinaryServiceClient client = newClient(Duration.ofMillis(300));
+        long start = System.nanoTime();
+        HttpResponseException exception = assertThrows(HttpResponseException.class,
+                () -> client.submitFile(newSubmitFileRequest(64 * 1024 * 1024, null)));
+        assertEquals(-1, exception.getStatusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+        assertEquals(0, notifications.get());
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        try (InputStream body = in) {
+            byte[] buffer = new byte[8192];
+            while (body.read(buffer) != -1) {
+                // discard the request body
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.item.FingerprintStore;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.SubmitItemRequest;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FingerprintStoreTest {
+
+    private static final Instant MODIFIED = Instant.parse("2024-01-13T00:00:00Z");
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private Path directory;
+    private final AtomicInteger submitted = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            submitted.incrementAndGet();
+            TestSupport.respond(exchange, 200, "{}");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        directory = Files.createTempDirectory("fingerprints");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private ItemServiceClient newClient(FingerprintStore fingerprintStore) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setFingerprintStore(fingerprintStore)
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    private static ItemSubmission newItemSubmission(String externalId, String contentVersion) {
+        return ItemSubmission.Builder()
+                .setExternalId(externalId)
+                .setConnectorId("connector")
+                .setTitle("Item " + externalId)
+                .setAuthor("Connector Java SDK")
+                .setSourceLastModifiedDate(MODIFIED)
+                .setSourceLastModifiedBy("Connector Java SDK")
+                .setSourceCreatedBy("Connector Java SDK")
+                .setSourceCreatedDate(MODIFIED)
+                .setContentVersion(contentVersion)
+                .setLocation("/test/" + externalId)
+                .setMediaType("Electronic")
+                .setParentExternalId("aggregation")
+                .build();
+    }
+
+    private static SubmitItemRequest newRequest(ItemSubmission submission) {
+        return SubmitItemRequest.Builder().setPayload(submission).build();
+    }
+
+    @Test
+    void testUnchangedItemsAreNotResubmitted() throws Exception {
+        Path file = directory.resolve("items.fingerprints");
+        try (FingerprintStore store = FingerprintStore.Builder().setFile(file).build()) {
+            ItemServiceClient client = newClient(store);
+            for (int i = 0; i < 3; i++) {
+                client.submitItem(newRequest(newItemSubmission("item-" + i, "v1")));
+            }
+            assertEquals(3, submitted.get());
+            assertEquals("item-0", client.submitItem(newRequest(newItemSubmission("item-0", "v1"))).getExternalId());
+            client.submitItemAsync(newRequest(newItemSubmission("item-1", "v1"))).join();
+            assertEquals(3, submitted.get());
+            client.submitItem(newRequest(newItemSubmission("item-2", "v2")));
+            assertEquals(4, submitted.get());
+        }
+        // the fingerprints outlive the process
+        try (FingerprintStore store = FingerprintStore.Builder().setFile(file).build()) {
+            assertEquals(3, store.size());
+            ItemServiceClient client = newClient(store);
+            client.submitItem(newRequest(newItemSubmission("item-0", "v1")));
+            client.submitItem(newRequest(newItemSubmission("item-2", "v2")));
+            assertEquals(4, submitted.get());
+        }
+    }
+
+    @Test
+    void testStoreGrows() throws Exception {
+        Path file = directory.resolve("grown.fingerprints");
+        try (FingerprintStore store = FingerprintStore.Builder().setFile(file).setInitialCapacity(10).build()) {
+            for (int i = 0; i < 5000; i++) {
+                store.put(newItemSubmission("item-" + i, "v1"));
+            }
+            assertEquals(5000, store.size());
+        }
+        try (FingerprintStore store = FingerprintStore.Builder().setFile(file).build()) {
+            assertEquals(5000, store.size());
+            for (int i = 0; i < 5000; i++) {
+                assertTrue(store.matches(newItemSubmission("item-" + i, "v1")));
+                assertFalse(store.matches(newItemSubmission("item-" + i, "v2")));
+            }
+            assertFalse(store.matches(newItemSubmission("item-5000", "v1")));
+            // an item of the first table is updated where it is
+            store.put(newItemSubmission("item-0", "v2"));
+            assertEquals(5000, store.size());
+            assertTrue(store.matches(newItemSubmission("item-0", "v2")));
+        }
+        assertFalse(Files.exists(directory.resolve("grown.fingerprints.resize")));
+    }
+}
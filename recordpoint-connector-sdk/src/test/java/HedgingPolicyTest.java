@@ -0,0 +1,139 @@
+import com.recordpoint.connectors.sdk.http.HttpTransport;
+import com.recordpoint.connectors.sdk.http.apache.ApacheAsyncHttpTransport;
+import com.recordpoint.connectors.sdk.http.apache.ApacheHttpTransport;
+import com.recordpoint.connectors.sdk.service.HedgingPolicy;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.item.GetItemsRequest;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingPolicyTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicBoolean slowNext = new AtomicBoolean();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", this::handleItems);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (slowNext.compareAndSet(true, false)) {
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ItemServiceClient newClient(HttpTransport transport, HedgingPolicy hedgingPolicy) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setTransport(transport)
+                .setHedgingPolicy(hedgingPolicy)
+                .build();
+    }
+
+    private static HedgingPolicy newHedgingPolicy(double maxHedgeRatio) {
+        return HedgingPolicy.Builder()
+                .setWindowSize(10)
+                .setMinimumSamples(5)
+                .setMinimumDelay(Duration.ofMillis(100))
+                .setMaxHedgeRatio(maxHedgeRatio)
+                .build();
+    }
+
+    private static GetItemsRequest newGetItemsRequest() {
+        return GetItemsRequest.Builder().setFieldName("externalId").setFieldValue("item-1").build();
+    }
+
+    @Test
+    void testSlowRequestIsHedged() throws Exception {
+        HedgingPolicy hedgingPolicy = newHedgingPolicy(1);
+        ItemServiceClient client = newClient(new ApacheHttpTransport(), hedgingPolicy);
+        for (int i = 0; i < 10; i++) {
+            client.getItemsList(newGetItemsRequest());
+        }
+        slowNext.set(true);
+        long start = System.nanoTime();
+        assertNotNull(client.getItemsList(newGetItemsRequest()));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertEquals(12, requests.get());
+        assertEquals(1, hedgingPolicy.getHedgesSent());
+        assertEquals(1, hedgingPolicy.getHedgesWon());
+    }
+
+    @Test
+    void testSlowAsyncRequestIsHedged() throws Exception {
+        ApacheAsyncHttpTransport transport = new ApacheAsyncHttpTransport();
+        try {
+            HedgingPolicy hedgingPolicy = newHedgingPolicy(1);
+            ItemServiceClient client = newClient(transport, hedgingPolicy);
+            for (int i = 0; i < 10; i++) {
+                client.getItemsListAsync(newGetItemsRequest()).get(10, TimeUnit.SECONDS);
+            }
+            slowNext.set(true);
+            long start = System.nanoTime();
+            assertNotNull(client.getItemsListAsync(newGetItemsRequest()).get(10, TimeUnit.SECONDS));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            assertEquals(1, hedgingPolicy.getHedgesWon());
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    void testHedgesAreLimitedByTheBudget() throws Exception {
+        HedgingPolicy hedgingPolicy = newHedgingPolicy(0);
+        ItemServiceClient client = newClient(new ApacheHttpTransport(), hedgingPolicy);
+        for (int i = 0; i < 10; i++) {
+            client.getItemsList(newGetItemsRequest());
+        }
+        slowNext.set(true);
+        long start = System.nanoTime();
+        assertNotNull(client.getItemsList(newGetItemsRequest()));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 2900);
+        assertEquals(11, requests.get());
+        assertEquals(0, hedgingPolicy.getHedgesSent());
+    }
+}
@@ -0,0 +1,128 @@
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.ItemSubmissionPipeline;
+import com.recordpoint.connectors.sdk.service.item.model.ItemAcceptance;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemSubmissionPipelineTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", this::handleItems);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            String body = TestSupport.readAll(exchange.getRequestBody());
+            Thread.sleep(20);
+            TestSupport.respond(exchange, body.contains("\"bad-item\"") ? 400 : 200, "{}");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private ItemServiceClient newClient() {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    private static ItemSubmission newItemSubmission(String externalId) {
+        return ItemSubmission.Builder()
+                .setExternalId(externalId)
+                .setConnectorId("connector")
+                .setTitle("Item " + externalId)
+                .setAuthor("Connector Java SDK")
+                .setSourceLastModifiedDate(Instant.now())
+                .setSourceLastModifiedBy("Connector Java SDK")
+                .setSourceCreatedBy("Connector Java SDK")
+                .setSourceCreatedDate(Instant.now())
+                .setContentVersion("v1.0")
+                .setLocation("/test/" + externalId)
+                .setMediaType("Electronic")
+                .setParentExternalId("aggregation")
+                .build();
+    }
+
+    @Test
+    void testItemsAreSubmittedByTheWorkers() throws Exception {
+        List<String> accepted = new CopyOnWriteArrayList<>();
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+        ItemSubmissionPipeline pipeline = ItemSubmissionPipeline.Builder()
+                .setItemServiceClient(newClient())
+                .setWorkers(4)
+                .setQueueCapacity(2)
+                .setListener(new ItemSubmissionPipeline.Listener() {
+                    @Override
+                    public void onSuccess(ItemSubmission submission, ItemAcceptance acceptance) {
+                        accepted.add(submission.getExternalId());
+                    }
+
+                    @Override
+                    public void onFailure(ItemSubmission submission, Exception error) {
+                        errors.add(error);
+                    }
+                })
+                .build();
+        try {
+            for (int i = 0; i < 39; i++) {
+                pipeline.offer(newItemSubmission("item-" + i));
+                // the queue and the workers hold at most 6 items
+                assertTrue(pipeline.getPendingCount() <= 6);
+            }
+            pipeline.offer(newItemSubmission("bad-item"));
+            pipeline.flush();
+        } finally {
+            pipeline.close();
+        }
+        assertEquals(39, accepted.size());
+        assertEquals(1, errors.size());
+        assertInstanceOf(HttpResponseException.class, errors.get(0));
+        assertEquals(39, pipeline.getSucceededCount());
+        assertEquals(1, pipeline.getFailedCount());
+        assertEquals(0, pipeline.getPendingCount());
+        assertTrue(maxInFlight.get() <= 4);
+        assertTrue(pipeline.getThroughput() > 0);
+        assertTrue(pipeline.getAverageLatency().toMillis() >= 20);
+        assertThrows(IllegalStateException.class, () -> pipeline.offer(newItemSubmission("late")));
+    }
+}
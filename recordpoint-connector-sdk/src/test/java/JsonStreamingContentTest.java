@@ -0,0 +1,61 @@
+import com.google.common.io.ByteStreams;
+import com.recordpoint.connectors.sdk.http.JsonStreamingContent;
+import com.recordpoint.connectors.sdk.json.JsonMapper;
+import com.recordpoint.connectors.sdk.json.jackson.JacksonMapper;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.recordpoint.connectors.sdk.service.model.Metadata;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonStreamingContentTest {
+
+    private static ItemSubmission newItemSubmission() {
+        List<Metadata> properties = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            properties.add(Metadata.of("property" + i, "valeur \u00e9t\u00e9 " + i));
+        }
+        return ItemSubmission.Builder()
+                .setExternalId("item-1")
+                .setConnectorId("connector")
+                .setTitle("Fran\u00e7ais \u6587\u66f8")
+                .setAuthor("author")
+                .setLocation("location")
+                .setParentExternalId("parent")
+                .setContentVersion("1")
+                .setMediaType(ItemSubmission.MediaType.ELECTRONIC)
+                .setSourceCreatedBy("creator")
+                .setSourceCreatedDate(Instant.parse("2024-01-01T00:00:00Z"))
+                .setSourceLastModifiedBy("modifier")
+                .setSourceLastModifiedDate(Instant.parse("2024-01-02T00:00:00Z"))
+                .setSourceProperties(properties)
+                .build();
+    }
+
+    @Test
+    void testWritesUtf8Json() throws Exception {
+        JsonMapper mapper = new JacksonMapper();
+        ItemSubmission submission = newItemSubmission();
+        byte[] expected = mapper.parseAsString(submission).getBytes(StandardCharsets.UTF_8);
+
+        JsonStreamingContent content = new JsonStreamingContent(submission, mapper);
+        assertEquals(expected.length, content.getContentLength());
+        try (InputStream in = content.getInputStream()) {
+            assertArrayEquals(expected, ByteStreams.toByteArray(in));
+        }
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            content.writeTo(out);
+            assertArrayEquals(expected, out.toByteArray());
+        }
+        assertEquals(new String(expected, StandardCharsets.UTF_8), content.getJsonRepresentation(mapper));
+        assertEquals(expected.length, content.toByteBuffer().remaining());
+    }
+}
@@ -0,0 +1,193 @@
+import com.azure.core.credential.AccessToken;
+import com.azure.core.credential.TokenCredential;
+import com.recordpoint.connectors.sdk.auth.FileTokenStore;
+import com.recordpoint.connectors.sdk.auth.MsalTokenManager;
+import com.recordpoint.connectors.sdk.auth.TokenRequest;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MsalTokenManagerTest {
+
+    private static TokenCredential countingCredential(AtomicInteger fetches, Duration lifetime) {
+        return context -> Mono.fromCallable(() -> new AccessToken("token-" + fetches.incrementAndGet(),
+                OffsetDateTime.now().plus(lifetime)));
+    }
+
+    @Test
+    void testConcurrentCallersShareOneFetch() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        TokenRequest tokenRequest = new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "scope");
+        ExecutorService workers = Executors.newFixedThreadPool(16);
+        try (MsalTokenManager tokenManager = MsalTokenManager.Builder().setTokenRequest(tokenRequest).build()) {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tokens.add(workers.submit(tokenManager::getAccessToken));
+            }
+            for (Future<String> token : tokens) {
+                assertEquals("token-1", token.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, fetches.get());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentResetsCollapseIntoOneFetch() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        TokenRequest tokenRequest = new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "scope");
+        ExecutorService workers = Executors.newFixedThreadPool(16);
+        try (MsalTokenManager tokenManager = MsalTokenManager.Builder().setTokenRequest(tokenRequest).build()) {
+            String rejected = tokenManager.getAccessToken();
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tokens.add(workers.submit(() -> {
+                    tokenManager.resetToken(rejected);
+                    return tokenManager.getAccessToken();
+                }));
+            }
+            for (Future<String> token : tokens) {
+                assertEquals("token-2", token.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(2, fetches.get());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRefreshAheadReplacesTokenInBackground() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        TokenRequest tokenRequest = new TokenRequest(countingCredential(fetches, Duration.ofSeconds(5)), "scope");
+        try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                .setTokenRequest(tokenRequest)
+                .setRefreshAhead(true)
+                .setRefreshRatio(0.5)
+                .setRefreshJitter(Duration.ZERO)
+                .setClockSkew(Duration.ZERO)
+                .build()) {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (fetches.get() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("token-1", tokenManager.getAccessToken());
+            assertEquals(1, fetches.get());
+
+            while (fetches.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals("token-2", tokenManager.getAccessToken());
+            assertEquals(2, fetches.get());
+        }
+    }
+
+    @Test
+    void testTokenStoreSkipsFetchOnNextRun() throws Exception {
+        Path directory = Files.createTempDirectory("tokens");
+        Path file = directory.resolve("token.bin");
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) 7);
+        FileTokenStore tokenStore = FileTokenStore.Builder().setPath(file).setKey(key).build();
+        try {
+            AtomicInteger fetches = new AtomicInteger();
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "tenant", "client", "scope"))
+                    .setTokenStore(tokenStore)
+                    .build()) {
+                assertEquals("token-1", tokenManager.getAccessToken());
+            }
+            assertTrue(Files.exists(file));
+            assertFalse(new String(Files.readAllBytes(file), "ISO-8859-1").contains("token-1"));
+
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "tenant", "client", "scope"))
+                    .setTokenStore(tokenStore)
+                    .build()) {
+                assertEquals("token-1", tokenManager.getAccessToken());
+            }
+            assertEquals(1, fetches.get());
+
+            byte[] otherKey = new byte[32];
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "tenant", "client", "scope"))
+                    .setTokenStore(FileTokenStore.Builder().setPath(file).setKey(otherKey).build())
+                    .build()) {
+                assertEquals("token-2", tokenManager.getAccessToken());
+            }
+
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "tenant", "client", "other"))
+                    .setTokenStore(FileTokenStore.Builder().setPath(file).setKey(otherKey).build())
+                    .build()) {
+                assertEquals("token-3", tokenManager.getAccessToken());
+            }
+
+            // a credential of unknown tenant and client is neither read from nor written to the store
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "other"))
+                    .setTokenStore(FileTokenStore.Builder().setPath(file).setKey(otherKey).build())
+                    .build()) {
+                assertEquals("token-4", tokenManager.getAccessToken());
+            }
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "tenant",
+                            "client", "other"))
+                    .setTokenStore(FileTokenStore.Builder().setPath(file).setKey(otherKey).build())
+                    .build()) {
+                assertEquals("token-3", tokenManager.getAccessToken());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testTokenStoreFileIsOwnerOnly() throws Exception {
+        Path directory = Files.createTempDirectory("tokens");
+        Path file = directory.resolve("state").resolve("token.bin");
+        try {
+            try (MsalTokenManager tokenManager = MsalTokenManager.Builder()
+                    .setTokenRequest(new TokenRequest(countingCredential(new AtomicInteger(), Duration.ofHours(1)),
+                            "tenant", "client", "scope"))
+                    .setTokenStore(FileTokenStore.Builder().setPath(file).setKey(new byte[32]).build())
+                    .build()) {
+                assertEquals("token-1", tokenManager.getAccessToken());
+            }
+            assertTrue(Files.exists(file));
+            if (file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+                assertEquals("rwx------",
+                        PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent())));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(file.getParent());
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testGetTokenAsync() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        try (TokenRequest tokenRequest = new TokenRequest(countingCredential(fetches, Duration.ofHours(1)), "scope")) {
+            assertEquals("token-1", tokenRequest.getTokenAsync().get(10, TimeUnit.SECONDS).getAccessToken());
+        }
+    }
+}
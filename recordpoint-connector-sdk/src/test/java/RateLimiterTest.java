@@ -0,0 +1,113 @@
+import com.recordpoint.connectors.sdk.http.apache.ApacheAsyncHttpTransport;
+import com.recordpoint.connectors.sdk.service.RateLimiter;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.item.GetItemsRequest;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmissionOutput;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ApacheAsyncHttpTransport transport;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", this::handleItems);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        transport = new ApacheAsyncHttpTransport();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        transport.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ItemServiceClient newClient(String tenantId, RateLimiter rateLimiter) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).setTenantId(tenantId).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setTransport(transport)
+                .setRateLimiter(rateLimiter)
+                .build();
+    }
+
+    private static GetItemsRequest newGetItemsRequest() {
+        return GetItemsRequest.Builder().setFieldName("externalId").setFieldValue("item-1").build();
+    }
+
+    @Test
+    void testRequestsAboveTheRateWait() throws Exception {
+        RateLimiter rateLimiter = RateLimiter.Builder()
+                .setRate("/connector/api/items", 20)
+                .setBurst(Duration.ofMillis(250))
+                .build();
+        ItemServiceClient client = newClient("tenant", rateLimiter);
+        long start = System.nanoTime();
+        List<CompletableFuture<List<ItemSubmissionOutput>>> futures = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            futures.add(client.getItemsListAsync(newGetItemsRequest()));
+        }
+        for (CompletableFuture<List<ItemSubmissionOutput>> future : futures) {
+            assertNotNull(future.get(10, TimeUnit.SECONDS));
+        }
+        // 5 requests fit in the burst, the other 10 are sent 50 ms apart
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 450);
+        assertEquals(15, requests.get());
+    }
+
+    @Test
+    void testTenantsHaveSeparateBuckets() throws Exception {
+        RateLimiter rateLimiter = RateLimiter.Builder().setTenantRate(2).build();
+        ItemServiceClient first = newClient("tenant-1", rateLimiter);
+        ItemServiceClient second = newClient("tenant-2", rateLimiter);
+        long start = System.nanoTime();
+        first.getItemsList(newGetItemsRequest());
+        first.getItemsList(newGetItemsRequest());
+        second.getItemsList(newGetItemsRequest());
+        second.getItemsList(newGetItemsRequest());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 450);
+
+        first.getItemsList(newGetItemsRequest());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 450);
+        assertEquals(5, requests.get());
+    }
+}
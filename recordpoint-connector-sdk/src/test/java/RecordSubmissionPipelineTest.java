@@ -0,0 +1,225 @@
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.binary.BinaryServiceClient;
+import com.recordpoint.connectors.sdk.service.binary.RecordSubmissionPipeline;
+import com.recordpoint.connectors.sdk.service.binary.SubmitFileRequest;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.ItemSubmissionPipeline;
+import com.recordpoint.connectors.sdk.service.item.model.ItemAcceptance;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordSubmissionPipelineTest {
+
+    private static final Pattern ITEM_ID = Pattern.compile("\"(?:externalId|itemExternalId)\"\\s*:\\s*\"([^\"]+)\"");
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final Set<String> acceptedItems = ConcurrentHashMap.newKeySet();
+    private final List<String> notifiedItems = new CopyOnWriteArrayList<>();
+    private final List<String> notifiedBeforeItem = new CopyOnWriteArrayList<>();
+    private final AtomicInteger uploadedBlobs = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/connector/api/Items", exchange -> {
+            String itemId = itemIdOf(TestSupport.readAll(exchange.getRequestBody()));
+            if (itemId.startsWith("rejected")) {
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
+            }
+            pause();
+            acceptedItems.add(itemId);
+            TestSupport.respond(exchange, "{}");
+        });
+        server.createContext("/connector/api/Binaries/GetSASToken", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            pause();
+            TestSupport.respond(exchange,
+                    "{\"url\":\"" + baseUrl + "/blob/item?sv=1&se=2099-01-01T00%3A00%3A00Z&sig=abc\"}");
+        });
+        server.createContext("/blob", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            uploadedBlobs.incrementAndGet();
+            pause();
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        server.createContext("/connector/api/Binaries/NotifyBinarySubmission", exchange -> {
+            String itemId = itemIdOf(TestSupport.readAll(exchange.getRequestBody()));
+            if (!acceptedItems.contains(itemId)) {
+                notifiedBeforeItem.add(itemId);
+            }
+            pause();
+            notifiedItems.add(itemId);
+            TestSupport.respond(exchange, "{}");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String itemIdOf(String body) {
+        Matcher matcher = ITEM_ID.matcher(body);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private ServiceSettings newSettings() {
+        return ServiceSettings.Builder().setBaseUrl(baseUrl).build();
+    }
+
+    private static ItemSubmission newItemSubmission(String externalId) {
+        return ItemSubmission.Builder()
+                .setExternalId(externalId)
+                .setConnectorId("connector")
+                .setTitle("Item " + externalId)
+                .setAuthor("Connector Java SDK")
+                .setSourceLastModifiedDate(Instant.now())
+                .setSourceLastModifiedBy("Connector Java SDK")
+                .setSourceCreatedBy("Connector Java SDK")
+                .setSourceCreatedDate(Instant.now())
+                .setContentVersion("v1.0")
+                .setLocation("/test/" + externalId)
+                .setMediaType("Electronic")
+                .setParentExternalId("aggregation")
+                .build();
+    }
+
+    private static SubmitFileRequest newSubmitFileRequest(String itemExternalId) {
+        byte[] content = new byte[1024];
+        return SubmitFileRequest.Builder()
+                .setFileSubmissionInfo(DirectBinarySubmission.Builder()
+                        .connectorId("connector")
+                        .itemExternalId(itemExternalId)
+                        .binaryExternalId(itemExternalId + "-binary")
+                        .sourceLastModifiedDate(Instant.now())
+                        .mimeType("application/pdf")
+                        .fileSize(content.length)
+                        .build())
+                .setFileContent(new ByteArrayInputStream(content))
+                .build();
+    }
+
+    @Test
+    void testStagesOfRecordsOverlap() throws Exception {
+        ItemServiceClient itemServiceClient = (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(newSettings())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+        BinaryServiceClient binaryServiceClient = (BinaryServiceClient) BinaryServiceClient.Builder()
+                .setServiceSettings(newSettings())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+        List<String> succeeded = new CopyOnWriteArrayList<>();
+        RecordSubmissionPipeline pipeline = RecordSubmissionPipeline.Builder()
+                .setItemServiceClient(itemServiceClient)
+                .setBinaryServiceClient(binaryServiceClient)
+                .setWorkers(4)
+                .setUploadWorkers(4)
+                .setMaxRecordsInFlight(8)
+                .setListener(new ItemSubmissionPipeline.Listener() {
+                    @Override
+                    public void onSuccess(ItemSubmission submission, ItemAcceptance acceptance) {
+                        succeeded.add(submission.getExternalId());
+                    }
+
+                    @Override
+                    public void onFailure(ItemSubmission submission, Exception error) {
+                    }
+                })
+                .build();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < 8; i++) {
+                String itemId = "item-" + i;
+                pipeline.offer(newItemSubmission(itemId), newSubmitFileRequest(itemId));
+            }
+            pipeline.flush();
+        } finally {
+            pipeline.close();
+        }
+        // four sequential round trips of 100 ms would take 3.2 s for 8 records
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1600);
+        assertEquals(8, succeeded.size());
+        assertEquals(8, pipeline.getSucceededCount());
+        assertEquals(8, notifiedItems.size());
+        assertTrue(notifiedBeforeItem.isEmpty());
+    }
+
+    @Test
+    void testBinariesOfRejectedItemAreNotUploaded() throws Exception {
+        ItemServiceClient itemServiceClient = (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(newSettings())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+        BinaryServiceClient binaryServiceClient = (BinaryServiceClient) BinaryServiceClient.Builder()
+                .setServiceSettings(newSettings())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+        List<Exception> failures = new CopyOnWriteArrayList<>();
+        RecordSubmissionPipeline pipeline = RecordSubmissionPipeline.Builder()
+                .setItemServiceClient(itemServiceClient)
+                .setBinaryServiceClient(binaryServiceClient)
+                .setListener(new ItemSubmissionPipeline.Listener() {
+                    @Override
+                    public void onSuccess(ItemSubmission submission, ItemAcceptance acceptance) {
+                    }
+
+                    @Override
+                    public void onFailure(ItemSubmission submission, Exception error) {
+                        failures.add(error);
+                    }
+                })
+                .build();
+        try {
+            pipeline.offer(newItemSubmission("rejected-1"), newSubmitFileRequest("rejected-1"));
+            pipeline.flush();
+        } finally {
+            pipeline.close();
+        }
+        assertEquals(1, pipeline.getFailedCount());
+        assertEquals(1, failures.size());
+        assertFalse(failures.get(0) instanceof CancellationException);
+        assertEquals(0, uploadedBlobs.get());
+        assertTrue(notifiedItems.isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.service.RetryPolicy;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.SubmitItemRequest;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+    private volatile int failureStatus;
+    private volatile String retryAfter;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", this::handleItems);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private void handleItems(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            while (in.read() != -1) {
+                // drain the request body
+            }
+        }
+        requests.incrementAndGet();
+        if (failuresToInject.getAndDecrement() > 0) {
+            if (retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            exchange.sendResponseHeaders(failureStatus, -1);
+            exchange.close();
+            return;
+        }
+        byte[] body = "{\"externalId\":\"item-1\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ItemServiceClient newClient(RetryPolicy retryPolicy) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .setRetryPolicy(retryPolicy)
+                .build();
+    }
+
+    private static SubmitItemRequest newSubmitItemRequest() {
+        Instant now = Instant.now();
+        return SubmitItemRequest.Builder().setPayload(ItemSubmission.Builder()
+                .setExternalId("item-1")
+                .setConnectorId("connector")
+                .setTitle("Item")
+                .setAuthor("author")
+                .setLocation("location")
+                .setParentExternalId("parent")
+                .setContentVersion("1")
+                .setMediaType(ItemSubmission.MediaType.ELECTRONIC)
+                .setSourceCreatedBy("author")
+                .setSourceCreatedDate(now)
+                .setSourceLastModifiedBy("author")
+                .setSourceLastModifiedDate(now)
+                .build()).build();
+    }
+
+    private static RetryPolicy.Builder fastRetries() {
+        return RetryPolicy.Builder().setBaseDelay(Duration.ofMillis(1)).setMaxDelay(Duration.ofMillis(10));
+    }
+
+    @Test
+    void testThrottledRequestIsRetriedAfterRetryAfter() throws Exception {
+        failureStatus = 429;
+        retryAfter = "1";
+        failuresToInject.set(1);
+        ItemServiceClient client = newClient(fastRetries().build());
+        long start = System.nanoTime();
+        assertEquals("item-1", client.submitItem(newSubmitItemRequest()).getExternalId());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testServerErrorIsOnlyRetriedForIdempotentMethods() throws Exception {
+        failureStatus = 503;
+        failuresToInject.set(1);
+        ItemServiceClient client = newClient(fastRetries().build());
+        HttpResponseException exception = assertThrows(HttpResponseException.class,
+                () -> client.submitItem(newSubmitItemRequest()));
+        assertEquals(503, exception.getStatusCode());
+        assertEquals(1, requests.get());
+
+        failuresToInject.set(2);
+        ItemServiceClient idempotentClient = newClient(fastRetries().setIdempotentMethods("POST").build());
+        assertEquals("item-1", idempotentClient.submitItemAsync(newSubmitItemRequest())
+                .get(10, TimeUnit.SECONDS).getExternalId());
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void testRetriesStopWhenBudgetIsExhausted() {
+        failureStatus = 429;
+        failuresToInject.set(100);
+        ItemServiceClient client = newClient(fastRetries().setMaxAttempts(10).setMinBudget(3).setBudgetRatio(0).build());
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> client.submitItemAsync(newSubmitItemRequest()).get(10, TimeUnit.SECONDS));
+        assertEquals(429, ((HttpResponseException) exception.getCause()).getStatusCode());
+        assertEquals(4, requests.get());
+    }
+}
@@ -0,0 +1,181 @@
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.binary.BinaryServiceClient;
+import com.recordpoint.connectors.sdk.service.binary.SasTokenPrefetcher;
+import com.recordpoint.connectors.sdk.service.binary.SubmitFileRequest;
+import com.recordpoint.connectors.sdk.service.binary.model.DirectBinarySubmission;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SasTokenPrefetcherTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private volatile String sasExpiry = "2099-01-01T00%3A00%3A00Z";
+    private final AtomicInteger sasRequests = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        server.createContext("/connector/api/Binaries/GetSASToken", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            sasRequests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            TestSupport.respond(exchange,
+                    "{\"url\":\"" + baseUrl + "/blob/item?sv=1&se=" + sasExpiry + "&sig=abc\"}");
+        });
+        server.createContext("/blob", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            exchange.sendResponseHeaders(201, -1);
+            exchange.close();
+        });
+        server.createContext("/connector/api/Binaries/NotifyBinarySubmission", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            TestSupport.respond(exchange, "{}");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private BinaryServiceClient newClient() {
+        return (BinaryServiceClient) BinaryServiceClient.Builder()
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    private static List<SubmitFileRequest> newSubmitFileRequests(int count) {
+        List<SubmitFileRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] content = new byte[1024];
+            requests.add(SubmitFileRequest.Builder()
+                    .setFileSubmissionInfo(DirectBinarySubmission.Builder()
+                            .connectorId("connector")
+                            .itemExternalId("item-" + i)
+                            .binaryExternalId("binary-" + i)
+                            .sourceLastModifiedDate(Instant.now())
+                            .mimeType("application/pdf")
+                            .fileSize(content.length)
+                            .build())
+                    .setFileContent(new ByteArrayInputStream(content))
+                    .build());
+        }
+        return requests;
+    }
+
+    @Test
+    void testSubmissionsUsePrefetchedTokens() throws Exception {
+        BinaryServiceClient client = newClient();
+        List<SubmitFileRequest> requests = newSubmitFileRequests(9);
+        // the first submission warms up the client
+        client.submitFile(requests.remove(0));
+        sasRequests.set(0);
+        try (SasTokenPrefetcher prefetcher = SasTokenPrefetcher.Builder()
+                .setBinaryServiceClient(client)
+                .setLookAhead(8)
+                .setWorkers(8)
+                .build()) {
+            long start = System.nanoTime();
+            requests.forEach(request -> prefetcher.prefetch(request.getFileSubmission()));
+            for (SubmitFileRequest request : requests) {
+                client.submitFile(request, prefetcher);
+            }
+            // requesting the tokens one submission at a time would take 1.6 s
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+            assertEquals(8, prefetcher.getHitCount());
+            assertEquals(0, prefetcher.getMissCount());
+            assertEquals(8, sasRequests.get());
+        }
+    }
+
+    @Test
+    void testExpiringTokensAreRequestedOnSubmission() throws Exception {
+        sasExpiry = "2000-01-01T00%3A00%3A00Z";
+        BinaryServiceClient client = newClient();
+        List<SubmitFileRequest> requests = newSubmitFileRequests(2);
+        try (SasTokenPrefetcher prefetcher = SasTokenPrefetcher.Builder()
+                .setBinaryServiceClient(client)
+                .build()) {
+            requests.forEach(request -> prefetcher.prefetch(request.getFileSubmission()));
+            for (SubmitFileRequest request : requests) {
+                client.submitFile(request, prefetcher);
+            }
+            assertEquals(0, prefetcher.getHitCount());
+            assertEquals(2, prefetcher.getMissCount());
+        }
+    }
+
+    @Test
+    void testCloseReleasesSubmissionsWaitingForQueuedTokens() throws Exception {
+        BinaryServiceClient client = newClient();
+        List<SubmitFileRequest> requests = newSubmitFileRequests(2);
+        SasTokenPrefetcher prefetcher = SasTokenPrefetcher.Builder()
+                .setBinaryServiceClient(client)
+                .setLookAhead(2)
+                .setWorkers(1)
+                .build();
+        requests.forEach(request -> prefetcher.prefetch(request.getFileSubmission()));
+        // the token of the second binary waits behind the first one for the only worker
+        CompletableFuture<Void> submission = CompletableFuture.runAsync(() -> {
+            try {
+                client.submitFile(requests.get(1), prefetcher);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        Thread.sleep(50);
+        prefetcher.close();
+        submission.get(5, TimeUnit.SECONDS);
+        assertEquals(1, prefetcher.getMissCount());
+    }
+
+    @Test
+    void testExpiredTokensOfUnusedBinariesAreNotRequestedAgain() throws Exception {
+        sasExpiry = "2000-01-01T00%3A00%3A00Z";
+        BinaryServiceClient client = newClient();
+        List<SubmitFileRequest> requests = newSubmitFileRequests(3);
+        try (SasTokenPrefetcher prefetcher = SasTokenPrefetcher.Builder()
+                .setBinaryServiceClient(client)
+                .setLookAhead(2)
+                .setWorkers(2)
+                .build()) {
+            prefetcher.prefetch(requests.get(0).getFileSubmission());
+            prefetcher.prefetch(requests.get(1).getFileSubmission());
+            Thread.sleep(400);
+            // both expired tokens are forgotten, leaving room for the third binary
+            prefetcher.prefetch(requests.get(2).getFileSubmission());
+            Thread.sleep(400);
+            prefetcher.prefetch(requests.get(2).getFileSubmission());
+            assertEquals(3, sasRequests.get());
+        }
+    }
+}
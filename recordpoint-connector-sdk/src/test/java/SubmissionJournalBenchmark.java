@@ -0,0 +1,144 @@
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.SubmissionJournal;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.SubmitItemRequest;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the overhead of a {@link SubmissionJournal} on item submissions. Items are offered at a fixed rate, 10,000
+ * per second by default, to a client sending them to a loopback stub of the service, first without a journal and then
+ * with one, and the benchmark prints the rate achieved, the latency of the submissions and the number of forces of the
+ * journal per item.
+ * <p>
+ * It is not run by the build. Run it from the module directory after compiling the tests:
+ * </p>
+ * <pre>{@code
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) SubmissionJournalBenchmark [rate] [seconds]
+ * }</pre>
+ */
+public final class SubmissionJournalBenchmark {
+
+    private static final int SUBMITTERS = 64;
+    private static final Instant MODIFIED = Instant.parse("2024-01-13T00:00:00Z");
+
+    private SubmissionJournalBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        // without it, delayed acknowledgements cap each connection of the stub to about 25 requests per second
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(SUBMITTERS);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", exchange -> {
+            TestSupport.readAll(exchange.getRequestBody());
+            TestSupport.respond(exchange, "{}");
+        });
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        Path directory = Files.createTempDirectory("journal-benchmark");
+        try {
+            // warm up the client, the stub and the JIT
+            run(newClient(baseUrl, null), "warmup", rate, Math.max(1, seconds / 2));
+            report("without a journal", run(newClient(baseUrl, null), "plain", rate, seconds), null);
+            try (SubmissionJournal journal = SubmissionJournal.Builder().setDirectory(directory).build()) {
+                report("with a journal", run(newClient(baseUrl, journal), "journaled", rate, seconds), journal);
+            }
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static ItemServiceClient newClient(String baseUrl, SubmissionJournal journal) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setSubmissionJournal(journal)
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    /**
+     * Submits items at the given rate for the given time, each submitter taking the next slot of the schedule, and
+     * returns the latencies of the submissions followed by the elapsed time.
+     */
+    private static long[] run(ItemServiceClient client, String prefix, int rate, int seconds) throws Exception {
+        int items = rate * seconds;
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        AtomicLong next = new AtomicLong();
+        long[] latencies = new long[items];
+        ExecutorService submitters = Executors.newFixedThreadPool(SUBMITTERS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < SUBMITTERS; i++) {
+                workers.add(submitters.submit(() -> {
+                    for (int item = (int) next.getAndIncrement(); item < items; item = (int) next.getAndIncrement()) {
+                        long slot = start + item * interval;
+                        long wait = slot - System.nanoTime();
+                        if (wait > 0) {
+                            TimeUnit.NANOSECONDS.sleep(wait);
+                        }
+                        long sent = System.nanoTime();
+                        client.submitItem(newRequest(prefix + "-" + item));
+                        latencies[item] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            submitters.shutdownNow();
+        }
+        long[] result = Arrays.copyOf(latencies, items + 1);
+        result[items] = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void report(String mode, long[] result, SubmissionJournal journal) {
+        int items = result.length - 1;
+        long elapsed = result[items];
+        long[] latencies = Arrays.copyOf(result, items);
+        Arrays.sort(latencies);
+        System.out.printf("%-18s %8.0f items/s, latency p50 %6.2f ms, p99 %6.2f ms%s%n", mode,
+                items * (double) TimeUnit.SECONDS.toNanos(1) / elapsed,
+                latencies[items / 2] / 1e6, latencies[(int) (items * 0.99)] / 1e6,
+                journal != null ? String.format(", %.2f forces per item", journal.getSyncCount() / (double) items) : "");
+    }
+
+    private static SubmitItemRequest newRequest(String externalId) {
+        return SubmitItemRequest.Builder().setPayload(ItemSubmission.Builder()
+                .setExternalId(externalId)
+                .setConnectorId("connector")
+                .setTitle("Item " + externalId)
+                .setAuthor("Connector Java SDK")
+                .setSourceLastModifiedDate(MODIFIED)
+                .setSourceLastModifiedBy("Connector Java SDK")
+                .setSourceCreatedBy("Connector Java SDK")
+                .setSourceCreatedDate(MODIFIED)
+                .setContentVersion("v1")
+                .setLocation("/test/" + externalId)
+                .setMediaType("Electronic")
+                .setParentExternalId("aggregation")
+                .build()).build();
+    }
+}
@@ -0,0 +1,222 @@
+import com.recordpoint.connectors.sdk.http.exception.HttpResponseException;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import com.recordpoint.connectors.sdk.service.SubmissionJournal;
+import com.recordpoint.connectors.sdk.service.item.ItemServiceClient;
+import com.recordpoint.connectors.sdk.service.item.SubmitItemRequest;
+import com.recordpoint.connectors.sdk.service.item.model.ItemSubmission;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubmissionJournalTest {
+
+    private static final Instant MODIFIED = Instant.parse("2024-01-13T00:00:00Z");
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private Path directory;
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private volatile CountDownLatch received;
+    private volatile CountDownLatch release;
+    private volatile int status = 200;
+    private volatile String rejectedItem;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.createContext("/connector/api/Items", exchange -> {
+            String body = TestSupport.readAll(exchange.getRequestBody());
+            if (release != null) {
+                received.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            boolean rejected = rejectedItem != null && body.contains("\"" + rejectedItem + "\"");
+            if (!rejected && status == 200) {
+                bodies.add(body);
+            }
+            TestSupport.respond(exchange, rejected ? 400 : status, "{}");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    private ItemServiceClient newClient(SubmissionJournal journal) {
+        return (ItemServiceClient) ItemServiceClient.Builder()
+                .setSubmissionJournal(journal)
+                .setServiceSettings(ServiceSettings.Builder().setBaseUrl(baseUrl).build())
+                .setTokenManager(new TestSupport.StaticTokenManager())
+                .build();
+    }
+
+    private static SubmitItemRequest newRequest(String externalId) {
+        return SubmitItemRequest.Builder().setPayload(ItemSubmission.Builder()
+                .setExternalId(externalId)
+                .setConnectorId("connector")
+                .setTitle("Item " + externalId)
+                .setAuthor("Connector Java SDK")
+                .setSourceLastModifiedDate(MODIFIED)
+                .setSourceLastModifiedBy("Connector Java SDK")
+                .setSourceCreatedBy("Connector Java SDK")
+                .setSourceCreatedDate(MODIFIED)
+                .setContentVersion("v1")
+                .setLocation("/test/" + externalId)
+                .setMediaType("Electronic")
+                .setParentExternalId("aggregation")
+                .build()).build();
+    }
+
+    @Test
+    void testUnacknowledgedSubmissionsAreReplayed() throws Exception {
+        received = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        SubmissionJournal journal = SubmissionJournal.Builder().setDirectory(directory).build();
+        ItemServiceClient client = newClient(journal);
+        CompletableFuture<?> inFlight = CompletableFuture.runAsync(() -> {
+            try {
+                client.submitItem(newRequest("item-0"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+        // the process ends while the submission is in flight, leaving a torn record behind
+        journal.close();
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory)) {
+            for (Path segment : segments) {
+                Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2}, StandardOpenOption.APPEND);
+            }
+        }
+        release.countDown();
+        inFlight.join();
+
+        received = new CountDownLatch(1);
+        try (SubmissionJournal reopened = SubmissionJournal.Builder().setDirectory(directory).build()) {
+            assertEquals(1, reopened.getPendingCount());
+            assertEquals(1, newClient(reopened).replayJournal());
+            assertEquals(0, reopened.getPendingCount());
+        }
+        assertEquals(2, bodies.size());
+        assertEquals(bodies.get(0), bodies.get(1));
+        try (SubmissionJournal reopened = SubmissionJournal.Builder().setDirectory(directory).build()) {
+            assertEquals(0, newClient(reopened).replayJournal());
+        }
+    }
+
+    @Test
+    void testFailedSubmissionsStayInTheJournal() throws Exception {
+        status = 503;
+        try (SubmissionJournal journal = SubmissionJournal.Builder().setDirectory(directory).build()) {
+            ItemServiceClient client = newClient(journal);
+            assertThrows(HttpResponseException.class, () -> client.submitItem(newRequest("item-0")));
+            assertThrows(CompletionException.class, () -> client.submitItemAsync(newRequest("item-1")).join());
+            assertEquals(2, journal.getPendingCount());
+        }
+        try (SubmissionJournal reopened = SubmissionJournal.Builder().setDirectory(directory).build()) {
+            ItemServiceClient client = newClient(reopened);
+            assertThrows(HttpResponseException.class, client::replayJournal);
+            assertEquals(2, reopened.getPendingCount());
+            status = 200;
+            assertEquals(2, client.replayJournal());
+            assertEquals(0, reopened.getPendingCount());
+        }
+    }
+
+    @Test
+    void testRejectedSubmissionsAreCompleted() throws Exception {
+        // every entry gets a segment of its own
+        SubmissionJournal.Builder journalBuilder = SubmissionJournal.Builder().setDirectory(directory).setSegmentSize(1);
+        status = 503;
+        try (SubmissionJournal journal = journalBuilder.build()) {
+            ItemServiceClient client = newClient(journal);
+            for (int i = 0; i < 3; i++) {
+                String externalId = "item-" + i;
+                assertThrows(HttpResponseException.class, () -> client.submitItem(newRequest(externalId)));
+            }
+            assertEquals(3, journal.getPendingCount());
+        }
+        status = 200;
+        rejectedItem = "item-0";
+        try (SubmissionJournal reopened = journalBuilder.build()) {
+            ItemServiceClient client = newClient(reopened);
+            assertEquals(3, client.replayJournal());
+            assertEquals(0, reopened.getPendingCount());
+            assertEquals(2, bodies.size());
+            assertTrue(bodies.get(0).contains("\"item-1\""));
+            assertTrue(bodies.get(1).contains("\"item-2\""));
+            // a rejection is final, so it does not stay in the journal either
+            assertThrows(HttpResponseException.class, () -> client.submitItem(newRequest("item-0")));
+            assertEquals(0, reopened.getPendingCount());
+            try (Stream<Path> segments = Files.list(directory)) {
+                assertEquals(1, segments.count());
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentSubmissionsShareForces() throws Exception {
+        int items = 2_000;
+        try (SubmissionJournal journal = SubmissionJournal.Builder().setDirectory(directory).build()) {
+            submitAll(newClient(journal), "journaled-", items);
+            assertEquals(0, journal.getPendingCount());
+            // concurrent submissions share the forces of the journal
+            assertTrue(journal.getSyncCount() < items);
+        }
+    }
+
+    private static void submitAll(ItemServiceClient client, String prefix, int items) {
+        ExecutorService submitters = Executors.newFixedThreadPool(32);
+        AtomicInteger next = new AtomicInteger();
+        try {
+            CompletableFuture<?>[] workers = new CompletableFuture<?>[32];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = CompletableFuture.runAsync(() -> {
+                    for (int item = next.getAndIncrement(); item < items; item = next.getAndIncrement()) {
+                        try {
+                            client.submitItem(newRequest(prefix + item));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }, submitters);
+            }
+            CompletableFuture.allOf(workers).join();
+        } finally {
+            submitters.shutdownNow();
+        }
+    }
+}
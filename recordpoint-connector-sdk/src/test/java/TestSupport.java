@@ -0,0 +1,91 @@
+import com.recordpoint.connectors.sdk.auth.TokenManager;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helpers shared by the tests that run the service clients against a stub {@link com.sun.net.httpserver.HttpServer}.
+ */
+final class TestSupport {
+
+    private TestSupport() {
+    }
+
+    /**
+     * Reads a request body as UTF-8 and closes it.
+     */
+    static String readAll(InputStream in) throws IOException {
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads a request body to its end without keeping it and closes it.
+     *
+     * @return the number of bytes read.
+     */
+    static long countBytes(InputStream in) throws IOException {
+        try (InputStream body = in) {
+            long count = 0;
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                count += read;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Responds to an exchange with a 200 status and a JSON body.
+     */
+    static void respond(HttpExchange exchange, String body) throws IOException {
+        respond(exchange, 200, body);
+    }
+
+    /**
+     * Responds to an exchange with the given status and JSON body, or with no body if it is {@code null}.
+     */
+    static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * A {@link TokenManager} that always returns the same access token.
+     */
+    static final class StaticTokenManager implements TokenManager {
+        @Override
+        public String getAccessToken() {
+            return "token";
+        }
+
+        @Override
+        public void resetToken() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import com.azure.core.credential.AccessToken;
+import com.recordpoint.connectors.sdk.auth.TokenCache;
+import com.recordpoint.connectors.sdk.auth.TokenManager;
+import com.recordpoint.connectors.sdk.auth.TokenRequest;
+import com.recordpoint.connectors.sdk.service.ServiceSettings;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenCacheTest {
+
+    private static ServiceSettings settings(String tenantId) {
+        return ServiceSettings.Builder()
+                .setBaseUrl("http://127.0.0.1/")
+                .setTenantId(tenantId)
+                .setClientId("client")
+                .setSecret("secret")
+                .setConnectorId("connector")
+                .setApplicationName("test")
+                .build();
+    }
+
+    /**
+     * Creates a cache whose tokens are named after their tenant and the number of tokens acquired so far.
+     */
+    private static TokenCache countingCache(AtomicInteger fetches, int maximumSize) {
+        return TokenCache.Builder()
+                .setMaximumSize(maximumSize)
+                .setRefreshAhead(false)
+                .setTokenRequestFactory(settings -> new TokenRequest(context -> Mono.delay(Duration.ofMillis(50))
+                        .map(ignored -> new AccessToken(settings.getTenantId() + "-" + fetches.incrementAndGet(),
+                                OffsetDateTime.now().plusHours(1))),
+                        settings.getTenantId(), settings.getClientId(), settings.getScope()))
+                .build();
+    }
+
+    @Test
+    void testClientsOfSameKeyShareOneAcquisition() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try (TokenCache tokenCache = countingCache(fetches, 10)) {
+            List<Future<String>> tokens = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                TokenManager tokenManager = tokenCache.getTokenManager(settings("tenant-a"));
+                tokens.add(clients.submit(tokenManager::getAccessToken));
+            }
+            for (Future<String> token : tokens) {
+                assertEquals("tenant-a-1", token.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, fetches.get());
+
+            assertEquals("tenant-b-2", tokenCache.getTokenManager(settings("tenant-b")).getAccessToken());
+            assertEquals(2, fetches.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLeastRecentlyUsedTokenIsEvicted() throws Exception {
+        AtomicInteger fetches = new AtomicInteger();
+        try (TokenCache tokenCache = countingCache(fetches, 2)) {
+            TokenManager tenantA = tokenCache.getTokenManager(settings("tenant-a"));
+            TokenManager tenantB = tokenCache.getTokenManager(settings("tenant-b"));
+            assertEquals("tenant-a-1", tenantA.getAccessToken());
+            assertEquals("tenant-b-2", tenantB.getAccessToken());
+            // tenant-b becomes the least recently used
+            assertEquals("tenant-a-1", tenantA.getAccessToken());
+
+            assertEquals("tenant-c-3", tokenCache.getTokenManager(settings("tenant-c")).getAccessToken());
+            assertEquals(2, tokenCache.size());
+            assertEquals("tenant-a-1", tenantA.getAccessToken());
+            // the evicted token manager was closed, so tenant-b acquires a new token
+            assertEquals("tenant-b-4", tenantB.getAccessToken());
+            assertEquals(4, fetches.get());
+        }
+    }
+
+    @Test
+    void testTokensAreSharedPerTenantAndEvictedWhenFull() {
+        try (TokenCache tokenCache = TokenCache.Builder().setMaximumSize(2).setRefreshAhead(false).build()) {
+            TokenManager first = tokenCache.getTokenManager(settings("tenant-a"));
+            TokenManager second = tokenCache.getTokenManager(settings("tenant-a"));
+            assertNotNull(first);
+            assertNotNull(second);
+            assertEquals(1, tokenCache.size());
+
+            tokenCache.getTokenManager(settings("tenant-b"));
+            tokenCache.getTokenManager(settings("tenant-c"));
+            assertEquals(2, tokenCache.size());
+        }
+    }
+
+    @Test
+    void testClosedCacheRejectsNewTenants() {
+        TokenCache tokenCache = TokenCache.Builder().setRefreshAhead(false).build();
+        tokenCache.close();
+        assertEquals(0, tokenCache.size());
+        assertThrows(IllegalStateException.class, () -> tokenCache.getTokenManager(settings("tenant-a")));
+    }
+}